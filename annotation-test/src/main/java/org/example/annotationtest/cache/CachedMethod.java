@@ -0,0 +1,92 @@
+package org.example.annotationtest.cache;
+
+import com.example.jcache.annotation.CacheKeyGenerator;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.cache.support.NullValue;
+
+import javax.cache.Cache;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One cached method with everything resolved up front: the native JCache handle, the key
+ * generator and the annotation's options. A hit is key generation plus one Cache.get.
+ * With sync, concurrent misses on the same key wait for the first caller's invocation instead
+ * of running the method again.
+ */
+final class CachedMethod {
+    private final Cache<Object, Object> cache;
+    private final CacheKeyGenerator keyGenerator;
+    private final boolean skipGet;
+    private final boolean cacheNulls;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight;
+
+    CachedMethod(Cache<Object, Object> cache, CacheKeyGenerator keyGenerator, boolean skipGet, boolean cacheNulls,
+                 boolean sync) {
+        this.cache = cache;
+        this.keyGenerator = keyGenerator;
+        this.skipGet = skipGet;
+        this.cacheNulls = cacheNulls;
+        this.inFlight = sync ? new ConcurrentHashMap<>() : null;
+    }
+
+    Object invoke(MethodInvocation invocation) throws Throwable {
+        Object key = keyGenerator.generateKey(invocation.getArguments());
+        if (!skipGet) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return fromStoreValue(cached);
+            }
+        }
+        if (inFlight == null) {
+            Object result = invocation.proceed();
+            store(key, result);
+            return result;
+        }
+        return invokeOnce(key, invocation);
+    }
+
+    private Object invokeOnce(Object key, MethodInvocation invocation) throws Throwable {
+        CompletableFuture<Object> invocationResult = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, invocationResult);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+        try {
+            // the caller that finished just before us may already have stored the value
+            Object cached = cache.get(key);
+            Object result;
+            if (cached != null) {
+                result = fromStoreValue(cached);
+            } else {
+                result = invocation.proceed();
+                store(key, result);
+            }
+            invocationResult.complete(result);
+            return result;
+        } catch (Throwable t) {
+            invocationResult.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, invocationResult);
+        }
+    }
+
+    private void store(Object key, Object result) {
+        if (result != null) {
+            cache.put(key, result);
+        } else if (cacheNulls) {
+            cache.put(key, NullValue.INSTANCE);
+        }
+    }
+
+    private static Object fromStoreValue(Object cached) {
+        return cached == NullValue.INSTANCE ? null : cached;
+    }
+}
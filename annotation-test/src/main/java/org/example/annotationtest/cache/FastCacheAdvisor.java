@@ -0,0 +1,27 @@
+package org.example.annotationtest.cache;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import javax.cache.annotation.CacheResult;
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link FastCacheInterceptor} to methods annotated with @Cacheable or @CacheResult.
+ * Matching runs once per method when the bean is proxied, never per call.
+ */
+public class FastCacheAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    public FastCacheAdvisor(FastCacheInterceptor interceptor) {
+        super(interceptor);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        return AnnotatedElementUtils.hasAnnotation(specificMethod, Cacheable.class)
+                || specificMethod.isAnnotationPresent(CacheResult.class);
+    }
+}
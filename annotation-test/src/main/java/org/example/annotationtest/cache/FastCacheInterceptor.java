@@ -0,0 +1,117 @@
+package org.example.annotationtest.cache;
+
+import com.example.jcache.annotation.CacheKeyGenerator;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import javax.cache.Cache;
+import javax.cache.annotation.CacheDefaults;
+import javax.cache.annotation.CacheResolverFactory;
+import javax.cache.annotation.CacheResult;
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 🔹 @Cacheable / @CacheResult without per-call resolution
+ * Spring's CacheInterceptor works out the cache operations, resolves the caches and builds a key
+ * through SimpleKeyGenerator (varargs, array copy) on every call. This interceptor resolves each
+ * method once, on its first call, into a {@link CachedMethod}: the native JCache handle, a key
+ * generator specialised for the method's parameters and the sync / skipGet options. Later calls
+ * find it by identity, since Spring passes the same Method instance every time.
+ * Supported: @Cacheable with one cache (or @CacheConfig cacheNames) and sync; @CacheResult with
+ * a cacheName (or @CacheDefaults), @CacheKey/@CacheValue and skipGet.
+ * ⚠️ Everything that needs evaluation per call (key, condition, unless SpEL), custom key
+ * generators and cache resolvers are rejected with an IllegalStateException on the first call;
+ * use Spring's own interceptor for those methods.
+ */
+public class FastCacheInterceptor implements MethodInterceptor {
+    private final ObjectProvider<JCacheCacheManager> cacheManager;
+    private volatile Map<Method, CachedMethod> resolved = new IdentityHashMap<>();
+
+    /**
+     * @param cacheManager looked up on the first call, so the advisor does not pull the cache
+     *                     manager into the early, unproxied phase of bean creation
+     */
+    public FastCacheInterceptor(ObjectProvider<JCacheCacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CachedMethod cachedMethod = resolved.get(invocation.getMethod());
+        if (cachedMethod == null) {
+            cachedMethod = resolve(invocation);
+        }
+        return cachedMethod.invoke(invocation);
+    }
+
+    private synchronized CachedMethod resolve(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        CachedMethod cachedMethod = resolved.get(method);
+        if (cachedMethod == null) {
+            Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+            cachedMethod = cachedMethod(AopUtils.getMostSpecificMethod(method, targetClass), targetClass);
+            Map<Method, CachedMethod> copy = new IdentityHashMap<>(resolved);
+            copy.put(method, cachedMethod);
+            resolved = copy;
+        }
+        return cachedMethod;
+    }
+
+    private CachedMethod cachedMethod(Method method, Class<?> targetClass) {
+        JCacheCacheManager manager = cacheManager.getObject();
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+        if (cacheable != null) {
+            check(cacheable.key().isEmpty() && cacheable.keyGenerator().isEmpty() && cacheable.cacheManager().isEmpty()
+                    && cacheable.cacheResolver().isEmpty(), method, "key, keyGenerator, cacheManager and cacheResolver");
+            check(cacheable.condition().isEmpty() && cacheable.unless().isEmpty(), method, "condition and unless");
+            String[] cacheNames = cacheable.cacheNames();
+            if (cacheNames.length == 0) {
+                CacheConfig defaults = AnnotatedElementUtils.findMergedAnnotation(targetClass, CacheConfig.class);
+                cacheNames = defaults != null ? defaults.cacheNames() : cacheNames;
+            }
+            check(cacheNames.length == 1, method, "anything but exactly one cache name");
+            return new CachedMethod(nativeCache(manager, cacheNames[0], method), CacheKeyGenerator.allParameters(method),
+                    false, manager.isAllowNullValues(), cacheable.sync());
+        }
+
+        CacheResult cacheResult = method.getAnnotation(CacheResult.class);
+        check(cacheResult != null, method, "methods without @Cacheable or @CacheResult");
+        check(cacheResult.cacheKeyGenerator() == javax.cache.annotation.CacheKeyGenerator.class
+                && cacheResult.cacheResolverFactory() == CacheResolverFactory.class
+                && cacheResult.exceptionCacheName().isEmpty(), method,
+                "cacheKeyGenerator, cacheResolverFactory and exceptionCacheName");
+        String cacheName = cacheResult.cacheName();
+        if (cacheName.isEmpty()) {
+            CacheDefaults defaults = targetClass.getAnnotation(CacheDefaults.class);
+            cacheName = defaults != null ? defaults.cacheName() : cacheName;
+        }
+        check(!cacheName.isEmpty(), method, "the default cache name");
+        // JSR-107 never caches a null result
+        return new CachedMethod(nativeCache(manager, cacheName, method), CacheKeyGenerator.forMethod(method),
+                cacheResult.skipGet(), false, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativeCache(JCacheCacheManager manager, String cacheName, Method method) {
+        org.springframework.cache.Cache cache = manager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("No cache named '" + cacheName + "' for " + method);
+        }
+        return (Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    private static void check(boolean supported, Method method, String unsupported) {
+        if (!supported) {
+            throw new IllegalStateException(FastCacheInterceptor.class.getSimpleName() + " does not support "
+                    + unsupported + " (" + method + ")");
+        }
+    }
+}
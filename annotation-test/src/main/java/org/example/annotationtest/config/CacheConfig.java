@@ -1,31 +1,100 @@
 package org.example.annotationtest.config;
 
+import com.example.jcache.tiered.TwoLevelCache;
+import org.example.annotationtest.cache.FastCacheAdvisor;
+import org.example.annotationtest.cache.FastCacheInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCache;
 import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-@EnableCaching
+/**
+ * Caches for the service plus the interceptor that applies them, chosen by the
+ * {@value #INTERCEPTOR_PROPERTY} property: "spring" (default) → Spring's own caching interceptors,
+ * "fast" → {@link FastCacheInterceptor}.
+ * expensiveOps has two levels: a small on-heap L1 ({@value #L1_MAX_ENTRIES} entries, at most
+ * {@value #L1_TIME_TO_LIVE_SECONDS}s each) in front of the provider's cache.
+ */
 @Configuration
 public class CacheConfig {
+    public static final String INTERCEPTOR_PROPERTY = "annotation-test.cache.interceptor";
+    public static final String EXPENSIVE_OPS = "expensiveOps";
+    static final long L1_MAX_ENTRIES = 1_000;
+    static final long L1_TIME_TO_LIVE_SECONDS = 30;
 
     @Bean
     public JCacheCacheManager customCacheManager() {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
 
-        // Explicitly create the cache if it doesn't exist
-        if (cacheManager.getCache("expensiveOps") == null) {
-            cacheManager.createCache("expensiveOps",
-                    new javax.cache.configuration.MutableConfiguration<>()
-                            .setStoreByValue(false)
-                            .setStatisticsEnabled(true));
+        // Explicitly create the caches if they don't exist
+        for (String cacheName : new String[]{EXPENSIVE_OPS, "versionedOps"}) {
+            if (cacheManager.getCache(cacheName) == null) {
+                cacheManager.createCache(cacheName,
+                        new javax.cache.configuration.MutableConfiguration<>()
+                                .setStoreByValue(false)
+                                .setStatisticsEnabled(true));
+            }
         }
 
-        return new JCacheCacheManager(cacheManager);
+        return new TwoLevelCacheManager(cacheManager);
+    }
+
+    /**
+     * Serves expensiveOps through a {@link TwoLevelCache}: the provider's cache is the L2, with a
+     * small striped L1 of the hottest results in front of it.
+     */
+    static class TwoLevelCacheManager extends JCacheCacheManager {
+
+        TwoLevelCacheManager(CacheManager cacheManager) {
+            super(cacheManager);
+        }
+
+        @Override
+        protected Collection<Cache> loadCaches() {
+            List<Cache> caches = new ArrayList<>();
+            for (Cache cache : super.loadCaches()) {
+                if (EXPENSIVE_OPS.equals(cache.getName())) {
+                    @SuppressWarnings("unchecked")
+                    javax.cache.Cache<Object, Object> l2 = (javax.cache.Cache<Object, Object>) cache.getNativeCache();
+                    cache = new JCacheCache(new TwoLevelCache<>(l2, L1_MAX_ENTRIES, L1_TIME_TO_LIVE_SECONDS,
+                            TimeUnit.SECONDS), isAllowNullValues());
+                }
+                caches.add(cache);
+            }
+            return caches;
+        }
+    }
+
+    @EnableCaching
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = INTERCEPTOR_PROPERTY, havingValue = "spring", matchIfMissing = true)
+    static class SpringCaching {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = INTERCEPTOR_PROPERTY, havingValue = "fast")
+    static class FastCaching {
+
+        // infrastructure role: picked up by the auto-proxy creator like Spring's own cache advisor
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        static FastCacheAdvisor fastCacheAdvisor(ObjectProvider<JCacheCacheManager> cacheManager) {
+            return new FastCacheAdvisor(new FastCacheInterceptor(cacheManager));
+        }
     }
 }
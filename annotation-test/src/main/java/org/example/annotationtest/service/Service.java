@@ -1,5 +1,6 @@
 package org.example.annotationtest.service;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import javax.cache.annotation.CacheResult;
 import java.util.logging.Level;
@@ -13,4 +14,12 @@ public class Service {
         LOGGER.log(Level.INFO, "Processing {0} in expensiveOperation to store in the cache", input);
         return "DataFor-" + input + "@" + System.currentTimeMillis();
     }
+
+    // sync: concurrent misses on the same key compute it once, the other callers wait for that result
+    @Cacheable(cacheNames = "versionedOps", sync = true)
+    public String versionedOperation(String input, int version) {
+        LOGGER.log(Level.INFO, "Processing {0} v{1} in versionedOperation to store in the cache",
+                new Object[]{input, version});
+        return "DataFor-" + input + "-v" + version + "@" + System.currentTimeMillis();
+    }
 }
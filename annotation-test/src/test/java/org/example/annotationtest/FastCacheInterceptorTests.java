@@ -0,0 +1,109 @@
+package org.example.annotationtest;
+
+import org.example.annotationtest.config.CacheConfig;
+import org.example.annotationtest.service.Service;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = CacheConfig.INTERCEPTOR_PROPERTY + "=fast")
+class FastCacheInterceptorTests {
+
+    @Autowired
+    private Service service;
+
+    @Autowired
+    private SlowService slowService;
+
+    @Test
+    void cachesCacheResultAndCacheable() {
+        assertTrue(AopUtils.isAopProxy(service));
+        assertSame(service.expensiveOperation("fast"), service.expensiveOperation("fast"));
+        assertSame(service.versionedOperation("fast", 1), service.versionedOperation("fast", 1));
+        assertTrue(service.versionedOperation("fast", 2).contains("-v2@"));
+    }
+
+    @Test
+    void syncComputesConcurrentMissesOnce() throws Exception {
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return slowService.compute("shared");
+                }));
+            }
+            start.countDown();
+            String first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<String> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, slowService.getInvocations());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cachesNullForCacheable() {
+        assertNull(slowService.nothing("missing"));
+        assertNull(slowService.nothing("missing"));
+        assertEquals(1, slowService.getNullInvocations());
+    }
+
+    @TestConfiguration
+    static class SlowServiceConfig {
+        @Bean
+        SlowService slowService() {
+            return new SlowService();
+        }
+    }
+
+    // the test sees the CGLIB proxy, so the counters are read through methods, not fields
+    static class SlowService {
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final AtomicInteger nullInvocations = new AtomicInteger();
+
+        public int getInvocations() {
+            return invocations.get();
+        }
+
+        public int getNullInvocations() {
+            return nullInvocations.get();
+        }
+
+        @Cacheable(cacheNames = "versionedOps", sync = true)
+        public String compute(String input) throws InterruptedException {
+            invocations.incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(200);
+            return "computed-" + input;
+        }
+
+        @Cacheable(cacheNames = "versionedOps")
+        public String nothing(String input) {
+            nullInvocations.incrementAndGet();
+            return null;
+        }
+    }
+}
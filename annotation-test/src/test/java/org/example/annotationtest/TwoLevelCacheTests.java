@@ -0,0 +1,43 @@
+package org.example.annotationtest;
+
+import com.example.jcache.tiered.TwoLevelCache;
+import org.example.annotationtest.config.CacheConfig;
+import org.example.annotationtest.service.Service;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+class TwoLevelCacheTests {
+
+    @Autowired
+    private Service service;
+
+    @Autowired
+    private JCacheCacheManager cacheManager;
+
+    @Test
+    void promotesToL1AndInvalidatesOnRemove() {
+        TwoLevelCache<?, ?> cache = assertInstanceOf(TwoLevelCache.class,
+                cacheManager.getCache(CacheConfig.EXPENSIVE_OPS).getNativeCache());
+        long l1Hits = cache.getL1HitCount();
+        long l2Hits = cache.getL2HitCount();
+
+        String first = service.expensiveOperation("two-level");
+        assertSame(first, service.expensiveOperation("two-level"));
+        assertSame(first, service.expensiveOperation("two-level"));
+        assertEquals(l2Hits + 1, cache.getL2HitCount());
+        assertEquals(l1Hits + 1, cache.getL1HitCount());
+
+        // a remove straight on the L2 drops the L1 copy too, so the next call misses both levels
+        long misses = cache.getMissCount();
+        cacheManager.getCacheManager().getCache(CacheConfig.EXPENSIVE_OPS).removeAll();
+        service.expensiveOperation("two-level");
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+}
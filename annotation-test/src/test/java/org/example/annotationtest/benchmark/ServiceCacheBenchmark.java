@@ -0,0 +1,97 @@
+package org.example.annotationtest.benchmark;
+
+import org.example.annotationtest.AnnotationTestApplication;
+import org.example.annotationtest.config.CacheConfig;
+import org.example.annotationtest.service.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache hits on the same {@link Service} bean through Spring's caching interceptors ("spring")
+ * and through FastCacheInterceptor ("fast"):
+ * cacheResultHit → expensiveOperation(String), @CacheResult;
+ * cacheableSyncHit → versionedOperation(String, int), @Cacheable(sync = true) with a two-part key.
+ * Every key is computed once in setup, so only hits are measured.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main ServiceCacheBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceCacheBenchmark {
+    static final int KEY_COUNT = 1024;
+    static final int KEY_MASK = KEY_COUNT - 1;
+
+    @Param({"spring", "fast"})
+    String interceptor;
+
+    private ConfigurableApplicationContext context;
+    private Service service;
+    private String[] inputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AnnotationTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(CacheConfig.INTERCEPTOR_PROPERTY + "=" + interceptor, "logging.level.root=WARN")
+                .run();
+        service = context.getBean(Service.class);
+        inputs = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            inputs[i] = "key" + i;
+            service.expensiveOperation(inputs[i]);
+            service.versionedOperation(inputs[i], i & 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String cacheResultHit(Cursor cursor) {
+        return service.expensiveOperation(inputs[cursor.next()]);
+    }
+
+    @Benchmark
+    public String cacheableSyncHit(Cursor cursor) {
+        int index = cursor.next();
+        return service.versionedOperation(inputs[index], index & 1);
+    }
+
+    /**
+     * Per-thread position in the key array, starting at a random offset.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index = ThreadLocalRandom.current().nextInt(KEY_COUNT);
+
+        int next() {
+            index = (index + 1) & KEY_MASK;
+            return index;
+        }
+    }
+}
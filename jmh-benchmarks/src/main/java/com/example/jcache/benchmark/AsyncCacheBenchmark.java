@@ -0,0 +1,158 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.async.AsyncCache;
+import com.example.jcache.async.AsyncExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.integration.CacheLoader;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One request looking up {@value #FAN_OUT} keys whose loader takes 1 ms (a fast remote service):
+ * blocking → cache.get one after the other on a read-through cache;
+ * asyncReadThrough → {@link AsyncCache#getAsync} on the same cache, each get on the executor;
+ * asyncLoader → getAsync on a plain cache, the facade calling the loader itself.
+ * lookup=miss removes the keys first, lookup=hit measures the facade's overhead on warm keys.
+ * The executor is {@link AsyncExecutors#newLoaderExecutor(int)}: virtual threads on Java 21+,
+ * otherwise {@value #FALLBACK_THREADS} platform threads.
+ * ⚠️ Ehcache 3.0's internal ConcurrentHashMap reads a JDK-internal property under contention, hence
+ * the --add-exports for the forked JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/sun.security.action=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class AsyncCacheBenchmark {
+    static final int FAN_OUT = 64;
+    static final int FALLBACK_THREADS = 64;
+
+    @Param({"miss", "hit"})
+    public String lookup;
+
+    private CacheManager cacheManager;
+    private String readThroughName;
+    private String plainName;
+    private Cache<String, String> readThroughCache;
+    private AsyncCache<String, String> asyncReadThrough;
+    private AsyncCache<String, String> asyncLoader;
+    private ExecutorService executor;
+    private String[] keys;
+    private Set<String> keySet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager();
+        readThroughName = BenchmarkSupport.uniqueCacheName("asyncReadThrough");
+        plainName = BenchmarkSupport.uniqueCacheName("asyncPlain");
+        readThroughCache = cacheManager.createCache(readThroughName, new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setReadThrough(true)
+                .setCacheLoaderFactory(FactoryBuilder.factoryOf(RemoteLoader.class)));
+        Cache<String, String> plainCache = cacheManager.createCache(plainName, new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class));
+        executor = AsyncExecutors.newLoaderExecutor(FALLBACK_THREADS);
+        asyncReadThrough = new AsyncCache<>(readThroughCache, executor);
+        asyncLoader = new AsyncCache<>(plainCache, new RemoteLoader(), null, executor);
+        keys = Arrays.copyOf(BenchmarkSupport.stringKeys("key"), FAN_OUT);
+        keySet = new HashSet<>(Arrays.asList(keys));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetKeys() {
+        if ("miss".equals(lookup)) {
+            readThroughCache.removeAll(keySet);
+            asyncLoader.getCache().removeAll(keySet);
+        } else {
+            for (String key : keys) {
+                readThroughCache.put(key, key);
+                asyncLoader.getCache().put(key, key);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+        cacheManager.destroyCache(readThroughName);
+        cacheManager.destroyCache(plainName);
+    }
+
+    @Benchmark
+    public int blocking() {
+        int found = 0;
+        for (String key : keys) {
+            if (readThroughCache.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Object asyncReadThrough() {
+        return fanOut(asyncReadThrough);
+    }
+
+    @Benchmark
+    public Object asyncLoader() {
+        return fanOut(asyncLoader);
+    }
+
+    private Object fanOut(AsyncCache<String, String> cache) {
+        CompletableFuture<?>[] lookups = new CompletableFuture[FAN_OUT];
+        for (int i = 0; i < FAN_OUT; i++) {
+            lookups[i] = cache.getAsync(keys[i]);
+        }
+        return CompletableFuture.allOf(lookups).join();
+    }
+
+    /**
+     * A loader with 1 ms of network latency per call.
+     */
+    public static class RemoteLoader implements CacheLoader<String, String>, Serializable {
+        @Override
+        public String load(String key) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key;
+        }
+
+        @Override
+        public Map<String, String> loadAll(Iterable<? extends String> keys) {
+            Map<String, String> values = new HashMap<>();
+            for (String key : keys) {
+                values.put(key, load(key));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.listener.AsyncCacheEntryListener;
+import com.example.jcache.listener.MyListener;
+import com.example.jcache.listener.OverflowPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get/put cost of a {@code BasicCacheExample}-style cache across the configuration switches the
+ * examples use: store-by-value vs store-by-reference, statistics on/off and no listener, a
+ * synchronous {@link MyListener} or the same listener dispatched asynchronously.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BasicCacheBenchmark {
+
+    @Param({"true", "false"})
+    boolean storeByValue;
+
+    @Param({"false", "true"})
+    boolean statistics;
+
+    /**
+     * none, MyListener registered synchronously (as in ListenerExample before), or MyListener behind
+     * an {@link AsyncCacheEntryListener}.
+     */
+    @Param({"none", "sync", "async"})
+    String listener;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.muteLogging(MyListener.class);
+        MutableConfiguration<String, String> configuration = new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setStoreByValue(storeByValue)
+                .setStatisticsEnabled(statistics);
+        if ("sync".equals(listener)) {
+            configuration.addCacheEntryListenerConfiguration(new MutableCacheEntryListenerConfiguration<>(
+                    FactoryBuilder.factoryOf(MyListener.class), null, false, true));
+        } else if ("async".equals(listener)) {
+            configuration.addCacheEntryListenerConfiguration(new MutableCacheEntryListenerConfiguration<>(
+                    AsyncCacheEntryListener.<String, String>factory(FactoryBuilder.factoryOf(MyListener.class),
+                            2, 4096, 256, OverflowPolicy.BLOCK), null, false, true));
+        }
+
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("basicCache");
+        cache = cacheManager.createCache(cacheName, configuration);
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.put(key, "value-" + key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.put(key, key);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.jcache.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the suite at 1, 2, 4 ... N threads (N = available processors) with the GC profiler
+ * attached, so every result carries throughput, the sampled latency percentiles (p99 among them)
+ * and {@code gc.alloc.rate.norm} bytes per operation. One JSON file is written per thread count
+ * so runs can be diffed against a previous baseline.
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar com.example.jcache.benchmark.BenchmarkRunner [regex]}
+ */
+public class BenchmarkRunner {
+    private static final Logger LOGGER = Logger.getLogger(BenchmarkRunner.class.getName());
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+
+        for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+            LOGGER.log(Level.INFO, "Running {0} with {1} thread(s)", new Object[]{include, threads});
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("jmh-result-" + threads + "t.json");
+            new Runner(options.build()).run();
+        }
+    }
+
+    static List<Integer> threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads <<= 1) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        return counts;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.jcache.benchmark;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared plumbing for the benchmarks: cache manager lookup, unique cache names per trial
+ * and pre-built key sets so that key construction never shows up in the measurements.
+ */
+final class BenchmarkSupport {
+    static final int KEY_COUNT = 1024;
+    static final int KEY_MASK = KEY_COUNT - 1;
+
+    private static final AtomicInteger CACHE_SEQUENCE = new AtomicInteger();
+    // LogManager only holds loggers weakly; keep the muted ones reachable so the level sticks
+    private static final List<Logger> MUTED_LOGGERS = new CopyOnWriteArrayList<>();
+
+    private BenchmarkSupport() {
+    }
+
+    static CacheManager cacheManager() {
+        return Caching.getCachingProvider().getCacheManager();
+    }
+
+    /**
+     * Manager of a provider named by class; once a second provider is loaded the no-arg lookup above
+     * no longer works, so benchmarks comparing providers name both.
+     */
+    static CacheManager cacheManager(String providerClassName) {
+        return Caching.getCachingProvider(providerClassName).getCacheManager();
+    }
+
+    static String uniqueCacheName(String prefix) {
+        return prefix + "-" + CACHE_SEQUENCE.incrementAndGet();
+    }
+
+    static String[] stringKeys(String prefix) {
+        String[] keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = prefix + i;
+        }
+        return keys;
+    }
+
+    static Integer[] integerKeys() {
+        Integer[] keys = new Integer[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = i;
+        }
+        return keys;
+    }
+
+    /**
+     * The example loaders, writers and listeners log every call at INFO. Console output would
+     * dominate the numbers, so the benchmarks measure the cache machinery with that logging muted.
+     */
+    static void muteLogging(Class<?>... classes) {
+        for (Class<?> type : classes) {
+            Logger logger = Logger.getLogger(type.getName());
+            logger.setLevel(Level.WARNING);
+            MUTED_LOGGERS.add(logger);
+        }
+    }
+}
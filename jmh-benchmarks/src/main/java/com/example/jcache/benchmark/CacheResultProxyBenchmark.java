@@ -0,0 +1,115 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.annotation.CacheResultProxyFactory;
+import com.example.jcache.annotation.Service;
+import com.example.jcache.annotation.ServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.annotation.CacheResult;
+import javax.cache.configuration.MutableConfiguration;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@code @CacheResult} hit on the {@code AnnotationExample} service: a plain Cache.get
+ * as the floor, the proxy from {@link CacheResultProxyFactory}, and the original reflective
+ * interceptor (annotation lookup + Method.invoke per call) as the baseline it replaced.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheResultProxyBenchmark {
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<Object, Object> cache;
+    private Service generatedProxy;
+    private Service reflectiveProxy;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.muteLogging(ServiceImpl.class);
+        cacheManager = BenchmarkSupport.cacheManager();
+        // The proxy resolves the cache named by @CacheResult, so this benchmark owns "expensiveOps"
+        cacheName = "expensiveOps";
+        cache = cacheManager.createCache(cacheName, new MutableConfiguration<>().setStoreByValue(false));
+
+        Service target = new ServiceImpl();
+        generatedProxy = CacheResultProxyFactory.create(Service.class, target, cacheManager);
+        reflectiveProxy = (Service) Proxy.newProxyInstance(Service.class.getClassLoader(),
+                new Class<?>[]{Service.class}, new ReflectiveInterceptor(target, cache));
+
+        keys = BenchmarkSupport.stringKeys("input");
+        for (String key : keys) {
+            generatedProxy.expensiveOperation(key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public Object directGet(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String proxyHit(KeyCursor cursor) {
+        return generatedProxy.expensiveOperation(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String reflectiveInterceptorHit(KeyCursor cursor) {
+        return reflectiveProxy.expensiveOperation(keys[cursor.next()]);
+    }
+
+    /**
+     * The interceptor AnnotationExample used before CacheResultProxyFactory.
+     */
+    private static final class ReflectiveInterceptor implements InvocationHandler {
+        private final Object target;
+        private final Cache<Object, Object> cache;
+
+        private ReflectiveInterceptor(Object target, Cache<Object, Object> cache) {
+            this.target = target;
+            this.cache = cache;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            CacheResult annotation = method.getAnnotation(CacheResult.class);
+            if (annotation != null) {
+                Object key = args[0];
+                Object cached = cache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+                Object result = method.invoke(target, args);
+                cache.put(key, result);
+                return result;
+            }
+            return method.invoke(target, args);
+        }
+    }
+}
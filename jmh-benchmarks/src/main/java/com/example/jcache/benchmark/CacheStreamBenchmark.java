@@ -0,0 +1,80 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.stream.CacheStreams;
+import com.example.jcache.striped.StripedCachingProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full scan of a 100,000-entry store-by-value StripedCache: the for-each loop (a deserialized copy
+ * per value) vs {@link CacheStreams} projecting one field of each value, sequential and parallel,
+ * and a key-only scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/sun.security.action=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class CacheStreamBenchmark {
+    private static final int ENTRIES = 100_000;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<Integer, String[]> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager(StripedCachingProvider.class.getName());
+        cacheName = BenchmarkSupport.uniqueCacheName("streamCache");
+        cache = cacheManager.createCache(cacheName, new MutableConfiguration<Integer, String[]>()
+                .setTypes(Integer.class, String[].class));
+        for (int i = 0; i < ENTRIES; i++) {
+            cache.put(i, new String[]{"author" + i % 500, "title" + i});
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public long forEachLoop() {
+        long total = 0;
+        for (Cache.Entry<Integer, String[]> entry : cache) {
+            total += entry.getValue()[0].length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long project() {
+        return CacheStreams.project(cache, (key, value) -> value[0]).mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long projectParallel() {
+        return CacheStreams.project(cache, (key, value) -> value[0]).parallel().mapToLong(String::length).sum();
+    }
+
+    @Benchmark
+    public long keys() {
+        return CacheStreams.keys(cache).count();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.striped.StripedCachingProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ehcache vs {@link StripedCachingProvider} behind the same JCache calls: store-by-reference
+ * String caches, eternal or with a created expiry (so the striped cache reads the clock and
+ * schedules timer-wheel entries). Run it through BenchmarkRunner to see how both scale with
+ * the thread count; {@code readWrite} mixes three readers with one writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CachingProviderBenchmark {
+
+    @Param({"org.ehcache.jsr107.EhcacheCachingProvider", "com.example.jcache.striped.StripedCachingProvider"})
+    String provider;
+
+    @Param({"eternal", "created"})
+    String expiry;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MutableConfiguration<String, String> configuration = new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setStoreByValue(false);
+        if ("created".equals(expiry)) {
+            configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(Duration.ONE_HOUR));
+        }
+        cacheManager = BenchmarkSupport.cacheManager(provider);
+        cacheName = BenchmarkSupport.uniqueCacheName("providerCache");
+        cache = cacheManager.createCache(cacheName, configuration);
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.put(key, "value-" + key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.put(key, key);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public String readWriteGet(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWritePut(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.put(key, key);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.expiry.TimerWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The expiry bookkeeping of {@link com.example.jcache.expiry.ProactiveExpiryCache}: every operation
+ * writes one key with a TTL between 1 second and 1 hour (a put), moves the clock 1 ms and collects
+ * the keys that came due, with {@code pending} keys scheduled.
+ * wheel → {@link TimerWheel}, O(1) per operation.
+ * sortedMap → the deadlines in a TreeMap (what a DelayQueue or a ScheduledExecutorService amounts to,
+ * minus their locking), O(log n) per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpirySchedulerBenchmark {
+    private static final long TICK_MILLIS = 100;
+    private static final int TTL_COUNT = 4096;
+
+    @Param({"1000", "1000000"})
+    public int pending;
+
+    private TimerWheel<Integer> wheel;
+    private SortedMapScheduler sortedMap;
+    private long[] ttls;
+    private int[] keys;
+    private int cursor;
+    private long wheelNow;
+    private long sortedMapNow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ttls = new long[TTL_COUNT];
+        for (int i = 0; i < TTL_COUNT; i++) {
+            ttls[i] = 1_000 + (long) (random.nextDouble() * TimeUnit.HOURS.toMillis(1));
+        }
+        keys = new int[TTL_COUNT * 16];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(pending);
+        }
+        wheelNow = 0;
+        sortedMapNow = 0;
+        wheel = new TimerWheel<>(TICK_MILLIS, wheelNow);
+        sortedMap = new SortedMapScheduler();
+        for (int key = 0; key < pending; key++) {
+            wheel.schedule(key, wheelNow + ttls[key % TTL_COUNT]);
+            sortedMap.schedule(key, sortedMapNow + ttls[key % TTL_COUNT]);
+        }
+    }
+
+    @Benchmark
+    public int wheel() {
+        int i = cursor++;
+        wheel.schedule(keys[i & (keys.length - 1)], wheelNow + ttls[i & (TTL_COUNT - 1)]);
+        wheelNow++;
+        return wheel.advance(wheelNow).size();
+    }
+
+    @Benchmark
+    public int sortedMap() {
+        int i = cursor++;
+        sortedMap.schedule(keys[i & (keys.length - 1)], sortedMapNow + ttls[i & (TTL_COUNT - 1)]);
+        sortedMapNow++;
+        return sortedMap.advance(sortedMapNow);
+    }
+
+    /**
+     * Deadline → keys, plus key → deadline to find a key's timer again when it is rescheduled.
+     */
+    static final class SortedMapScheduler {
+        private final TreeMap<Long, List<Integer>> byDeadline = new TreeMap<>();
+        private final Map<Integer, Long> deadlines = new HashMap<>();
+
+        void schedule(Integer key, long deadline) {
+            // rounded to ticks like the wheel, so both fire the same keys together
+            long tick = (deadline + TICK_MILLIS - 1) / TICK_MILLIS;
+            Long previous = deadlines.put(key, tick);
+            if (previous != null) {
+                List<Integer> keys = byDeadline.get(previous);
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    byDeadline.remove(previous);
+                }
+            }
+            byDeadline.computeIfAbsent(tick, t -> new ArrayList<>()).add(key);
+        }
+
+        int advance(long now) {
+            long tick = now / TICK_MILLIS;
+            int due = 0;
+            Map.Entry<Long, List<Integer>> first;
+            while ((first = byDeadline.firstEntry()) != null && first.getKey() <= tick) {
+                byDeadline.pollFirstEntry();
+                for (Integer key : first.getValue()) {
+                    deadlines.remove(key);
+                    due++;
+                }
+            }
+            return due;
+        }
+    }
+}
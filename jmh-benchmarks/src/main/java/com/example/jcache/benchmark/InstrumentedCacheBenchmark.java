@@ -0,0 +1,80 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.statistics.CacheMetrics;
+import com.example.jcache.statistics.InstrumentedCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link InstrumentedCache} on the cheapest cache operations (store-by-reference
+ * get/put), where the two System.nanoTime() calls and the histogram update weigh the most.
+ * Compare each instrumentation mode against "none"; "sampled" times one call in 16.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentedCacheBenchmark {
+
+    @Param({"none", "all", "sampled"})
+    String instrumentation;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("instrumentedCache");
+        Cache<String, String> target = cacheManager.createCache(cacheName, new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setStoreByValue(false));
+        if ("all".equals(instrumentation)) {
+            cache = new InstrumentedCache<>(target, new CacheMetrics());
+        } else if ("sampled".equals(instrumentation)) {
+            cache = new InstrumentedCache<>(target, new CacheMetrics(16));
+        } else {
+            cache = target;
+        }
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.put(key, "value-" + key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.put(key, key);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.jcache.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-thread position in the pre-built key array. Threads start at random offsets so that
+ * multi-threaded runs do not march over the same keys in lock step.
+ */
+@State(Scope.Thread)
+public class KeyCursor {
+    private int index = ThreadLocalRandom.current().nextInt(BenchmarkSupport.KEY_COUNT);
+
+    int next() {
+        index = (index + 1) & BenchmarkSupport.KEY_MASK;
+        return index;
+    }
+}
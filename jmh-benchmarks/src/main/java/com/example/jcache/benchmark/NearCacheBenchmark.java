@@ -0,0 +1,113 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.cluster.CacheClient;
+import com.example.jcache.cluster.CacheServer;
+import com.example.jcache.cluster.Codecs;
+import com.example.jcache.cluster.NearCache;
+import com.example.jcache.eviction.Weighers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NearCache} against a {@link CacheServer} on loopback:
+ * nearHit → the local copy, no network;
+ * serverGet → a near miss answered by the server, one round trip;
+ * sequentialGets / pipelinedGetAll → {@value #BATCH} near misses one by one vs in one pipelined batch.
+ * The "remote" near cache holds a single entry, so cycling over more keys always misses locally.
+ * Loopback round trips are tens of microseconds; across a network the gap between sequential and
+ * pipelined grows with the latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearCacheBenchmark {
+    static final int BATCH = 64;
+
+    private CacheServer server;
+    private CacheClient client;
+    private NearCache<Integer, String> near;
+    private NearCache<Integer, String> remote;
+    private Integer[] keys;
+    private List<List<Integer>> batches;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.muteLogging(CacheServer.class);
+        server = CacheServer.startLocal();
+        client = CacheClient.connect(server.getAddress());
+        near = client.nearCache("near", Codecs.integers(), Codecs.strings(),
+                2L * BenchmarkSupport.KEY_COUNT, Weighers.entries(), null);
+        try (CacheClient writer = CacheClient.connect(server.getAddress())) {
+            NearCache<Integer, String> remoteWriter = writer.nearCache("remote", Codecs.integers(), Codecs.strings(),
+                    1, Weighers.entries(), null);
+            keys = BenchmarkSupport.integerKeys();
+            for (Integer key : keys) {
+                near.put(key, "value-" + key);
+                remoteWriter.put(key, "value-" + key);
+            }
+        }
+        for (Integer key : keys) {
+            near.get(key);
+        }
+        remote = client.nearCache("remote", Codecs.integers(), Codecs.strings(), 1, Weighers.entries(), null);
+        batches = new ArrayList<>();
+        for (int start = 0; start < keys.length; start += BATCH) {
+            List<Integer> batch = new ArrayList<>(BATCH);
+            for (int i = start; i < start + BATCH; i++) {
+                batch.add(keys[i]);
+            }
+            batches.add(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String nearHit(KeyCursor cursor) {
+        return near.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String serverGet(KeyCursor cursor) {
+        return remote.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public int sequentialGets(KeyCursor cursor) {
+        int found = 0;
+        for (Integer key : batches.get(cursor.next() % batches.size())) {
+            if (remote.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<Integer, String> pipelinedGetAll(KeyCursor cursor) {
+        return remote.getAll(batches.get(cursor.next() % batches.size()));
+    }
+}
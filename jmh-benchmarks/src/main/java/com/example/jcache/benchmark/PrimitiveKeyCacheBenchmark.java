@@ -0,0 +1,94 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.primitive.IntKeyCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * int-keyed lookups: Ehcache's Cache&lt;Integer, String&gt; (boxes every key), {@link IntKeyCache}
+ * through the boxed Cache interface, and IntKeyCache's primitive get(int)/put(int, V).
+ * Keys start at 1_000_000 so Integer.valueOf cannot return cached instances; run with
+ * -prof gc to see the allocation per operation. The Integer of boxedGet is usually scalar-replaced
+ * by the JIT once get() inlines; Ehcache's key escapes into its store and is always allocated.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveKeyCacheBenchmark {
+    private static final int FIRST_KEY = 1_000_000;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<Integer, String> ehcache;
+    private IntKeyCache<String> primitive;
+    private Cache<Integer, String> primitiveBoxed;
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("boxedCache");
+        ehcache = cacheManager.createCache(cacheName, new MutableConfiguration<Integer, String>()
+                .setTypes(Integer.class, String.class)
+                .setStoreByValue(false));
+        primitive = new IntKeyCache<>("primitiveCache", String.class, BenchmarkSupport.KEY_COUNT);
+        primitiveBoxed = primitive;
+        values = new String[BenchmarkSupport.KEY_COUNT];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value-" + i;
+            ehcache.put(FIRST_KEY + i, values[i]);
+            primitive.put(FIRST_KEY + i, values[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+        primitive.close();
+    }
+
+    @Benchmark
+    public String ehcacheGet(KeyCursor cursor) {
+        return ehcache.get(FIRST_KEY + cursor.next());
+    }
+
+    @Benchmark
+    public String boxedGet(KeyCursor cursor) {
+        return primitiveBoxed.get(FIRST_KEY + cursor.next());
+    }
+
+    @Benchmark
+    public String primitiveGet(KeyCursor cursor) {
+        return primitive.get(FIRST_KEY + cursor.next());
+    }
+
+    @Benchmark
+    public void ehcachePut(KeyCursor cursor) {
+        int index = cursor.next();
+        ehcache.put(FIRST_KEY + index, values[index]);
+    }
+
+    @Benchmark
+    public void primitivePut(KeyCursor cursor) {
+        int index = cursor.next();
+        primitive.put(FIRST_KEY + index, values[index]);
+    }
+}
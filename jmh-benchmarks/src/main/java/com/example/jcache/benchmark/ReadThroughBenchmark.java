@@ -0,0 +1,86 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.loader.MyCacheLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through through {@link MyCacheLoader}, configured like {@code CacheLoaderExample}.
+ * {@link #hit()} measures a warm get, {@link #missAndLoad} evicts the key first so every call
+ * pays the full miss + load + store path.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadThroughBenchmark {
+
+    @Param({"true", "false"})
+    boolean storeByValue;
+
+    @Param({"false", "true"})
+    boolean statistics;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.muteLogging(MyCacheLoader.class);
+        MutableConfiguration<String, String> configuration = new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setStoreByValue(storeByValue)
+                .setStatisticsEnabled(statistics)
+                .setReadThrough(true)
+                .setCacheLoaderFactory(FactoryBuilder.factoryOf(MyCacheLoader.class))
+                .setExpiryPolicyFactory(FactoryBuilder.factoryOf(new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
+
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("cacheLoaderCache");
+        cache = cacheManager.createCache(cacheName, configuration);
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.get(key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String hit(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String missAndLoad(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.remove(key);
+        return cache.get(key);
+    }
+}
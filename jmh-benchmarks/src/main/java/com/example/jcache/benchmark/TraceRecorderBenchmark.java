@@ -0,0 +1,92 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.trace.TraceRecorder;
+import com.example.jcache.trace.TracingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of recording every access with {@link TracingCache} on the cheapest cache operations
+ * (store-by-reference get/put), where the timing and the write into the mapped ring file weigh the most.
+ * Compare each mode against "none"; "sampled" records 10% of the keys. Four threads, so the shared
+ * sequence counter of the recorder is contended as in a live application.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TraceRecorderBenchmark {
+
+    @Param({"none", "all", "sampled"})
+    String tracing;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Path file;
+    private TraceRecorder recorder;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("tracedCache");
+        Cache<String, String> target = cacheManager.createCache(cacheName, new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setStoreByValue(false));
+        file = Files.createTempFile("benchmark", ".trace");
+        if ("none".equals(tracing)) {
+            cache = target;
+        } else {
+            recorder = TraceRecorder.open(file, 1 << 20, "sampled".equals(tracing) ? 0.1 : 1.0);
+            cache = new TracingCache<>(target, recorder);
+        }
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.put(key, "value-" + key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (recorder != null) {
+            recorder.close();
+        }
+        Files.delete(file);
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        String key = keys[cursor.next()];
+        cache.put(key, key);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.eviction.BoundedCache;
+import com.example.jcache.eviction.EvictionPolicy;
+import com.example.jcache.eviction.Weigher;
+import com.example.jcache.eviction.Weighers;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Replays a skewed access trace against {@link BoundedCache} with a byte budget, comparing plain LRU
+ * with W-TinyLFU. Every miss loads the key's value (a string of skewed length) and puts it.
+ * Each iteration replays the whole trace once on a fresh cache (single shot, so the time is the
+ * replay's). Hits and misses are reported as secondary results summed over all iterations, and the
+ * hit ratio of the trial is logged at the end.
+ * Workloads, over 100k keys with Zipf(0.9) popularity:
+ * - zipf: the plain skewed stream;
+ * - zipfScan: every 20k accesses a scan of 5k ids that are never requested again, as a batch
+ * job or a crawler would do.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceReplayBenchmark {
+    private static final int KEYS = 100_000;
+    private static final int ACCESSES = 1_000_000;
+    private static final double ZIPF_EXPONENT = 0.9;
+    private static final int SCAN_EVERY = 20_000;
+    private static final int SCAN_LENGTH = 5_000;
+
+    @Param({"zipf", "zipfScan"})
+    String workload;
+
+    @Param({"LRU", "W_TINY_LFU"})
+    EvictionPolicy policy;
+
+    /**
+     * Byte budget; all values together weigh about 50MB.
+     */
+    @Param({"2097152", "8388608"})
+    long maximumWeight;
+
+    private Integer[] trace;
+    private String[] values;
+    private final Weigher<Integer, String> weigher = Weighers.strings();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int scanKeys = workload.equals("zipfScan") ? ACCESSES / SCAN_EVERY * SCAN_LENGTH : 0;
+        values = new String[KEYS + scanKeys];
+        for (int key = 0; key < values.length; key++) {
+            values[key] = value(random);
+        }
+        Integer[] keys = new Integer[values.length];
+        for (int key = 0; key < keys.length; key++) {
+            keys[key] = key;
+        }
+        double[] cumulative = zipfCumulative(KEYS, ZIPF_EXPONENT);
+        // shuffle popularity ranks over ids, so hot keys are not also the small ids
+        int[] idOfRank = shuffledIds(KEYS, random);
+
+        trace = new Integer[ACCESSES + scanKeys];
+        int scanned = KEYS;
+        int position = 0;
+        for (int i = 0; i < ACCESSES; i++) {
+            if (scanKeys > 0 && i % SCAN_EVERY == 0) {
+                for (int s = 0; s < SCAN_LENGTH; s++) {
+                    trace[position++] = keys[scanned++];
+                }
+            }
+            trace[position++] = keys[idOfRank[rank(cumulative, random.nextDouble())]];
+        }
+    }
+
+    @Benchmark
+    public BoundedCache<Integer, String> replay(Counters counters) {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(maximumWeight, weigher, policy, KEYS);
+        for (Integer key : trace) {
+            if (cache.get(key) == null) {
+                cache.put(key, values[key]);
+            }
+        }
+        counters.hits += cache.getHitCount();
+        counters.misses += cache.getMissCount();
+        return cache;
+    }
+
+    /**
+     * JMH reports the public fields of an @AuxCounters state next to the primary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        private static final Logger LOGGER = Logger.getLogger(TraceReplayBenchmark.class.getName());
+
+        public long hits;
+        public long misses;
+        private long trialHits;
+        private long trialMisses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void accumulate() {
+            trialHits += hits;
+            trialMisses += misses;
+        }
+
+        @TearDown(Level.Trial)
+        public void report() {
+            LOGGER.info(String.format("hit ratio %.1f%%", 100.0 * trialHits / (trialHits + trialMisses)));
+        }
+    }
+
+    // lengths between 16 and ~4000 chars, most of them short: a few huge titles among many small ones
+    private static String value(Random random) {
+        int length = 16 + (int) Math.min(4000, Math.exp(random.nextGaussian() * 1.2 + 4.5));
+        char[] chars = new char[length];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int rank(double[] cumulative, double uniform) {
+        int index = Arrays.binarySearch(cumulative, uniform);
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static int[] shuffledIds(int n, Random random) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.tiered.TwoLevelCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets from a store-by-value cache (a copy per hit) on its own vs behind the L1 of a
+ * {@link TwoLevelCache} that holds every key, on four threads.
+ * "update" replaces one value in 16 gets, so the L1 copy is invalidated and promoted again.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/sun.security.action=ALL-UNNAMED")
+@Threads(4)
+@State(Scope.Benchmark)
+public class TwoLevelCacheBenchmark {
+
+    @Param({"l2", "twoLevel"})
+    String levels;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("twoLevelCache");
+        Cache<String, String> l2 = cacheManager.createCache(cacheName, new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class));
+        cache = "twoLevel".equals(levels) ? new TwoLevelCache<>(l2, BenchmarkSupport.KEY_COUNT, 0, TimeUnit.SECONDS) : l2;
+        keys = BenchmarkSupport.stringKeys("key");
+        for (String key : keys) {
+            cache.put(key, "value-" + key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public String get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String update(KeyCursor cursor) {
+        int index = cursor.next();
+        if ((index & 15) == 0) {
+            cache.put(keys[index], "value-" + index);
+        }
+        return cache.get(keys[index]);
+    }
+}
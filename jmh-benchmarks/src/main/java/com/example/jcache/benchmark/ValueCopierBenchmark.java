@@ -0,0 +1,102 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.binary.BookBinding;
+import com.example.jcache.binary.FlyweightCopier;
+import com.example.jcache.offheap.BookSerializer;
+import com.example.jcache.writer.Book;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.impl.copy.IdentityCopier;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a Book cache copies its values:
+ * reference → no copy, no isolation (setStoreByValue(false));
+ * serializing → store-by-value through {@link BookSerializer}, a full encode on put and decode on every get;
+ * flyweight → store-by-value through {@link FlyweightCopier}, encode on put, the stored read-only view on get.
+ * {@code getTitle} reads a field of the result, so the lazy decoding of the view is paid too.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-exports=java.base/sun.security.action=ALL-UNNAMED")
+@State(Scope.Benchmark)
+public class ValueCopierBenchmark {
+
+    @Param({"reference", "serializing", "flyweight"})
+    String copier;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<Integer, Book> cache;
+    private Integer[] keys;
+    private Book[] books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("copierCache");
+        cache = cacheManager.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(
+                withCopier(CacheConfigurationBuilder.newCacheConfigurationBuilder(Integer.class, Book.class,
+                        ResourcePoolsBuilder.heap(2L * BenchmarkSupport.KEY_COUNT))).build()));
+        keys = BenchmarkSupport.integerKeys();
+        books = new Book[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            books[i] = new Book(i, "Title of book number " + i, "Author " + (i % 100));
+            cache.put(keys[i], books[i]);
+        }
+    }
+
+    private CacheConfigurationBuilder<Integer, Book> withCopier(CacheConfigurationBuilder<Integer, Book> builder) {
+        switch (copier) {
+            case "reference":
+                return builder.withValueCopier(new IdentityCopier<Book>());
+            case "serializing":
+                // Ehcache only wires its SerializingCopier itself, from the configured serializer
+                return builder.withValueSerializer(new BookSerializer()).withValueSerializingCopier();
+            case "flyweight":
+                return builder.withValueCopier(new FlyweightCopier<>(new BookBinding()));
+            default:
+                throw new IllegalArgumentException(copier);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public Book get(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public String getTitle(KeyCursor cursor) {
+        return cache.get(keys[cursor.next()]).getTitle();
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        int index = cursor.next();
+        cache.put(keys[index], books[index]);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.jcache.benchmark;
+
+import com.example.jcache.writer.Book;
+import com.example.jcache.writer.BookCacheWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-through of {@link Book} values through {@link BookCacheWriter}, configured like
+ * {@code CacheWriterExample}. Every put and remove goes through the writer synchronously.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteThroughBenchmark {
+
+    @Param({"false", "true"})
+    boolean statistics;
+
+    private CacheManager cacheManager;
+    private String cacheName;
+    private Cache<Integer, Book> cache;
+    private Integer[] keys;
+    private Book[] books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.muteLogging(BookCacheWriter.class);
+        // Book is not Serializable: under store-by-value Ehcache cannot copy it and the entry never
+        // becomes readable, so write-through is measured with values held by reference
+        MutableConfiguration<Integer, Book> configuration = new MutableConfiguration<Integer, Book>()
+                .setTypes(Integer.class, Book.class)
+                .setStoreByValue(false)
+                .setStatisticsEnabled(statistics)
+                .setWriteThrough(true)
+                .setCacheWriterFactory(FactoryBuilder.factoryOf(BookCacheWriter.class))
+                .setExpiryPolicyFactory(FactoryBuilder.factoryOf(new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
+
+        cacheManager = BenchmarkSupport.cacheManager();
+        cacheName = BenchmarkSupport.uniqueCacheName("bookCache");
+        cache = cacheManager.createCache(cacheName, configuration);
+        keys = BenchmarkSupport.integerKeys();
+        books = new Book[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            books[i] = new Book(i, "Book " + i, "Author " + (i % 16));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cacheManager.destroyCache(cacheName);
+    }
+
+    @Benchmark
+    public void put(KeyCursor cursor) {
+        int index = cursor.next();
+        cache.put(keys[index], books[index]);
+    }
+
+    @Benchmark
+    public boolean remove(KeyCursor cursor) {
+        return cache.remove(keys[cursor.next()]);
+    }
+}
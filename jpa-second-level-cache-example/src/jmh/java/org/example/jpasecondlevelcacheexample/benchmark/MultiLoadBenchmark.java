@@ -0,0 +1,138 @@
+package org.example.jpasecondlevelcacheexample.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.jpasecondlevelcacheexample.cache.EntityPrefetcher;
+import org.example.jpasecondlevelcacheexample.cache.SecondLevelCaches;
+import org.example.jpasecondlevelcacheexample.model.Book;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Resolving a list of Book ids against an in-memory H2 database: one em.find per id, Hibernate's
+ * multiLoad, and {@link EntityPrefetcher} (bulk getAll, one IN-query for the misses, bulk putAll).
+ * "cold" evicts the requested ids from both regions before each call, "warm" asks for ids cached
+ * by earlier calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MultiLoadBenchmark {
+    private static final int BOOKS = 10_000;
+
+    @Param({"10", "100"})
+    int idCount;
+
+    @Param({"cold", "warm"})
+    String cache;
+
+    private EntityManagerFactory emf;
+    private Cache<Long, Book> catalogue;
+    private EntityPrefetcher<Book> prefetcher;
+    private final Random random = new Random(42);
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.getLogger("org.hibernate").setLevel(java.util.logging.Level.WARNING);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:multiload;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.generate_statistics", "false");
+        properties.put("hibernate.javax.cache.uri", "ehcache-benchmark.xml");
+        emf = Persistence.createEntityManagerFactory("demoPU", properties);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < BOOKS; i++) {
+            em.persist(new Book("Book " + i));
+            if (i % 500 == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+
+        catalogue = SecondLevelCaches.cacheManager(emf).getCache("book-catalogue", Long.class, Book.class);
+        prefetcher = EntityPrefetcher.register(emf, catalogue, Book.class, Book::getId);
+        // warm: the same ids every call, cached after the first one
+        ids = randomIds();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareCall() {
+        if ("cold".equals(cache)) {
+            ids = randomIds();
+            // evict just these ids: clearing whole regions would also measure off-heap page reallocation
+            for (Long id : ids) {
+                emf.getCache().evict(Book.class, id);
+            }
+            catalogue.removeAll(new HashSet<>(ids));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    private List<Long> randomIds() {
+        List<Long> result = new ArrayList<>(idCount);
+        for (int i = 0; i < idCount; i++) {
+            result.add(1L + random.nextInt(BOOKS));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Book> findEach() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Book> books = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                books.add(em.find(Book.class, id));
+            }
+            return books;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<Book> multiLoad() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.unwrap(Session.class).byMultipleIds(Book.class).with(CacheMode.NORMAL).multiLoad(ids);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<Book> prefetch() {
+        return prefetcher.findAll(ids);
+    }
+}
@@ -3,33 +3,49 @@ package org.example.jpasecondlevelcacheexample;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.example.jpasecondlevelcacheexample.cache.EntityPrefetcher;
+import org.example.jpasecondlevelcacheexample.cache.SecondLevelCaches;
 import org.example.jpasecondlevelcacheexample.model.Book;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
+import javax.cache.Cache;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class JpaSecondLevelCacheExample {
     private static final Logger LOGGER = Logger.getLogger(JpaSecondLevelCacheExample.class.toString());
+    private static final String TITLE = "Hibernate Programmatic Cache";
 
     public static void main(String[] args) {
 
 //        // Setup JPA EntityManagerFactory (Hibernate 6)
         EntityManagerFactory emf = Persistence.createEntityManagerFactory("demoPU");
 
-        // Persist a book
+        // Persist a book, unless a previous run already did (the H2 database lives in a file).
+        // Only the id is queried, so the entity itself is not loaded and the cache stays untouched.
         EntityManager em = emf.createEntityManager();
         em.getTransaction().begin();
-        Book book = new Book("Hibernate Programmatic Cache");
-        em.persist(book);
+        Long bookId = em.createQuery("select b.id from Book b where b.title = :title", Long.class)
+                .setParameter("title", TITLE)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (bookId == null) {
+            Book book = new Book(TITLE);
+            em.persist(book);
+            bookId = book.getId();
+        }
         em.getTransaction().commit();
         em.close();
 
-        Long bookId = book.getId();
-
-        // First fetch -> hits DB
+        // First fetch -> hits DB on the very first run; after a restart it is served by the persistent disk tier
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
         EntityManager em1 = emf.createEntityManager();
         Book b1 = em1.find(Book.class, bookId);
-        LOGGER.log(Level.INFO, "First fetch: {0}", b1);
+        LOGGER.log(Level.INFO, "First fetch: {0} (second-level cache hits: {1}, misses: {2})",
+                new Object[]{b1, statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()});
         em1.close();
 
         // Second fetch -> should hit 2nd-level cache
@@ -38,6 +54,15 @@ public class JpaSecondLevelCacheExample {
         LOGGER.log(Level.INFO, "Second fetch (from cache): {0}", b2);
         em2.close();
 
+        // Detached copies for a large read-mostly catalogue, kept off-heap in compact form (see BookSerializer).
+        // A list of ids costs one bulk cache lookup plus one IN-query for the ids not cached yet.
+        // Committed updates and deletes of a Book evict it from the catalogue.
+        Cache<Long, Book> catalogue = SecondLevelCaches.cacheManager(emf).getCache("book-catalogue", Long.class, Book.class);
+        EntityPrefetcher<Book> prefetcher = EntityPrefetcher.register(emf, catalogue, Book.class, Book::getId);
+        List<Book> books = prefetcher.findAll(List.of(bookId));
+        LOGGER.log(Level.INFO, "Catalogue lookup: {0}", books);
+
+        // Closing flushes the disk tier; a cache that was not closed cleanly is discarded on the next start
         emf.close();
     }
 }
@@ -0,0 +1,69 @@
+package org.example.jpasecondlevelcacheexample;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.example.jpasecondlevelcacheexample.cache.QueryCacheStats;
+import org.example.jpasecondlevelcacheexample.cache.QueryResultCache;
+import org.example.jpasecondlevelcacheexample.model.Book;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs two Book queries through a {@link QueryResultCache} while a writer keeps renaming books,
+ * then reports per query how often the cached id list could be reused and how often a commit
+ * invalidated it.
+ */
+public class QueryCacheExample {
+    private static final Logger LOGGER = Logger.getLogger(QueryCacheExample.class.toString());
+    private static final String BY_TITLE = "select b.id from Book b where b.title like ?1 order by b.id";
+    private static final String BY_ID_RANGE = "select b.id from Book b where b.id between ?1 and ?2 order by b.id";
+    private static final int BOOKS = 200;
+    private static final int READS = 2_000;
+    private static final int WRITE_EVERY = 100;
+
+    public static void main(String[] args) {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("demoPU");
+        QueryResultCache queryCache = QueryResultCache.create(emf);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        if (em.createQuery("select count(b) from Book b where b.title like 'Volume %'", Long.class).getSingleResult() == 0) {
+            for (int i = 0; i < BOOKS; i++) {
+                em.persist(new Book("Volume " + i));
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+
+        for (int i = 0; i < READS; i++) {
+            EntityManager reader = emf.createEntityManager();
+            List<Book> byTitle = queryCache.getResultList(reader, Book.class, BY_TITLE, "Volume 1%");
+            List<Book> byRange = queryCache.getResultList(reader, Book.class, BY_ID_RANGE, 1L, 50L);
+            reader.close();
+            if (i == 0) {
+                LOGGER.log(Level.INFO, "{0} books by title, {1} by id range", new Object[]{byTitle.size(), byRange.size()});
+            }
+
+            if (i % WRITE_EVERY == WRITE_EVERY - 1) {
+                // a committed update to the Book table invalidates every cached Book query
+                EntityManager writer = emf.createEntityManager();
+                writer.getTransaction().begin();
+                Book book = writer.find(Book.class, byRange.get(i % byRange.size()).getId());
+                String title = book.getTitle();
+                int revision = title.indexOf(" rev ");
+                book.setTitle((revision < 0 ? title : title.substring(0, revision)) + " rev " + i);
+                writer.getTransaction().commit();
+                writer.close();
+            }
+        }
+
+        for (Map.Entry<String, QueryCacheStats> entry : queryCache.getStatistics().entrySet()) {
+            LOGGER.log(Level.INFO, "{0} -> {1}", new Object[]{entry.getKey(), entry.getValue()});
+        }
+        emf.close();
+    }
+}
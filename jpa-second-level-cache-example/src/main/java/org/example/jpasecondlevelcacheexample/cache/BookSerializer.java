@@ -0,0 +1,66 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.example.jpasecondlevelcacheexample.model.Book;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Compact Ehcache serializer for {@link Book}, used by the off-heap tier of the "book-catalogue"
+ * cache in ehcache.xml instead of Java serialization.
+ * Layout: id as a fixed 8-byte long, then the title as a 4-byte length (-1 for null) followed by
+ * its UTF-8 bytes.
+ */
+public class BookSerializer implements Serializer<Book> {
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Ehcache instantiates serializers configured in XML through this constructor.
+     */
+    public BookSerializer(ClassLoader classLoader) {
+    }
+
+    @Override
+    public ByteBuffer serialize(Book book) throws SerializerException {
+        if (book.getId() == null) {
+            throw new SerializerException("Cannot cache a Book that has not been persisted yet: " + book);
+        }
+        byte[] title = book.getTitle() == null ? null : book.getTitle().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + (title == null ? 0 : title.length));
+        buffer.putLong(book.getId());
+        if (title == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(title.length);
+            buffer.put(title);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public Book read(ByteBuffer buffer) throws SerializerException {
+        try {
+            long id = buffer.getLong();
+            int length = buffer.getInt();
+            String title = null;
+            if (length != NULL_LENGTH) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                title = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return new Book(id, title);
+        } catch (RuntimeException e) {
+            throw new SerializerException("Corrupt Book record", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Book book, ByteBuffer buffer) throws SerializerException {
+        Book stored = read(buffer);
+        return Objects.equals(book.getId(), stored.getId()) && Objects.equals(book.getTitle(), stored.getTitle());
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import java.io.Serializable;
+
+/**
+ * A query result as stored in the cache: only the entity ids, in result order, plus the
+ * {@link TableTimestamps} time the query was started at. The entities themselves are resolved
+ * through the entity region when the result is read.
+ */
+public final class CachedQueryResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long timestamp;
+    private final long[] ids;
+
+    public CachedQueryResult(long timestamp, long[] ids) {
+        this.timestamp = timestamp;
+        this.ids = ids;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    long[] ids() {
+        return ids;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Loads a whole set of entities by id through a typed cache region in three round trips at most:
+ * one getAll on the region, one query for the ids it did not have, one putAll of what the query
+ * returned.
+ * em.find costs one region lookup per id and one SELECT per miss; Hibernate's entity region is
+ * keyed by its own cache keys and has no bulk API, so the prefetcher works on an application
+ * region of detached entities (Long id → entity, e.g. "book-catalogue" in ehcache.xml).
+ * Misses are loaded in a short session of their own, so the region only ever holds committed
+ * state and no entity of the caller's EntityManager is detached or shared.
+ * The returned entities are detached copies; use em.find/merge for anything that modifies them.
+ * Updated and deleted entities are evicted from the region after their transaction commits.
+ * ⚠️ A load that read a row just before an update committed can still put the old copy back
+ * after the eviction; it then stays until the region's TTL. Bulk JPQL/native updates are not
+ * seen at all: remove the affected ids from the region yourself.
+ */
+public class EntityPrefetcher<T> implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final SessionFactory sessionFactory;
+    private final Cache<Long, T> region;
+    private final Class<T> entityClass;
+    private final Function<T, Long> idOf;
+
+    private EntityPrefetcher(SessionFactory sessionFactory, Cache<Long, T> region, Class<T> entityClass,
+                             Function<T, Long> idOf) {
+        this.sessionFactory = sessionFactory;
+        this.region = Objects.requireNonNull(region, "region");
+        this.entityClass = Objects.requireNonNull(entityClass, "entityClass");
+        this.idOf = Objects.requireNonNull(idOf, "idOf");
+    }
+
+    /**
+     * Creates the prefetcher and registers it as a post-commit listener of the factory, so that
+     * writes of entityClass evict their ids from the region.
+     */
+    public static <T> EntityPrefetcher<T> register(EntityManagerFactory emf, Cache<Long, T> region,
+                                                   Class<T> entityClass, Function<T, Long> idOf) {
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        EntityPrefetcher<T> prefetcher = new EntityPrefetcher<>(sessionFactory, region, entityClass, idOf);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, prefetcher);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, prefetcher);
+        return prefetcher;
+    }
+
+    /**
+     * @return the entities in the order of the given ids; ids without a row are skipped
+     */
+    public List<T> findAll(Collection<Long> ids) {
+        Set<Long> wanted = new LinkedHashSet<>(ids);
+        Map<Long, T> found = new HashMap<>(region.getAll(wanted));
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, T> loaded = query(missing);
+            region.putAll(loaded);
+            found.putAll(loaded);
+        }
+
+        List<T> result = new ArrayList<>(wanted.size());
+        for (Long id : wanted) {
+            T entity = found.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    // One statement for all missing ids: Hibernate binds them as a single array parameter
+    // (id = any(?)) where the dialect supports it, which uses the primary key index, and falls
+    // back to IN lists otherwise. CacheMode.IGNORE keeps Hibernate's own entity region out of it.
+    // Closing the session detaches the loaded entities.
+    private Map<Long, T> query(List<Long> ids) {
+        try (Session session = sessionFactory.openSession()) {
+            List<T> rows = session.byMultipleIds(entityClass)
+                    .with(CacheMode.IGNORE)
+                    .multiLoad(ids);
+            Map<Long, T> loaded = new HashMap<>(ids.size() * 2);
+            for (T entity : rows) {
+                if (entity != null) {
+                    loaded.put(idOf.apply(entity), entity);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evict(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evict(event.getEntity());
+    }
+
+    private void evict(Object entity) {
+        if (entityClass.isInstance(entity)) {
+            region.remove(idOf.apply(entityClass.cast(entity)));
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, the cached copy is still current
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, the cached copy is still current
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return entityClass.isAssignableFrom(persister.getMappedClass());
+    }
+}
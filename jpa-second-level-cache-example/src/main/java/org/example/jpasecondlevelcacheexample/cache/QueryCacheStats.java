@@ -0,0 +1,51 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and invalidation counts of one query in a {@link QueryResultCache}.
+ * An invalidation is a lookup that found a cached result made stale by a later commit to one of
+ * the query's tables; it is also counted as a miss.
+ */
+public class QueryCacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void invalidated() {
+        invalidations.increment();
+        misses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, invalidations=%d, hitRatio=%.2f",
+                getHits(), getMisses(), getInvalidations(), getHitRatio());
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.Cache;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Query result cache with table-level invalidation and per-query statistics.
+ * A query is given as JPQL selecting entity ids (e.g. "select b.id from Book b where ..."). Its
+ * result is stored as a compact array of ids together with the time the query started; the
+ * entities are resolved through the second-level entity region, so every cached result shares
+ * the cached entities instead of keeping copies of them.
+ * A cached result is used only if none of the entity's tables changed after it was taken
+ * ({@link TableTimestamps}), so a commit to Book invalidates the Book queries and nothing else.
+ * Unlike hibernate.cache.use_query_cache, every query has its own hit/miss/invalidation counts.
+ * ⚠️ The query must only read the tables of the given entity class; joins to other entities are
+ * not tracked.
+ */
+public class QueryResultCache {
+    public static final String REGION = "query-id-results";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final Cache<QueryResultKey, CachedQueryResult> results;
+    private final TableTimestamps timestamps;
+    private final Map<Class<?>, String[]> tablesByEntity = new ConcurrentHashMap<>();
+    private final Map<String, QueryCacheStats> statistics = new ConcurrentHashMap<>();
+
+    public QueryResultCache(EntityManagerFactory emf, Cache<QueryResultKey, CachedQueryResult> results,
+                            TableTimestamps timestamps) {
+        this.sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        this.results = Objects.requireNonNull(results, "results cache");
+        this.timestamps = Objects.requireNonNull(timestamps, "timestamps");
+    }
+
+    /**
+     * Uses the "query-id-results" cache from ehcache.xml and registers new table timestamps with
+     * the factory.
+     */
+    public static QueryResultCache create(EntityManagerFactory emf) {
+        Cache<QueryResultKey, CachedQueryResult> results = SecondLevelCaches.cacheManager(emf)
+                .getCache(REGION, QueryResultKey.class, CachedQueryResult.class);
+        return new QueryResultCache(emf, results, TableTimestamps.register(emf));
+    }
+
+    /**
+     * @param idJpql     JPQL selecting the ids of entityClass, with positional parameters ?1, ?2, ...
+     * @param parameters values of the positional parameters
+     * @return the entities in query order; entities deleted since the result was cached are skipped
+     */
+    public <T> List<T> getResultList(EntityManager em, Class<T> entityClass, String idJpql, Object... parameters) {
+        QueryCacheStats stats = statistics.computeIfAbsent(idJpql, query -> new QueryCacheStats());
+        String[] tables = tablesByEntity.computeIfAbsent(entityClass,
+                type -> sessionFactory.getMappingMetamodel().getEntityDescriptor(type).getPropertySpaces());
+        QueryResultKey key = new QueryResultKey(idJpql, parameters);
+
+        CachedQueryResult cached = results.get(key);
+        if (cached != null && timestamps.isUpToDate(tables, cached.getTimestamp())) {
+            stats.hit();
+            return resolve(em, entityClass, cached.ids());
+        }
+        if (cached == null) {
+            stats.miss();
+        } else {
+            stats.invalidated();
+        }
+
+        long startedAt = timestamps.now();
+        TypedQuery<Long> query = em.createQuery(idJpql, Long.class);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        List<Long> ids = query.getResultList();
+        long[] idArray = new long[ids.size()];
+        for (int i = 0; i < idArray.length; i++) {
+            idArray[i] = ids.get(i);
+        }
+        results.put(key, new CachedQueryResult(startedAt, idArray));
+        return resolve(em, entityClass, idArray);
+    }
+
+    private <T> List<T> resolve(EntityManager em, Class<T> entityClass, long[] ids) {
+        if (ids.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        // multiLoad only consults the entity region when a cache mode is set explicitly
+        List<T> entities = em.unwrap(Session.class).byMultipleIds(entityClass)
+                .enableSessionCheck(true)
+                .with(CacheMode.NORMAL)
+                .multiLoad(idList);
+        entities.removeIf(Objects::isNull);
+        return entities;
+    }
+
+    /**
+     * Statistics of one query, by its JPQL text; null if it never ran.
+     */
+    public QueryCacheStats getStatistics(String idJpql) {
+        return statistics.get(idJpql);
+    }
+
+    public Map<String, QueryCacheStats> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * For bulk JPQL/native updates, which bypass the entity listeners.
+     */
+    public void invalidate(Class<?> entityClass) {
+        timestamps.invalidate(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getPropertySpaces());
+    }
+}
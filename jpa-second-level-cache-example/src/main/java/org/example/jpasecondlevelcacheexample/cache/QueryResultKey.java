@@ -0,0 +1,47 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Cache key of a query result: the JPQL text plus its positional parameter values.
+ */
+public final class QueryResultKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String jpql;
+    private final Object[] parameters;
+    private final int hashCode;
+
+    public QueryResultKey(String jpql, Object... parameters) {
+        this.jpql = jpql;
+        this.parameters = parameters.clone();
+        this.hashCode = 31 * jpql.hashCode() + Arrays.hashCode(parameters);
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryResultKey)) {
+            return false;
+        }
+        QueryResultKey other = (QueryResultKey) o;
+        return hashCode == other.hashCode && jpql.equals(other.jpql) && Arrays.equals(parameters, other.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return jpql + " " + Arrays.toString(parameters);
+    }
+}
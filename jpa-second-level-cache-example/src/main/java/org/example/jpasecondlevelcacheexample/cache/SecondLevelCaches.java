@@ -0,0 +1,25 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.CacheManager;
+
+/**
+ * Access to the JCache CacheManager Hibernate built from ehcache.xml, so application-level caches
+ * declared in the same file share its off-heap and disk resources.
+ */
+public final class SecondLevelCaches {
+
+    private SecondLevelCaches() {
+    }
+
+    /**
+     * The manager is owned by Hibernate and closed with the EntityManagerFactory; do not close it.
+     */
+    public static CacheManager cacheManager(EntityManagerFactory emf) {
+        return ((JCacheRegionFactory) emf.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory()).getCacheManager();
+    }
+}
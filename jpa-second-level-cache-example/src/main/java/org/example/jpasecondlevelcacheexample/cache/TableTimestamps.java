@@ -0,0 +1,119 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last-modification timestamp per table, advanced after every committed insert, update or delete.
+ * A cached query result taken at time t is still valid as long as none of the tables it reads
+ * changed after t.
+ * Timestamps come from one logical clock instead of the wall clock, so two events can never
+ * share a value. A query takes its timestamp before it runs and a table is bumped only after the
+ * database commit, so a result that could have missed a change is always older than that change.
+ * ⚠️ Only entity operations are seen. Bulk JPQL/native updates bypass the event listeners; call
+ * {@link #invalidate(String...)} for the affected tables after such statements.
+ * ⚠️ The clock lives in this JVM: results cached by another node or before a restart must not be
+ * checked against it.
+ */
+public class TableTimestamps implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentMap<String, Long> modified;
+
+    public TableTimestamps() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    // the map is passed in so tests can hold a commit between taking and storing its stamp
+    TableTimestamps(ConcurrentMap<String, Long> modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * Creates the timestamps and registers them as post-commit listeners of the factory.
+     */
+    public static TableTimestamps register(EntityManagerFactory emf) {
+        TableTimestamps timestamps = new TableTimestamps();
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, timestamps);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, timestamps);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, timestamps);
+        return timestamps;
+    }
+
+    /**
+     * Timestamp to store with a query result; take it before the query is executed.
+     */
+    public long now() {
+        return clock.get();
+    }
+
+    public boolean isUpToDate(String[] tables, long timestamp) {
+        for (String table : tables) {
+            Long lastModified = modified.get(table);
+            if (lastModified != null && lastModified > timestamp) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A commit that took its stamp earlier can store it after a later one: keep the larger stamp,
+     * or the table would look older than the later commit and stale results would pass.
+     */
+    public void invalidate(String... tables) {
+        for (String table : tables) {
+            modified.merge(table, clock.incrementAndGet(), Math::max);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getPersister().getPropertySpaces());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getPersister().getPropertySpaces());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getPersister().getPropertySpaces());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, nothing changed
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+}
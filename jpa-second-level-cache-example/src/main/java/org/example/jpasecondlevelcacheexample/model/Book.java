@@ -14,6 +14,7 @@ public class Book {
 
     public Book() {}
     public Book(String title) { this.title = title; }
+    public Book(Long id, String title) { this.id = id; this.title = title; }
 
     @Override
     public String toString() {
@@ -27,4 +28,8 @@ public class Book {
     public String getTitle() {
         return title;
     }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
 }
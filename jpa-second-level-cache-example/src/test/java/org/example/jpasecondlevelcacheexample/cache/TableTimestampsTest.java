@@ -0,0 +1,78 @@
+package org.example.jpasecondlevelcacheexample.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableTimestampsTest {
+    private static final String[] TABLES = {"Book"};
+
+    @Test
+    void resultTakenBeforeAChangeIsStale() {
+        TableTimestamps timestamps = new TableTimestamps();
+        long taken = timestamps.now();
+
+        timestamps.invalidate("Book");
+
+        assertThat(timestamps.isUpToDate(TABLES, taken)).isFalse();
+        assertThat(timestamps.isUpToDate(new String[]{"Author"}, taken)).isTrue();
+        assertThat(timestamps.isUpToDate(TABLES, timestamps.now())).isTrue();
+    }
+
+    // Commit A takes stamp 1 and stalls before storing it; a query takes now() == 1 and misses
+    // commit B, which stores stamp 2. When A finally stores its stamp the table must stay at 2.
+    @Test
+    void slowCommitDoesNotMoveTheStampBackwards() throws Exception {
+        CountDownLatch aStamped = new CountDownLatch(1);
+        CountDownLatch bStored = new CountDownLatch(1);
+        TableTimestamps timestamps = new TableTimestamps(new ConcurrentHashMap<String, Long>() {
+            @Override
+            public Long merge(String key, Long value, BiFunction<? super Long, ? super Long, ? extends Long> remapping) {
+                if ("commit-A".equals(Thread.currentThread().getName())) {
+                    aStamped.countDown();
+                    await(bStored);
+                }
+                return super.merge(key, value, remapping);
+            }
+
+            @Override
+            public Long put(String key, Long value) {
+                if ("commit-A".equals(Thread.currentThread().getName())) {
+                    aStamped.countDown();
+                    await(bStored);
+                }
+                return super.put(key, value);
+            }
+        });
+        ExecutorService commitA = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "commit-A"));
+        try {
+            Future<?> a = commitA.submit(() -> timestamps.invalidate("Book"));
+            assertThat(aStamped.await(5, TimeUnit.SECONDS)).isTrue();
+            long taken = timestamps.now();
+
+            timestamps.invalidate("Book");
+            bStored.countDown();
+            a.get(5, TimeUnit.SECONDS);
+
+            assertThat(timestamps.isUpToDate(TABLES, taken)).isFalse();
+        } finally {
+            commitA.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
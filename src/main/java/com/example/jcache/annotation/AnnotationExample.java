@@ -1,70 +1,53 @@
 package com.example.jcache.annotation;
 
 
+import com.example.jcache.tiered.TwoLevelCache;
 import com.google.common.base.Preconditions;
 
-import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
-import javax.cache.annotation.CacheResult;
 import javax.cache.configuration.MutableConfiguration;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import javax.cache.spi.CachingProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class AnnotationExample {
     private static final Logger LOGGER = Logger.getLogger(AnnotationExample.class.toString());
 
     public static void main(String[] args) {
-        CacheManager cacheManager = Caching.getCachingProvider().getCacheManager();
-        MutableConfiguration<String, String> config = new MutableConfiguration<>();
-        Cache<String, String> cache = cacheManager.createCache("expensiveOps", config);
-
-        Service realService = new ServiceImpl();
-
-        // Create proxy with caching behavior
-        Service cachedService = (Service) Proxy.newProxyInstance(
-                Service.class.getClassLoader(),
-                new Class[]{Service.class},
-                new CacheInterceptor(realService, cache));
-
-        // First → real call
-        String result1 = cachedService.expensiveOperation("test1");
-        Preconditions.checkNotNull(result1);
-        LOGGER.info(result1);
-        // Second → from cache
-        String result2 = cachedService.expensiveOperation("test1");
-        Preconditions.checkNotNull(result2);
-        LOGGER.info(result2);
-        // Results should be the same
-    }
-
-
-}
-
-class CacheInterceptor implements InvocationHandler {
-    private final Object target;
-    private final Cache<String, String> cache;
-
-    public CacheInterceptor(Object target, Cache<String, String> cache) {
-        this.target = target;
-        this.cache = cache;
-    }
-
-    @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        CacheResult annotation = method.getAnnotation(CacheResult.class);
-        if (annotation != null) {
-            String key = (String) args[0];
-            String cached = cache.get(key);
-            if (cached != null) {
-                return cached;
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                MutableConfiguration<Object, Object> config = new MutableConfiguration<>();
+                // L2: the store-by-value cache the results live in; L1: the 1,000 hottest results, shared by reference
+                try (TwoLevelCache<Object, Object> expensiveOps = new TwoLevelCache<>(
+                        cacheManager.createCache("expensiveOps", config), 1_000, 30, TimeUnit.SECONDS)) {
+
+                    Service realService = new ServiceImpl();
+
+                    // Create proxy with caching behavior; @CacheResult and the cache are resolved once, here
+                    Service cachedService = CacheResultProxyFactory.create(Service.class, realService, cacheName ->
+                            expensiveOps.getName().equals(cacheName) ? expensiveOps : cacheManager.getCache(cacheName));
+
+                    // First → real call
+                    String result1 = cachedService.expensiveOperation("test1");
+                    Preconditions.checkNotNull(result1);
+                    LOGGER.info(result1);
+                    // Second → from the L2, which promotes it to the L1
+                    String result2 = cachedService.expensiveOperation("test1");
+                    Preconditions.checkNotNull(result2);
+                    LOGGER.info(result2);
+                    // Third → from the L1, no copy
+                    String result3 = cachedService.expensiveOperation("test1");
+                    Preconditions.checkNotNull(result3);
+                    LOGGER.info(result3);
+                    // Results should be the same
+                    LOGGER.log(Level.INFO, "L1 hits: {0}, L2 hits: {1}, misses: {2}", new Object[]{
+                            expensiveOps.getL1HitCount(), expensiveOps.getL2HitCount(), expensiveOps.getMissCount()});
+                }
             }
-            String result = (String) method.invoke(target, args);
-            cache.put(key, result);
-            return result;
         }
-        return method.invoke(target, args);
     }
+
+
 }
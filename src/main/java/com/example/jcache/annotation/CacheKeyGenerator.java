@@ -0,0 +1,92 @@
+package com.example.jcache.annotation;
+
+import javax.cache.annotation.CacheKey;
+import javax.cache.annotation.CacheValue;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the cache key from the invocation arguments. The generator is chosen once per method,
+ * by the number of key parameters; nothing is copied on the way: a single key parameter is used as
+ * the key itself (no wrapper allocation on the hit path), several are combined into a
+ * {@link CompositeCacheKey}.
+ * Public so that other interceptors, e.g. the Spring one in annotation-test, build the same keys.
+ */
+@FunctionalInterface
+public interface CacheKeyGenerator {
+
+    Object generateKey(Object[] args);
+
+    /**
+     * The JSR-107 rule for @CacheResult: parameters annotated with {@link CacheKey} if there are any,
+     * otherwise every parameter not annotated with {@link CacheValue}.
+     */
+    static CacheKeyGenerator forMethod(Method method) {
+        return forParameters(keyParameterIndexes(method));
+    }
+
+    /**
+     * Spring's rule for @Cacheable: every parameter is part of the key.
+     */
+    static CacheKeyGenerator allParameters(Method method) {
+        int[] indexes = new int[method.getParameterCount()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        return forParameters(indexes);
+    }
+
+    static CacheKeyGenerator forParameters(int[] keyParameters) {
+        switch (keyParameters.length) {
+            case 0:
+                CompositeCacheKey noParameters = new CompositeCacheKey(new Object[0]);
+                return args -> noParameters;
+            case 1:
+                int index = keyParameters[0];
+                return args -> {
+                    Object key = args[index];
+                    // JCache keys cannot be null
+                    return key != null ? key : new CompositeCacheKey(new Object[]{null});
+                };
+            case 2:
+                int first = keyParameters[0];
+                int second = keyParameters[1];
+                return args -> new CompositeCacheKey(new Object[]{args[first], args[second]});
+            default:
+                return args -> {
+                    Object[] values = new Object[keyParameters.length];
+                    for (int i = 0; i < keyParameters.length; i++) {
+                        values[i] = args[keyParameters[i]];
+                    }
+                    return new CompositeCacheKey(values);
+                };
+        }
+    }
+
+    static int[] keyParameterIndexes(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        List<Integer> annotatedKeys = new ArrayList<>();
+        List<Integer> nonValues = new ArrayList<>();
+        for (int i = 0; i < annotations.length; i++) {
+            boolean isValue = false;
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof CacheKey) {
+                    annotatedKeys.add(i);
+                } else if (annotation instanceof CacheValue) {
+                    isValue = true;
+                }
+            }
+            if (!isValue) {
+                nonValues.add(i);
+            }
+        }
+        List<Integer> chosen = annotatedKeys.isEmpty() ? nonValues : annotatedKeys;
+        int[] indexes = new int[chosen.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = chosen.get(i);
+        }
+        return indexes;
+    }
+}
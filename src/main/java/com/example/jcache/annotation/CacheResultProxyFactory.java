@@ -0,0 +1,201 @@
+package com.example.jcache.annotation;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.annotation.CacheDefaults;
+import javax.cache.annotation.CacheResult;
+import javax.cache.configuration.MutableConfiguration;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 🔹 @CacheResult without per-call reflection
+ * Creates a proxy that caches the results of {@link CacheResult} methods. Everything that the old
+ * reflective interceptor looked up on every call is resolved once, when the proxy is created:
+ * the annotation (on the interface or the implementation), the cache it names, the key generator
+ * for the method's parameters and a MethodHandle bound to the target.
+ * A cache hit is then: one identity lookup of the invoked Method, key generation and Cache.get.
+ * Misses call the target through the MethodHandle instead of Method.invoke.
+ */
+public final class CacheResultProxyFactory {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private CacheResultProxyFactory() {
+    }
+
+    /**
+     * @param type         interface to proxy
+     * @param target       implementation the calls are forwarded to
+     * @param cacheManager manager the cache names are resolved against; missing caches are created
+     */
+    public static <T> T create(Class<T> type, T target, CacheManager cacheManager) {
+        Preconditions.checkNotNull(cacheManager, "cacheManager");
+        return create(type, target, cacheName -> resolveCache(cacheManager, cacheName));
+    }
+
+    /**
+     * @param cacheResolver called once per cached method with the cache name, e.g. to put a
+     *                      decorated cache in place of the manager's
+     */
+    public static <T> T create(Class<T> type, T target, Function<String, Cache<Object, Object>> cacheResolver) {
+        Preconditions.checkArgument(type.isInterface(), "%s is not an interface", type.getName());
+        Preconditions.checkNotNull(target, "target");
+        Preconditions.checkNotNull(cacheResolver, "cacheResolver");
+
+        Map<Method, MethodInvoker> invokers = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            invokers.put(method, invokerFor(type, method, target, cacheResolver));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new CachingInvocationHandler(target, invokers)));
+    }
+
+    private static MethodInvoker invokerFor(Class<?> type, Method method, Object target,
+                                            Function<String, Cache<Object, Object>> cacheResolver) {
+        MethodHandle handle = spreadHandle(method, target);
+        CacheResult cacheResult = findCacheResult(method, target);
+        if (cacheResult == null) {
+            return handle::invokeExact;
+        }
+
+        Cache<Object, Object> cache = Preconditions.checkNotNull(cacheResolver.apply(cacheName(type, method, cacheResult)),
+                "no cache for %s", method);
+        CacheKeyGenerator keyGenerator = CacheKeyGenerator.forMethod(method);
+        if (cacheResult.skipGet()) {
+            return args -> {
+                Object result = handle.invokeExact(args);
+                if (result != null) {
+                    cache.put(keyGenerator.generateKey(args), result);
+                }
+                return result;
+            };
+        }
+        return args -> {
+            Object key = keyGenerator.generateKey(args);
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            Object result = handle.invokeExact(args);
+            if (result != null) {
+                cache.put(key, result);
+            }
+            return result;
+        };
+    }
+
+    // (Object[]) -> Object, so every method can be called with invokeExact and the proxy's args array
+    private static MethodHandle spreadHandle(Method method, Object target) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access " + method, e);
+        }
+    }
+
+    private static CacheResult findCacheResult(Method method, Object target) {
+        CacheResult annotation = method.getAnnotation(CacheResult.class);
+        if (annotation != null) {
+            return annotation;
+        }
+        try {
+            return target.getClass().getMethod(method.getName(), method.getParameterTypes())
+                    .getAnnotation(CacheResult.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String cacheName(Class<?> type, Method method, CacheResult cacheResult) {
+        if (!cacheResult.cacheName().isEmpty()) {
+            return cacheResult.cacheName();
+        }
+        CacheDefaults defaults = type.getAnnotation(CacheDefaults.class);
+        if (defaults != null && !defaults.cacheName().isEmpty()) {
+            return defaults.cacheName();
+        }
+        // JSR-107 default: fully qualified method signature
+        StringBuilder name = new StringBuilder(type.getName()).append('.').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                name.append(',');
+            }
+            name.append(parameterTypes[i].getName());
+        }
+        return name.append(')').toString();
+    }
+
+    private static Cache<Object, Object> resolveCache(CacheManager cacheManager, String cacheName) {
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            cache = cacheManager.createCache(cacheName, new MutableConfiguration<>());
+        }
+        return cache;
+    }
+
+    @FunctionalInterface
+    private interface MethodInvoker {
+        Object invoke(Object[] args) throws Throwable;
+    }
+
+    private static final class CachingInvocationHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, MethodInvoker> invokers;
+        // Proxy classes pass the same Method instance on every call, so after the first call per
+        // method the invoker is found by identity instead of Method.equals
+        private volatile Map<Method, MethodInvoker> resolved = new IdentityHashMap<>();
+
+        private CachingInvocationHandler(Object target, Map<Method, MethodInvoker> invokers) {
+            this.target = target;
+            this.invokers = invokers;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MethodInvoker invoker = resolved.get(method);
+            if (invoker == null) {
+                invoker = resolve(proxy, method);
+            }
+            return invoker.invoke(args == null ? NO_ARGS : args);
+        }
+
+        private synchronized MethodInvoker resolve(Object proxy, Method method) {
+            MethodInvoker invoker = invokers.get(method);
+            if (invoker == null) {
+                invoker = objectMethod(proxy, method);
+            }
+            Map<Method, MethodInvoker> copy = new IdentityHashMap<>(resolved);
+            copy.put(method, invoker);
+            resolved = copy;
+            return invoker;
+        }
+
+        private MethodInvoker objectMethod(Object proxy, Method method) {
+            switch (method.getName()) {
+                case "equals":
+                    return args -> proxy == args[0];
+                case "hashCode":
+                    return args -> System.identityHashCode(proxy);
+                case "toString":
+                    return args -> "CachingProxy[" + target + "]";
+                default:
+                    return spreadHandle(method, target)::invokeExact;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.jcache.annotation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Cache key for methods keyed by more than one parameter. The hash is computed once, so the
+ * cache lookup does not walk the parameters again.
+ */
+final class CompositeCacheKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Object[] parameters;
+    private final int hash;
+
+    CompositeCacheKey(Object[] parameters) {
+        this.parameters = parameters;
+        this.hash = Arrays.deepHashCode(parameters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompositeCacheKey)) {
+            return false;
+        }
+        CompositeCacheKey that = (CompositeCacheKey) o;
+        return hash == that.hash && Arrays.deepEquals(parameters, that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(parameters);
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.jcache.async;
+
+import com.example.jcache.support.SimpleEntry;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 CompletableFuture facade over a javax.cache.Cache
+ * A read-through get blocks its caller for as long as the CacheLoader takes (2s for the weather
+ * service); getAsync returns at once and completes when the value is there, so one request thread
+ * can start hundreds of lookups and join them together, see {@link AsyncCacheExample}.
+ * Give the facade the loader and writer and leave read-through / write-through off in the cache:
+ * reads and writes of the cache itself are in-memory and run on the calling thread (a hit completes
+ * before getAsync returns), and only the loader and writer calls go to the executor, normally
+ * {@link AsyncExecutors#newLoaderExecutor(int)} with one virtual thread per call.
+ * Concurrent misses of one key share a single load; the loaded value is stored with putIfAbsent,
+ * so it never overwrites a newer put. A write completes once the writer and then the cache accepted it.
+ * Writes that go to the executor are applied in call order per key: each one starts only after the
+ * previous write of any of its keys completed (successfully or not), so the writer and the cache
+ * never see two writes of a key in different orders.
+ * Why not keep read-through and just call get on the executor: Ehcache runs the loader inside the
+ * lock of its map bin, so loads of keys that share a bin queue behind each other (and on Java 21–23
+ * pin their virtual threads). That still works with this facade (such a cache's reads and writes go
+ * to the executor as a whole) but 200 parallel misses then take ~15 loader latencies instead of one.
+ * A rejected task (full fallback pool) completes the future exceptionally with RejectedExecutionException.
+ */
+public class AsyncCache<K, V> {
+    private final Cache<K, V> cache;
+    private final CacheLoader<K, V> loader;
+    private final CacheWriter<? super K, ? super V> writer;
+    private final Executor executor;
+    private final boolean readThrough;
+    private final boolean writeThrough;
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    // last write issued per key; later writes of the key chain onto it
+    private final ConcurrentMap<K, CompletableFuture<Void>> writing = new ConcurrentHashMap<>();
+    private final Object bulkWriteOrder = new Object();
+
+    private final LongAdder inlineCalls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * @param cache    the cache, normally without read-through and write-through
+     * @param loader   loader for misses, or null
+     * @param writer   writer for puts and removes, or null
+     * @param executor executor running the loader and writer calls
+     */
+    @SuppressWarnings("unchecked")
+    public AsyncCache(Cache<K, V> cache, CacheLoader<K, V> loader, CacheWriter<? super K, ? super V> writer,
+                      Executor executor) {
+        this.cache = Preconditions.checkNotNull(cache, "cache");
+        this.loader = loader;
+        this.writer = writer;
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        CompleteConfiguration<K, V> configuration = cache.getConfiguration(CompleteConfiguration.class);
+        this.readThrough = configuration.isReadThrough();
+        this.writeThrough = configuration.isWriteThrough();
+    }
+
+    /**
+     * For a cache with its own read-through and write-through: every call that may reach them runs
+     * on the executor.
+     */
+    public AsyncCache(Cache<K, V> cache, Executor executor) {
+        this(cache, null, null, executor);
+    }
+
+    /**
+     * The wrapped cache, for blocking calls.
+     */
+    public Cache<K, V> getCache() {
+        return cache;
+    }
+
+    public CompletableFuture<V> getAsync(K key) {
+        if (readThrough) {
+            return submit(() -> cache.get(key));
+        }
+        V value;
+        try {
+            value = cache.get(key);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        if (value != null || loader == null) {
+            inlineCalls.increment();
+            return CompletableFuture.completedFuture(value);
+        }
+        return load(key);
+    }
+
+    public CompletableFuture<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        if (readThrough) {
+            return submit(() -> cache.getAll(keys));
+        }
+        Map<K, V> found;
+        try {
+            found = cache.getAll(keys);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        if (loader == null || found.size() == keys.size()) {
+            inlineCalls.increment();
+            return CompletableFuture.completedFuture(found);
+        }
+        Set<K> missing = new HashSet<>(keys);
+        missing.removeAll(found.keySet());
+        return submit(() -> loadAll(missing, false)).thenApply(loaded -> {
+            Map<K, V> all = new HashMap<>(found);
+            all.putAll(loaded);
+            return all;
+        });
+    }
+
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        return write(Collections.singleton(key),
+                writer == null ? null : () -> writer.write(new SimpleEntry<>(key, value)),
+                () -> cache.put(key, value));
+    }
+
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> entries) {
+        return write(entries.keySet(), writer == null ? null : () -> {
+            for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+                writer.write(new SimpleEntry<>(entry.getKey(), entry.getValue()));
+            }
+        }, () -> cache.putAll(entries));
+    }
+
+    public CompletableFuture<Void> removeAsync(K key) {
+        return write(Collections.singleton(key), writer == null ? null : () -> writer.delete(key),
+                () -> cache.remove(key));
+    }
+
+    /**
+     * Loads the keys through the loader and stores them, replacing cached values only if asked to.
+     * For a read-through cache this is the cache's own loadAll, completed from its CompletionListener.
+     */
+    public CompletableFuture<Void> loadAllAsync(Set<? extends K> keys, boolean replaceExistingValues) {
+        if (!readThrough) {
+            Preconditions.checkState(loader != null, "no CacheLoader to load with");
+            return submit(() -> {
+                loadAll(keys, replaceExistingValues);
+                return null;
+            });
+        }
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        CompletionListener listener = new CompletionListener() {
+            @Override
+            public void onCompletion() {
+                loaded.complete(null);
+            }
+
+            @Override
+            public void onException(Exception e) {
+                loaded.completeExceptionally(e);
+            }
+        };
+        try {
+            executor.execute(() -> {
+                try {
+                    cache.loadAll(keys, replaceExistingValues, listener);
+                } catch (RuntimeException e) {
+                    loaded.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loaded.completeExceptionally(e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Always on the executor: the processor may read or write through, and may block itself.
+     */
+    public <T> CompletableFuture<T> invokeAsync(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+        return submit(() -> cache.invoke(key, entryProcessor, arguments));
+    }
+
+    /**
+     * Number of calls answered on the calling thread, without touching the executor.
+     */
+    public long getInlineCount() {
+        return inlineCalls.sum();
+    }
+
+    /**
+     * Number of single-key loads started by misses (concurrent misses of a key count once).
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    private CompletableFuture<V> load(K key) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        loads.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loader.load(key);
+                    if (value != null && !cache.putIfAbsent(key, value)) {
+                        // a put won the race: report the value the cache holds now
+                        V current = cache.get(key);
+                        value = current == null ? value : current;
+                    }
+                    load.complete(value);
+                } catch (RuntimeException | Error e) {
+                    load.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, load);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, load);
+            load.completeExceptionally(e);
+        }
+        return load;
+    }
+
+    private Map<K, V> loadAll(Set<? extends K> keys, boolean replaceExistingValues) {
+        Map<K, V> loaded = loader.loadAll(keys);
+        if (replaceExistingValues) {
+            cache.putAll(loaded);
+        } else {
+            for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                cache.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+        return loaded;
+    }
+
+    // the writer (if any) on the executor first, then the in-memory cache update
+    private CompletableFuture<Void> write(Collection<? extends K> keys, Runnable writeThroughCall,
+                                          Runnable cacheUpdate) {
+        if (writeThrough) {
+            return writeInOrder(keys, cacheUpdate);
+        }
+        if (writeThroughCall == null) {
+            // no executor involved: the cache applies writes in call order itself
+            try {
+                cacheUpdate.run();
+                inlineCalls.increment();
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return failed(e);
+            }
+        }
+        return writeInOrder(keys, () -> {
+            writeThroughCall.run();
+            cacheUpdate.run();
+        });
+    }
+
+    // runs the write on the executor once the previous writes of its keys are done
+    private CompletableFuture<Void> writeInOrder(Collection<? extends K> keys, Runnable operation) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<CompletableFuture<Void>> previous = new ArrayList<>();
+        if (keys.size() == 1) {
+            // one atomic put: a single-key write cannot close a wait cycle
+            addIfNotNull(previous, writing.put(keys.iterator().next(), done));
+        } else {
+            // two bulk writes registering overlapping keys in different orders would wait on each other
+            synchronized (bulkWriteOrder) {
+                for (K key : keys) {
+                    addIfNotNull(previous, writing.put(key, done));
+                }
+            }
+        }
+        done.whenComplete((ignored, e) -> {
+            for (K key : keys) {
+                writing.remove(key, done);
+            }
+        });
+        Runnable task = () -> {
+            try {
+                operation.run();
+                done.complete(null);
+            } catch (RuntimeException | Error e) {
+                done.completeExceptionally(e);
+            }
+        };
+        if (previous.isEmpty()) {
+            execute(task, done);
+        } else {
+            CompletableFuture.allOf(previous.toArray(new CompletableFuture<?>[0]))
+                    .whenComplete((ignored, e) -> execute(task, done));
+        }
+        return done;
+    }
+
+    private void execute(Runnable task, CompletableFuture<?> future) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static <T> void addIfNotNull(List<T> list, T element) {
+        if (element != null) {
+            list.add(element);
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
+
+    // CompletableFuture.failedFuture is Java 9+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
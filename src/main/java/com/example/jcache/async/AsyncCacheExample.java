@@ -0,0 +1,71 @@
+package com.example.jcache.async;
+
+import com.example.jcache.external.ExternalServiceCacheExample.WeatherServiceCacheLoader;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The weather cache looked up for 200 cities at once. With blocking gets every miss costs the caller
+ * the 2s of WeatherServiceCacheLoader, 400s in total; with getAsync the main thread starts all 200
+ * lookups, each loads on its own virtual thread, and they all finish after about 2s.
+ * On Java 8–20 the fallback pool of 64 platform threads runs them four waves deep, about 8s.
+ */
+public class AsyncCacheExample {
+    private static final Logger LOGGER = Logger.getLogger(AsyncCacheExample.class.getName());
+    private static final int CITIES = 200;
+
+    public static void main(String[] args) {
+        ExecutorService loaderExecutor = AsyncExecutors.newLoaderExecutor(64);
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                MutableConfiguration<String, String> cacheConfiguration = new MutableConfiguration<String, String>()
+                        .setTypes(String.class, String.class)
+                        // no read-through: the facade calls the loader itself, outside the cache's locks
+                        .setExpiryPolicyFactory(FactoryBuilder.factoryOf(new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
+
+                try (Cache<String, String> weatherCache = cacheManager.createCache("weatherCache", cacheConfiguration)) {
+                    AsyncCache<String, String> asyncWeather = new AsyncCache<>(
+                            weatherCache, new WeatherServiceCacheLoader(), null, loaderExecutor);
+                    LOGGER.log(Level.INFO, "Virtual threads available: {0}", AsyncExecutors.virtualThreadsAvailable());
+
+                    long start = System.nanoTime();
+                    List<CompletableFuture<String>> lookups = new ArrayList<>();
+                    for (int i = 0; i < CITIES; i++) {
+                        lookups.add(asyncWeather.getAsync("City-" + i));
+                    }
+                    LOGGER.log(Level.INFO, "{0} lookups started in {1}ms",
+                            new Object[]{CITIES, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+
+                    CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).join();
+                    LOGGER.log(Level.INFO, "{0} lookups completed in {1}ms, e.g. {2}",
+                            new Object[]{CITIES, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                                    lookups.get(0).join()});
+
+                    // now cached: the same lookups complete without waiting for the service
+                    start = System.nanoTime();
+                    asyncWeather.getAsync("City-0").thenAccept(weather -> LOGGER.log(Level.INFO, "Cached: {0}", weather))
+                            .join();
+                    LOGGER.log(Level.INFO, "Cached lookup took {0}µs, {1} loads",
+                            new Object[]{TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                                    asyncWeather.getLoadCount()});
+                }
+            }
+        } finally {
+            loaderExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.jcache.async;
+
+import com.google.common.base.Preconditions;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Executors for blocking cache calls
+ * On Java 21+ {@link #newLoaderExecutor(int)} returns Executors.newVirtualThreadPerTaskExecutor():
+ * every task gets its own virtual thread, and a loader sleeping on the network unmounts it instead
+ * of holding an OS thread, so hundreds of concurrent misses cost a few KB each.
+ * The project compiles for Java 8, so the method is looked up by reflection; on older runtimes the
+ * fallback is a bounded pool of daemon platform threads that rejects work once its queue is full,
+ * rather than growing without limit.
+ */
+public final class AsyncExecutors {
+    private static final Logger LOGGER = Logger.getLogger(AsyncExecutors.class.getName());
+    private static final int QUEUE_PER_THREAD = 64;
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * @param fallbackThreads size of the platform thread pool used when virtual threads are not available
+     */
+    public static ExecutorService newLoaderExecutor(int fallbackThreads) {
+        Preconditions.checkArgument(fallbackThreads > 0, "fallbackThreads must be positive");
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads != null) {
+            return virtualThreads;
+        }
+        LOGGER.log(Level.FINE, "Virtual threads not available on Java {0}, using {1} platform threads",
+                new Object[]{System.getProperty("java.version"), fallbackThreads});
+        return new ThreadPoolExecutor(fallbackThreads, fallbackThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fallbackThreads * QUEUE_PER_THREAD), daemon("cache-async-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Whether this runtime has virtual threads (Java 21+).
+     */
+    public static boolean virtualThreadsAvailable() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        Method factory = virtualThreadFactoryMethod();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.WARNING, "Could not create a virtual thread executor", e);
+            return null;
+        }
+    }
+
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.jcache.binary;
+
+import com.example.jcache.writer.Book;
+
+/**
+ * {@link Book} as a record: id, title, author.
+ */
+public class BookBinding implements RecordBinding<Book> {
+    static final RecordSchema SCHEMA = RecordSchema.builder().int32("id").string("title").string("author").build();
+    static final int ID = SCHEMA.indexOf("id");
+    static final int TITLE = SCHEMA.indexOf("title");
+    static final int AUTHOR = SCHEMA.indexOf("author");
+
+    @Override
+    public RecordSchema schema() {
+        return SCHEMA;
+    }
+
+    @Override
+    public void write(Book book, RecordWriter writer) {
+        writer.setInt(ID, book.getId()).setString(TITLE, book.getTitle()).setString(AUTHOR, book.getAuthor());
+    }
+
+    @Override
+    public Book view(Record record) {
+        return new BookRecord(record);
+    }
+
+    @Override
+    public Record recordOf(Book book) {
+        return book instanceof BookRecord ? ((BookRecord) book).record() : null;
+    }
+}
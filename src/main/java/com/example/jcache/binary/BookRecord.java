@@ -0,0 +1,56 @@
+package com.example.jcache.binary;
+
+import com.example.jcache.writer.Book;
+
+/**
+ * A {@link Book} read from its {@link Record}: the id is read up front, title and author are
+ * decoded on first access and kept (a racy but harmless cache of immutable Strings).
+ */
+final class BookRecord extends Book {
+    private final Record record;
+    private String title;
+    private String author;
+
+    BookRecord(Record record) {
+        super(record.getInt(BookBinding.ID), null, null);
+        this.record = record;
+    }
+
+    Record record() {
+        return record;
+    }
+
+    @Override
+    public String getTitle() {
+        String value = title;
+        if (value == null && !record.isNull(BookBinding.TITLE)) {
+            value = record.getString(BookBinding.TITLE);
+            title = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String getAuthor() {
+        String value = author;
+        if (value == null && !record.isNull(BookBinding.AUTHOR)) {
+            value = record.getString(BookBinding.AUTHOR);
+            author = value;
+        }
+        return value;
+    }
+
+    @Override
+    public void setTitle(String title) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAuthor(String author) {
+        throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Book " + getId() + " is a read-only cached view; put a new Book instead");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.jcache.binary;
+
+import org.ehcache.spi.copy.Copier;
+
+/**
+ * 🔹 Store-by-value without a copy per read
+ * With store-by-value (the JCache default) Ehcache copies the value on the way in, so the caller
+ * can keep changing its object, and on the way out, so the caller cannot change the cached one.
+ * The default copier serializes and deserializes a full object both times.
+ * This copier encodes the value once on put and stores a read-only view of those bytes; a get
+ * hands out that same view, because nobody can change it. Isolation holds, and a read costs nothing.
+ * <pre>
+ * CacheConfigurationBuilder.newCacheConfigurationBuilder(Integer.class, Book.class, heap(1000))
+ *         .withValueCopier(new FlyweightCopier&lt;&gt;(new BookBinding()));
+ * </pre>
+ * ⚠️ Values read from the cache are views: setters throw UnsupportedOperationException.
+ * To change a value, put a new object.
+ */
+public class FlyweightCopier<T> implements Copier<T> {
+    private final RecordBinding<T> binding;
+
+    public FlyweightCopier(RecordBinding<T> binding) {
+        this.binding = binding;
+    }
+
+    @Override
+    public T copyForRead(T obj) {
+        // anything stored went through copyForWrite, so this is already an immutable view
+        return binding.recordOf(obj) != null ? obj : copyForWrite(obj);
+    }
+
+    @Override
+    public T copyForWrite(T obj) {
+        return binding.recordOf(obj) != null ? obj : binding.view(binding.encode(obj));
+    }
+}
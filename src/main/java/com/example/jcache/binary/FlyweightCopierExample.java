@@ -0,0 +1,67 @@
+package com.example.jcache.binary;
+
+import com.example.jcache.writer.Book;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A store-by-value bookCache whose values are copied with {@link FlyweightCopier}:
+ * changing the Book after put does not change the cached one, two gets return the same read-only
+ * view instead of two fresh copies, and trying to change that view fails loudly.
+ * A second, tiered cache uses {@link RecordSerializer} so off-heap hits come back as views too.
+ */
+public class FlyweightCopierExample {
+    private static final Logger LOGGER = Logger.getLogger(FlyweightCopierExample.class.getName());
+
+    public static void main(String[] args) {
+        BookBinding binding = new BookBinding();
+        try (CachingProvider provider = Caching.getCachingProvider();
+             CacheManager cacheManager = provider.getCacheManager()) {
+            CacheConfiguration<Integer, Book> byValue = CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Integer.class, Book.class, ResourcePoolsBuilder.heap(1_000))
+                    .withValueCopier(new FlyweightCopier<>(binding))
+                    .build();
+            try (Cache<Integer, Book> books = cacheManager.createCache("bookCache",
+                    Eh107Configuration.fromEhcacheCacheConfiguration(byValue))) {
+                Book book = new Book(1, "Effective Java", "Joshua Bloch");
+                books.put(1, book);
+                book.setTitle("changed after put");
+
+                Book first = books.get(1);
+                Book second = books.get(1);
+                LOGGER.log(Level.INFO, "Cached: {0}, same view on both reads: {1}", new Object[]{first, first == second});
+                try {
+                    first.setTitle("changed after get");
+                } catch (UnsupportedOperationException e) {
+                    LOGGER.log(Level.INFO, "Rejected: {0}", e.getMessage());
+                }
+            }
+
+            CacheConfiguration<Integer, Book> tiered = CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Integer.class, Book.class, ResourcePoolsBuilder.newResourcePoolsBuilder()
+                            .heap(100, EntryUnit.ENTRIES)
+                            .offheap(8, MemoryUnit.MB))
+                    .withValueCopier(new FlyweightCopier<>(binding))
+                    .withValueSerializer(new RecordSerializer<>(binding))
+                    .build();
+            try (Cache<Integer, Book> catalogue = cacheManager.createCache("bookCatalogue",
+                    Eh107Configuration.fromEhcacheCacheConfiguration(tiered))) {
+                for (int id = 0; id < 10_000; id++) {
+                    catalogue.put(id, new Book(id, "Title " + id, "Author " + (id % 100)));
+                }
+                LOGGER.log(Level.INFO, "From off-heap: {0}", catalogue.get(42));
+            }
+        }
+    }
+}
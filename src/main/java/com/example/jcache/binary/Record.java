@@ -0,0 +1,89 @@
+package com.example.jcache.binary;
+
+import com.example.jcache.binary.RecordSchema.FieldType;
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only flyweight over the bytes of one record of a {@link RecordSchema}.
+ * Every getter is one absolute read at the field's offset (strings are decoded on request), so a
+ * view costs one small object however many fields the value has, and reading one field of a large
+ * value does not decode the others. Absolute reads leave the buffer untouched, so a record can be
+ * shared between threads (the buffer's position never moves from 0).
+ */
+public final class Record {
+    private final RecordSchema schema;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param buffer the record's bytes, from position 0 to the limit; the record takes ownership
+     */
+    Record(RecordSchema schema, ByteBuffer buffer) {
+        this.schema = schema;
+        this.buffer = buffer;
+    }
+
+    /**
+     * A record over a copy of buffer's remaining bytes, e.g. bytes an off-heap store is about to reuse.
+     */
+    public static Record copyOf(RecordSchema schema, ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        Preconditions.checkArgument(bytes.length >= schema.fixedSize(), "%s bytes is too short for the schema",
+                bytes.length);
+        return new Record(schema, ByteBuffer.wrap(bytes));
+    }
+
+    public RecordSchema getSchema() {
+        return schema;
+    }
+
+    public int getInt(int field) {
+        return buffer.getInt(schema.offset(field, FieldType.INT));
+    }
+
+    public long getLong(int field) {
+        return buffer.getLong(schema.offset(field, FieldType.LONG));
+    }
+
+    public double getDouble(int field) {
+        return Double.longBitsToDouble(buffer.getLong(schema.offset(field, FieldType.DOUBLE)));
+    }
+
+    public boolean getBoolean(int field) {
+        return buffer.get(schema.offset(field, FieldType.BOOLEAN)) != 0;
+    }
+
+    public String getString(int field) {
+        int offset = schema.offset(field, FieldType.STRING);
+        int length = buffer.getInt(offset + Integer.BYTES);
+        if (length < 0) {
+            return null;
+        }
+        return new String(buffer.array(), buffer.arrayOffset() + buffer.getInt(offset), length, StandardCharsets.UTF_8);
+    }
+
+    public boolean isNull(int field) {
+        return buffer.getInt(schema.offset(field, FieldType.STRING) + Integer.BYTES) < 0;
+    }
+
+    public int sizeInBytes() {
+        return buffer.limit();
+    }
+
+    /**
+     * The record's bytes, read-only and positioned at 0, without copying them.
+     */
+    public ByteBuffer asByteBuffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Same bytes as other's remaining bytes; neither buffer's position moves.
+     */
+    public boolean contentEquals(ByteBuffer other) {
+        return buffer.equals(other);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.jcache.binary;
+
+/**
+ * Maps a value type onto a {@link RecordSchema}: how to write one and how to wrap a record as a
+ * read-only view of the same type, so callers keep using their own class.
+ */
+public interface RecordBinding<T> {
+    RecordSchema schema();
+
+    void write(T value, RecordWriter writer);
+
+    /**
+     * A read-only T backed by the record; it must not copy the fields out eagerly.
+     */
+    T view(Record record);
+
+    /**
+     * The record behind value if it is a view made by {@link #view(Record)}, otherwise null.
+     */
+    Record recordOf(T value);
+
+    default Record encode(T value) {
+        Record record = recordOf(value);
+        if (record == null) {
+            RecordWriter writer = new RecordWriter(schema());
+            write(value, writer);
+            record = writer.toRecord();
+        }
+        return record;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.jcache.binary;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔹 Binary record layout
+ * Describes the fields of a value once, so every record of that type has the same shape:
+ * a fixed area with one slot per field, in declaration order
+ * (INT 4 bytes, LONG 8, DOUBLE 8, BOOLEAN 1, STRING 8 = offset + length of its UTF-8 bytes),
+ * followed by the variable area holding the string bytes.
+ * A field is read with one absolute get at a precomputed offset, so a {@link Record} can answer
+ * getInt(field) or getString(field) without decoding the rest of the value.
+ * <pre>
+ * RecordSchema books = RecordSchema.builder().int32("id").string("title").string("author").build();
+ * </pre>
+ */
+public final class RecordSchema {
+    public enum FieldType {
+        INT(Integer.BYTES), LONG(Long.BYTES), DOUBLE(Double.BYTES), BOOLEAN(1), STRING(2 * Integer.BYTES);
+
+        final int width;
+
+        FieldType(int width) {
+            this.width = width;
+        }
+    }
+
+    private final String[] names;
+    private final FieldType[] types;
+    private final int[] offsets;
+    private final int fixedSize;
+
+    private RecordSchema(List<String> names, List<FieldType> types) {
+        this.names = names.toArray(new String[0]);
+        this.types = types.toArray(new FieldType[0]);
+        this.offsets = new int[this.types.length];
+        int offset = 0;
+        for (int i = 0; i < this.types.length; i++) {
+            offsets[i] = offset;
+            offset += this.types[i].width;
+        }
+        this.fixedSize = offset;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Index of the named field, for the getters of {@link Record} and the setters of {@link RecordWriter}.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No field " + name);
+    }
+
+    public int fieldCount() {
+        return types.length;
+    }
+
+    public String name(int field) {
+        return names[field];
+    }
+
+    public FieldType type(int field) {
+        return types[field];
+    }
+
+    /**
+     * Bytes of the fixed area; a record without strings has exactly this size.
+     */
+    public int fixedSize() {
+        return fixedSize;
+    }
+
+    int offset(int field, FieldType expected) {
+        Preconditions.checkArgument(types[field] == expected, "field %s is %s, not %s", names[field], types[field], expected);
+        return offsets[field];
+    }
+
+    public static final class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<FieldType> types = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder int32(String name) {
+            return field(name, FieldType.INT);
+        }
+
+        public Builder int64(String name) {
+            return field(name, FieldType.LONG);
+        }
+
+        public Builder float64(String name) {
+            return field(name, FieldType.DOUBLE);
+        }
+
+        public Builder bool(String name) {
+            return field(name, FieldType.BOOLEAN);
+        }
+
+        public Builder string(String name) {
+            return field(name, FieldType.STRING);
+        }
+
+        public RecordSchema build() {
+            Preconditions.checkState(!types.isEmpty(), "a schema needs at least one field");
+            return new RecordSchema(names, types);
+        }
+
+        private Builder field(String name, FieldType type) {
+            Preconditions.checkArgument(!names.contains(Preconditions.checkNotNull(name, "name")),
+                    "duplicate field %s", name);
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.jcache.binary;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The {@link RecordBinding} as an Ehcache serializer, for tiers that keep bytes (off-heap, disk):
+ * a stored view is serialized by handing over its bytes, and read back by copying the bytes once
+ * and wrapping them, with no field decoding.
+ */
+public class RecordSerializer<T> implements Serializer<T> {
+    private final RecordBinding<T> binding;
+
+    public RecordSerializer(RecordBinding<T> binding) {
+        this.binding = binding;
+    }
+
+    @Override
+    public ByteBuffer serialize(T object) throws SerializerException {
+        return binding.encode(object).asByteBuffer();
+    }
+
+    @Override
+    public T read(ByteBuffer binary) throws SerializerException {
+        try {
+            return binding.view(Record.copyOf(binding.schema(), binary));
+        } catch (RuntimeException e) {
+            throw new SerializerException("Corrupt record", e);
+        }
+    }
+
+    @Override
+    public boolean equals(T object, ByteBuffer binary) throws SerializerException {
+        return binding.encode(object).contentEquals(binary);
+    }
+}
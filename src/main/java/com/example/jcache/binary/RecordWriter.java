@@ -0,0 +1,91 @@
+package com.example.jcache.binary;
+
+import com.example.jcache.binary.RecordSchema.FieldType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Collects the field values of one record and lays them out in a single exactly-sized buffer.
+ * Fields not set are 0, false or null.
+ */
+public final class RecordWriter {
+    private static final int NULL_LENGTH = -1;
+
+    private final RecordSchema schema;
+    private final long[] primitives;
+    private final byte[][] strings;
+
+    public RecordWriter(RecordSchema schema) {
+        this.schema = schema;
+        this.primitives = new long[schema.fieldCount()];
+        this.strings = new byte[schema.fieldCount()][];
+    }
+
+    public RecordWriter setInt(int field, int value) {
+        schema.offset(field, FieldType.INT);
+        primitives[field] = value;
+        return this;
+    }
+
+    public RecordWriter setLong(int field, long value) {
+        schema.offset(field, FieldType.LONG);
+        primitives[field] = value;
+        return this;
+    }
+
+    public RecordWriter setDouble(int field, double value) {
+        schema.offset(field, FieldType.DOUBLE);
+        primitives[field] = Double.doubleToRawLongBits(value);
+        return this;
+    }
+
+    public RecordWriter setBoolean(int field, boolean value) {
+        schema.offset(field, FieldType.BOOLEAN);
+        primitives[field] = value ? 1 : 0;
+        return this;
+    }
+
+    public RecordWriter setString(int field, String value) {
+        schema.offset(field, FieldType.STRING);
+        strings[field] = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        return this;
+    }
+
+    public Record toRecord() {
+        int size = schema.fixedSize();
+        for (byte[] bytes : strings) {
+            size += bytes == null ? 0 : bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        int variable = schema.fixedSize();
+        for (int field = 0; field < schema.fieldCount(); field++) {
+            FieldType type = schema.type(field);
+            int offset = schema.offset(field, type);
+            switch (type) {
+                case INT:
+                    buffer.putInt(offset, (int) primitives[field]);
+                    break;
+                case LONG:
+                case DOUBLE:
+                    buffer.putLong(offset, primitives[field]);
+                    break;
+                case BOOLEAN:
+                    buffer.put(offset, (byte) primitives[field]);
+                    break;
+                case STRING:
+                    byte[] bytes = strings[field];
+                    buffer.putInt(offset, variable);
+                    buffer.putInt(offset + Integer.BYTES, bytes == null ? NULL_LENGTH : bytes.length);
+                    if (bytes != null) {
+                        System.arraycopy(bytes, 0, buffer.array(), variable, bytes.length);
+                        variable += bytes.length;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown field type " + type);
+            }
+        }
+        return new Record(schema, buffer);
+    }
+}
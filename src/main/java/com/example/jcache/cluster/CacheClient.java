@@ -0,0 +1,242 @@
+package com.example.jcache.cluster;
+
+import com.example.jcache.eviction.Weigher;
+import com.google.common.base.Preconditions;
+
+import javax.cache.CacheException;
+import javax.cache.integration.CacheLoader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One connection from a JVM to a {@link CacheServer}, shared by all its {@link NearCache}s.
+ * Any thread may send; requests get an id and a pending future, and a single reader thread
+ * completes them in the order the server replies and applies pushed invalidations in between.
+ * Because replies and invalidations of a key are applied by that one thread in stream order, a
+ * near cache never keeps a value older than an invalidation that followed it.
+ */
+public class CacheClient implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(CacheClient.class.getName());
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final ConcurrentMap<Integer, Request> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NearCache<?, ?>> nearCaches = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private CacheClient(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        Thread reader = new Thread(this::readLoop, "cache-client-" + socket.getLocalPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public static CacheClient connect(InetSocketAddress server) throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(Preconditions.checkNotNull(server, "server"));
+        return new CacheClient(socket);
+    }
+
+    /**
+     * A near cache of the server's cache cacheName holding up to maximumWeight, e.g. entries or
+     * bytes depending on the weigher. The loader (may be null) fills misses of the server tier,
+     * so one node's load serves every node.
+     */
+    public <K, V> NearCache<K, V> nearCache(String cacheName, Codec<K> keyCodec, Codec<V> valueCodec,
+                                            long maximumWeight, Weigher<? super K, ? super V> weigher,
+                                            CacheLoader<K, V> loader) {
+        Preconditions.checkState(!closed, "client is closed");
+        NearCache<K, V> nearCache = new NearCache<>(this, cacheName, keyCodec, valueCodec, maximumWeight, weigher, loader);
+        Preconditions.checkState(nearCaches.putIfAbsent(cacheName, nearCache) == null,
+                "a near cache of %s already exists", cacheName);
+        return nearCache;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not close socket", e);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void release(NearCache<?, ?> nearCache) {
+        nearCaches.remove(nearCache.getName(), nearCache);
+    }
+
+    CompletableFuture<Reply> send(byte op, String cacheName, byte[] key, byte[] value, ReplyHandler handler) {
+        List<CompletableFuture<Reply>> replies = sendAll(op, cacheName, Collections.singletonList(key),
+                value == null ? null : Collections.singletonList(value), handler);
+        return replies.get(0);
+    }
+
+    /**
+     * Writes one request per key back to back and flushes once: the whole batch costs one round
+     * trip instead of one per key.
+     */
+    List<CompletableFuture<Reply>> sendAll(byte op, String cacheName, List<byte[]> keys, List<byte[]> values,
+                                            ReplyHandler handler) {
+        List<CompletableFuture<Reply>> replies = new ArrayList<>(keys.size());
+        if (closed) {
+            replies.add(failed(new CacheException("Not connected to the cache server")));
+            return replies;
+        }
+        synchronized (out) {
+            try {
+                for (int i = 0; i < keys.size(); i++) {
+                    Request request = new Request(keys.get(i), handler);
+                    int id = requestIds.incrementAndGet();
+                    pending.put(id, request);
+                    replies.add(request.reply);
+                    out.writeByte(op);
+                    out.writeInt(id);
+                    out.writeUTF(cacheName);
+                    Protocol.writeBytes(out, keys.get(i));
+                    if (values != null) {
+                        Protocol.writeBytes(out, values.get(i));
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                CacheException failure = new CacheException("Could not send to the cache server", e);
+                for (CompletableFuture<Reply> reply : replies) {
+                    reply.completeExceptionally(failure);
+                }
+            }
+        }
+        if (closed) {
+            // lost the connection while sending: the reader may already have failed the pending requests
+            CacheException failure = new CacheException("Connection to the cache server lost");
+            for (CompletableFuture<Reply> reply : replies) {
+                reply.completeExceptionally(failure);
+            }
+        }
+        return replies;
+    }
+
+    private static CompletableFuture<Reply> failed(CacheException e) {
+        CompletableFuture<Reply> reply = new CompletableFuture<>();
+        reply.completeExceptionally(e);
+        return reply;
+    }
+
+    private void readLoop() {
+        try {
+            while (true) {
+                byte kind = in.readByte();
+                if (kind == Protocol.RESPONSE) {
+                    int id = in.readInt();
+                    byte status = in.readByte();
+                    byte[] value = status == Protocol.FOUND ? Protocol.readBytes(in) : null;
+                    Request request = pending.remove(id);
+                    if (request != null) {
+                        request.complete(status, value);
+                    }
+                } else if (kind == Protocol.INVALIDATE) {
+                    String cacheName = in.readUTF();
+                    byte[] key = Protocol.readBytes(in);
+                    NearCache<?, ?> nearCache = nearCaches.get(cacheName);
+                    if (nearCache != null) {
+                        nearCache.invalidateLocal(key);
+                    }
+                } else {
+                    throw new IOException("Unknown message " + kind);
+                }
+            }
+        } catch (EOFException | SocketException e) {
+            LOGGER.log(Level.FINE, "Connection to the cache server closed");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection to the cache server failed", e);
+        } finally {
+            disconnected();
+        }
+    }
+
+    // without the invalidation stream the near copies can no longer be trusted
+    private void disconnected() {
+        closed = true;
+        for (NearCache<?, ?> nearCache : nearCaches.values()) {
+            nearCache.clearLocal();
+        }
+        CacheException failure = new CacheException("Connection to the cache server lost");
+        for (Request request : pending.values()) {
+            request.reply.completeExceptionally(failure);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Runs on the reader thread before the reply future completes, in stream order, and returns
+     * what the reply should carry as {@link Reply#decoded}.
+     */
+    interface ReplyHandler {
+        Object onReply(byte[] key, byte status, byte[] value);
+    }
+
+    /**
+     * Status and, for a found GET, the value as sent and as decoded by the handler.
+     */
+    static final class Reply {
+        final byte status;
+        final byte[] value;
+        final Object decoded;
+
+        Reply(byte status, byte[] value, Object decoded) {
+            this.status = status;
+            this.value = value;
+            this.decoded = decoded;
+        }
+    }
+
+    private static final class Request {
+        final byte[] key;
+        final ReplyHandler handler;
+        final CompletableFuture<Reply> reply = new CompletableFuture<>();
+
+        Request(byte[] key, ReplyHandler handler) {
+            this.key = key;
+            this.handler = handler;
+        }
+
+        void complete(byte status, byte[] value) {
+            if (status == Protocol.ERROR) {
+                reply.completeExceptionally(new CacheException("The cache server rejected the request"));
+                return;
+            }
+            try {
+                Object decoded = handler == null ? null : handler.onReply(key, status, value);
+                reply.complete(new Reply(status, value, decoded));
+            } catch (RuntimeException e) {
+                reply.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.jcache.cluster;
+
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Standalone cache server
+ * The authoritative tier shared by several JVMs: named maps of byte[] keys to byte[] values, served
+ * over the binary {@link Protocol}. Every write or remove is pushed as an invalidation to the other
+ * connected clients that use the cache, so their {@link NearCache}s drop the stale copy.
+ * Start it as its own process (listens on loopback unless a bind address is given):
+ * <pre>
+ * java -cp ... com.example.jcache.cluster.CacheServer 7070 [bindAddress]
+ * </pre>
+ * or in-process with {@link #start(InetSocketAddress)}, e.g. on port 0 for tests.
+ * One thread per connection; a connection's replies are flushed once its pipelined requests are
+ * drained, so a multi-get costs one round trip.
+ * ⚠️ A stand-in, not a product: no persistence, replication, authentication or size bound.
+ */
+public class CacheServer implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(CacheServer.class.getName());
+
+    private final ServerSocket serverSocket;
+    private final ConcurrentMap<String, ConcurrentMap<ByteKey, byte[]>> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private volatile boolean closed;
+
+    private CacheServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    public static CacheServer start(InetSocketAddress address) throws IOException {
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(Preconditions.checkNotNull(address, "address"));
+        CacheServer server = new CacheServer(serverSocket);
+        Thread acceptor = new Thread(server::acceptLoop, "cache-server-" + server.getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.log(Level.INFO, "Cache server listening on {0}", serverSocket.getLocalSocketAddress());
+        return server;
+    }
+
+    /**
+     * A server on a free loopback port.
+     */
+    public static CacheServer startLocal() throws IOException {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        InetAddress bindAddress = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        CacheServer server = start(new InetSocketAddress(bindAddress, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Thread.currentThread().join();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return new InetSocketAddress(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Number of invalidations pushed to clients.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Number of entries of a cache held by the server.
+     */
+    public int size(String cacheName) {
+        ConcurrentMap<ByteKey, byte[]> entries = caches.get(cacheName);
+        return entries == null ? 0 : entries.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not close server socket", e);
+        }
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket, connectionIds.incrementAndGet());
+                connections.add(connection);
+                Thread thread = new Thread(connection, "cache-server-connection-" + connection.id);
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    LOGGER.log(Level.WARNING, "Accept failed", e);
+                }
+            }
+        }
+    }
+
+    private final class Connection implements Runnable {
+        private final Socket socket;
+        private final int id;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+        Connection(Socket socket, int id) throws IOException {
+            this.socket = socket;
+            this.id = id;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    serve(in.readByte());
+                }
+            } catch (EOFException | SocketException e) {
+                LOGGER.log(Level.FINE, "Connection {0} closed", id);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Connection " + id + " failed", e);
+            } finally {
+                close();
+            }
+        }
+
+        private void serve(byte op) throws IOException {
+            int requestId = in.readInt();
+            String cacheName = in.readUTF();
+            ByteKey key = new ByteKey(Protocol.readBytes(in));
+            byte[] value = op == Protocol.PUT || op == Protocol.PUT_IF_ABSENT ? Protocol.readBytes(in) : null;
+            requests.increment();
+            ConcurrentMap<ByteKey, byte[]> entries = caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+            if (subscriptions.add(cacheName)) {
+                subscribers.computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet()).add(this);
+            }
+            switch (op) {
+                case Protocol.GET:
+                    // read and reply under the write lock: an invalidation for a later write of the key
+                    // can only be queued after this reply, never before it
+                    synchronized (out) {
+                        byte[] found = entries.get(key);
+                        if (found == null) {
+                            reply(requestId, Protocol.ABSENT, null);
+                        } else {
+                            reply(requestId, Protocol.FOUND, found);
+                        }
+                    }
+                    break;
+                case Protocol.PUT:
+                    entries.put(key, value);
+                    invalidateOthers(cacheName, key);
+                    synchronized (out) {
+                        reply(requestId, Protocol.OK, null);
+                    }
+                    break;
+                case Protocol.PUT_IF_ABSENT:
+                    // like GET, decided and answered under the write lock, so a later write's
+                    // invalidation reaches this client after the reply
+                    byte[] existing;
+                    synchronized (out) {
+                        existing = entries.putIfAbsent(key, value);
+                        if (existing == null) {
+                            reply(requestId, Protocol.OK, null);
+                        } else {
+                            reply(requestId, Protocol.FOUND, existing);
+                        }
+                    }
+                    if (existing == null) {
+                        invalidateOthers(cacheName, key);
+                    }
+                    break;
+                case Protocol.REMOVE:
+                    boolean removed = entries.remove(key) != null;
+                    if (removed) {
+                        invalidateOthers(cacheName, key);
+                    }
+                    synchronized (out) {
+                        reply(requestId, removed ? Protocol.OK : Protocol.ABSENT, null);
+                    }
+                    break;
+                default:
+                    synchronized (out) {
+                        reply(requestId, Protocol.ERROR, null);
+                    }
+                    throw new IOException("Unknown op " + op);
+            }
+        }
+
+        // called with the lock on out held; flushes once no further pipelined request is waiting
+        private void reply(int requestId, byte status, byte[] value) throws IOException {
+            out.writeByte(Protocol.RESPONSE);
+            out.writeInt(requestId);
+            out.writeByte(status);
+            if (value != null) {
+                Protocol.writeBytes(out, value);
+            }
+            if (in.available() == 0) {
+                out.flush();
+            }
+        }
+
+        private void invalidateOthers(String cacheName, ByteKey key) {
+            Set<Connection> cacheSubscribers = subscribers.get(cacheName);
+            if (cacheSubscribers == null) {
+                return;
+            }
+            for (Connection connection : cacheSubscribers) {
+                if (connection != this) {
+                    connection.pushInvalidation(cacheName, key);
+                }
+            }
+        }
+
+        private void pushInvalidation(String cacheName, ByteKey key) {
+            try {
+                synchronized (out) {
+                    out.writeByte(Protocol.INVALIDATE);
+                    out.writeUTF(cacheName);
+                    Protocol.writeBytes(out, key.bytes);
+                    out.flush();
+                }
+                invalidations.increment();
+            } catch (IOException e) {
+                // the connection's own thread notices the broken socket and cleans up
+                LOGGER.log(Level.FINE, "Could not push invalidation to connection " + id, e);
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            for (String cacheName : subscriptions) {
+                Set<Connection> cacheSubscribers = subscribers.get(cacheName);
+                if (cacheSubscribers != null) {
+                    cacheSubscribers.remove(this);
+                }
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not close connection " + id, e);
+            }
+        }
+    }
+
+    /**
+     * byte[] with value equality, as map key.
+     */
+    static final class ByteKey {
+        final byte[] bytes;
+        private final int hash;
+
+        ByteKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ByteKey && Arrays.equals(bytes, ((ByteKey) other).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.jcache.cluster;
+
+import com.example.jcache.eviction.Weighers;
+import com.example.jcache.writer.Book;
+
+import javax.cache.integration.CacheLoader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Two application nodes sharing one bookCache through a {@link CacheServer} on loopback (in
+ * production the server runs as its own process and each node in its own JVM):
+ * node A misses, loads book 1 from the database and stores it on the server; node B then finds it
+ * on the server without touching the database, and its second read is a near hit.
+ * Node A renames the book: the server pushes an invalidation, so node B's next read sees the new
+ * title instead of its stale near copy.
+ * Finally node B reads 200 books one by one (200 round trips) and then with a pipelined getAll.
+ */
+public class ClusterExample {
+    private static final Logger LOGGER = Logger.getLogger(ClusterExample.class.getName());
+    private static final String BOOK_CACHE = "bookCache";
+    private static final int BOOKS = 200;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BookDatabase database = new BookDatabase();
+        try (CacheServer server = CacheServer.startLocal();
+             CacheClient nodeA = CacheClient.connect(server.getAddress());
+             CacheClient nodeB = CacheClient.connect(server.getAddress())) {
+            NearCache<Integer, Book> booksA = nodeA.nearCache(BOOK_CACHE, Codecs.integers(), Codecs.books(),
+                    1_000, Weighers.entries(), database);
+            NearCache<Integer, Book> booksB = nodeB.nearCache(BOOK_CACHE, Codecs.integers(), Codecs.books(),
+                    1_000, Weighers.entries(), database);
+
+            LOGGER.log(Level.INFO, "A: {0}", booksA.get(1));
+            LOGGER.log(Level.INFO, "B: {0}", booksB.get(1));
+            LOGGER.log(Level.INFO, "B: {0}", booksB.get(1));
+            LOGGER.log(Level.INFO, "Database loads: {0}, B near hits: {1}, B server hits: {2}",
+                    new Object[]{database.loads.get(), booksB.getNearHitCount(), booksB.getRemoteHitCount()});
+
+            booksA.put(1, new Book(1, "Effective Java, 3rd edition", "Joshua Bloch"));
+            // the invalidation travels asynchronously; give it a moment on loopback
+            TimeUnit.MILLISECONDS.sleep(50);
+            LOGGER.log(Level.INFO, "B after A''s update: {0} ({1} invalidation received)",
+                    new Object[]{booksB.get(1), booksB.getInvalidationCount()});
+
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 100; id < 100 + BOOKS; id++) {
+                ids.add(id);
+            }
+            booksA.getAll(ids);
+
+            long start = System.nanoTime();
+            for (Integer id : ids) {
+                booksB.get(id);
+            }
+            long oneByOne = System.nanoTime() - start;
+            booksB.close();
+            NearCache<Integer, Book> coldB = nodeB.nearCache(BOOK_CACHE, Codecs.integers(), Codecs.books(),
+                    1_000, Weighers.entries(), database);
+            start = System.nanoTime();
+            coldB.getAll(ids);
+            long pipelined = System.nanoTime() - start;
+            LOGGER.log(Level.INFO, "{0} server reads: one by one {1}µs, pipelined {2}µs",
+                    new Object[]{BOOKS, TimeUnit.NANOSECONDS.toMicros(oneByOne), TimeUnit.NANOSECONDS.toMicros(pipelined)});
+            LOGGER.log(Level.INFO, "Server: {0} books, {1} requests, {2} invalidations pushed",
+                    new Object[]{server.size(BOOK_CACHE), server.getRequestCount(), server.getInvalidationCount()});
+        }
+    }
+
+    /**
+     * The database both nodes would otherwise hit for every miss.
+     */
+    static class BookDatabase implements CacheLoader<Integer, Book> {
+        final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public Book load(Integer id) {
+            loads.incrementAndGet();
+            return new Book(id, id == 1 ? "Effective Java" : "Book " + id, id == 1 ? "Joshua Bloch" : "Author " + id);
+        }
+
+        @Override
+        public Map<Integer, Book> loadAll(Iterable<? extends Integer> ids) {
+            Map<Integer, Book> books = new HashMap<>();
+            for (Integer id : ids) {
+                books.put(id, load(id));
+            }
+            return books;
+        }
+    }
+}
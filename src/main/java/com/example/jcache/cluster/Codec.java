@@ -0,0 +1,11 @@
+package com.example.jcache.cluster;
+
+/**
+ * Turns keys and values into the bytes the {@link CacheServer} stores. Keys must encode
+ * deterministically: equal keys must give equal bytes, the server compares nothing else.
+ */
+public interface Codec<T> {
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+}
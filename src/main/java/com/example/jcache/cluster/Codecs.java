@@ -0,0 +1,77 @@
+package com.example.jcache.cluster;
+
+import com.example.jcache.writer.Book;
+
+import javax.cache.CacheException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Codec}s for the types of the examples.
+ */
+public final class Codecs {
+    private Codecs() {
+    }
+
+    public static Codec<String> strings() {
+        return new Codec<String>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    public static Codec<Integer> integers() {
+        return new Codec<Integer>() {
+            @Override
+            public byte[] encode(Integer value) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    /**
+     * id, title and author; Book is not Serializable.
+     */
+    public static Codec<Book> books() {
+        return new Codec<Book>() {
+            @Override
+            public byte[] encode(Book book) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+                try (DataOutputStream out = new DataOutputStream(bytes)) {
+                    out.writeInt(book.getId());
+                    out.writeUTF(book.getTitle());
+                    out.writeUTF(book.getAuthor());
+                } catch (IOException e) {
+                    throw new CacheException("Could not encode " + book, e);
+                }
+                return bytes.toByteArray();
+            }
+
+            @Override
+            public Book decode(byte[] bytes) {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                    return new Book(in.readInt(), in.readUTF(), in.readUTF());
+                } catch (IOException e) {
+                    throw new CacheException("Could not decode a book", e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.jcache.cluster;
+
+import com.example.jcache.cluster.CacheClient.Reply;
+import com.example.jcache.eviction.BoundedCache;
+import com.example.jcache.eviction.EvictionPolicy;
+import com.example.jcache.eviction.Weigher;
+import com.google.common.base.Preconditions;
+
+import javax.cache.CacheException;
+import javax.cache.integration.CacheLoader;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 Near cache
+ * Each JVM keeps the entries it reads in a small local {@link BoundedCache} (W-TinyLFU, bounded by
+ * weight) in front of the shared {@link CacheServer}:
+ * near hit → no network at all;
+ * near miss → GET from the server, whose answer fills the near cache;
+ * server miss → the CacheLoader (if any) loads the value and offers it to the server with
+ * PUT_IF_ABSENT, where every other node finds it. If another node wrote the key in the meantime,
+ * its value is kept and returned instead of the loaded one, which may be older.
+ * Writes go to the server first. The server pushes an invalidation to the other nodes, and the
+ * writing node drops its own copy when the write is acknowledged, so the next read anywhere fetches
+ * the new value.
+ * getAll sends the GETs of all near misses in one pipelined batch: one round trip for the lot.
+ * ⚠️ Values are shared by reference with the near cache: treat them as read-only, or a local change
+ * is visible to other threads of this JVM without reaching the server.
+ * ⚠️ If the connection drops, the near cache is cleared (it would miss invalidations) and calls
+ * fail with CacheException until a new client connects.
+ */
+public class NearCache<K, V> implements Closeable {
+    static final long REQUEST_TIMEOUT_MILLIS = 5_000;
+
+    private final CacheClient client;
+    private final String name;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final BoundedCache<K, V> near;
+    private final CacheLoader<K, V> loader;
+    private final CacheClient.ReplyHandler fill;
+    private final CacheClient.ReplyHandler dropOwnCopy;
+
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    NearCache(CacheClient client, String name, Codec<K> keyCodec, Codec<V> valueCodec, long maximumWeight,
+              Weigher<? super K, ? super V> weigher, CacheLoader<K, V> loader) {
+        this.client = client;
+        this.name = Preconditions.checkNotNull(name, "name");
+        this.keyCodec = Preconditions.checkNotNull(keyCodec, "keyCodec");
+        this.valueCodec = Preconditions.checkNotNull(valueCodec, "valueCodec");
+        this.near = new BoundedCache<>(maximumWeight, weigher, EvictionPolicy.W_TINY_LFU, 1_000);
+        this.loader = loader;
+        // both run on the client's reader thread, in stream order with the invalidations
+        this.fill = (key, status, value) -> {
+            if (status != Protocol.FOUND) {
+                return null;
+            }
+            V decoded = valueCodec.decode(value);
+            near.put(keyCodec.decode(key), decoded);
+            return decoded;
+        };
+        this.dropOwnCopy = (key, status, value) -> {
+            near.remove(keyCodec.decode(key));
+            return null;
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(K key) {
+        Preconditions.checkNotNull(key, "key");
+        V value = near.get(key);
+        if (value != null) {
+            nearHits.increment();
+            return value;
+        }
+        Reply reply = await(client.send(Protocol.GET, name, keyCodec.encode(key), null, fill));
+        if (reply.status == Protocol.FOUND) {
+            remoteHits.increment();
+            return decoded(reply);
+        }
+        misses.increment();
+        if (loader == null) {
+            return null;
+        }
+        V loaded = loader.load(key);
+        if (loaded == null) {
+            return null;
+        }
+        return decoded(await(client.send(Protocol.PUT_IF_ABSENT, name, keyCodec.encode(key), valueCodec.encode(loaded),
+                fillWithWinner(Collections.singletonMap(key, loaded)))));
+    }
+
+    /**
+     * Near hits locally, the rest with one pipelined batch of GETs, then one loadAll for the keys
+     * the server does not have either, offered back with one pipelined batch of PUT_IF_ABSENTs.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> values = new LinkedHashMap<>();
+        List<K> remote = new ArrayList<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            V value = near.get(Preconditions.checkNotNull(key, "key"));
+            if (value == null) {
+                remote.add(key);
+            } else {
+                nearHits.increment();
+                values.put(key, value);
+            }
+        }
+        if (remote.isEmpty()) {
+            return values;
+        }
+        List<byte[]> encoded = new ArrayList<>(remote.size());
+        for (K key : remote) {
+            encoded.add(keyCodec.encode(key));
+        }
+        List<CompletableFuture<Reply>> replies = client.sendAll(Protocol.GET, name, encoded, null, fill);
+        Set<K> missing = new LinkedHashSet<>();
+        for (int i = 0; i < remote.size(); i++) {
+            Reply reply = await(replies.get(i));
+            if (reply.status == Protocol.FOUND) {
+                remoteHits.increment();
+                values.put(remote.get(i), decoded(reply));
+            } else {
+                misses.increment();
+                missing.add(remote.get(i));
+            }
+        }
+        if (!missing.isEmpty() && loader != null) {
+            fillFromLoader(loader.loadAll(missing), values);
+        }
+        return values;
+    }
+
+    private void fillFromLoader(Map<K, V> loaded, Map<K, V> values) {
+        List<K> loadedKeys = new ArrayList<>(loaded.size());
+        List<byte[]> keys = new ArrayList<>(loaded.size());
+        List<byte[]> encodedValues = new ArrayList<>(loaded.size());
+        for (Map.Entry<K, V> entry : loaded.entrySet()) {
+            if (entry.getValue() != null) {
+                loadedKeys.add(entry.getKey());
+                keys.add(keyCodec.encode(entry.getKey()));
+                encodedValues.add(valueCodec.encode(entry.getValue()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Reply>> replies = client.sendAll(Protocol.PUT_IF_ABSENT, name, keys, encodedValues,
+                fillWithWinner(loaded));
+        for (int i = 0; i < loadedKeys.size(); i++) {
+            values.put(loadedKeys.get(i), decoded(await(replies.get(i))));
+        }
+    }
+
+    // reply handler of PUT_IF_ABSENT: the server's value if it already had one, else the loaded one
+    private CacheClient.ReplyHandler fillWithWinner(Map<K, V> loaded) {
+        return (encodedKey, status, value) -> {
+            K key = keyCodec.decode(encodedKey);
+            V winner = status == Protocol.FOUND ? valueCodec.decode(value) : loaded.get(key);
+            near.put(key, winner);
+            return winner;
+        };
+    }
+
+    public void put(K key, V value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        await(client.send(Protocol.PUT, name, keyCodec.encode(key), valueCodec.encode(value), dropOwnCopy));
+    }
+
+    /**
+     * Pipelined like getAll.
+     */
+    public void putAll(Map<? extends K, ? extends V> entries) {
+        List<byte[]> keys = new ArrayList<>(entries.size());
+        List<byte[]> values = new ArrayList<>(entries.size());
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            keys.add(keyCodec.encode(entry.getKey()));
+            values.add(valueCodec.encode(entry.getValue()));
+        }
+        for (CompletableFuture<Reply> reply : client.sendAll(Protocol.PUT, name, keys, values, dropOwnCopy)) {
+            await(reply);
+        }
+    }
+
+    public boolean remove(K key) {
+        Preconditions.checkNotNull(key, "key");
+        return await(client.send(Protocol.REMOVE, name, keyCodec.encode(key), null, dropOwnCopy)).status == Protocol.OK;
+    }
+
+    /**
+     * Entries held locally.
+     */
+    public int nearSize() {
+        return near.size();
+    }
+
+    public long getNearHitCount() {
+        return nearHits.sum();
+    }
+
+    /**
+     * Near misses the server answered.
+     */
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    /**
+     * Keys neither tier had.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Invalidations pushed by the server for writes of other nodes.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public void close() {
+        client.release(this);
+        near.clear();
+    }
+
+    void invalidateLocal(byte[] key) {
+        invalidations.increment();
+        near.remove(keyCodec.decode(key));
+    }
+
+    void clearLocal() {
+        near.clear();
+    }
+
+    // the value the fill handler decoded and stored, so it is decoded once
+    @SuppressWarnings("unchecked")
+    private V decoded(Reply reply) {
+        return (V) reply.decoded;
+    }
+
+    private static Reply await(CompletableFuture<Reply> reply) {
+        try {
+            return reply.get(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheException("Interrupted while waiting for the cache server", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CacheException) {
+                throw (CacheException) e.getCause();
+            }
+            throw new CacheException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CacheException("The cache server did not answer within " + REQUEST_TIMEOUT_MILLIS + "ms", e);
+        }
+    }
+}
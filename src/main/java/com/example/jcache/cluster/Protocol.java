@@ -0,0 +1,52 @@
+package com.example.jcache.cluster;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format between {@link CacheClient} and {@link CacheServer}, written with DataOutputStream.
+ * Request: op (byte), request id (int), cache name (UTF), key (int length + bytes), and for PUT and
+ * PUT_IF_ABSENT the value (int length + bytes).
+ * Reply: RESPONSE (byte), request id (int), status (byte), and for FOUND the value. GET answers
+ * FOUND or ABSENT, PUT answers OK, PUT_IF_ABSENT answers OK (stored) or FOUND with the value the
+ * key already had, REMOVE answers OK (removed) or ABSENT.
+ * Push: INVALIDATE (byte), cache name (UTF), key; sent to every other client that used the cache
+ * when an entry is written or removed.
+ * Requests of one connection are answered in order, so a client may send many before reading the
+ * replies (pipelining).
+ */
+final class Protocol {
+    static final byte GET = 1;
+    static final byte PUT = 2;
+    static final byte REMOVE = 3;
+    static final byte PUT_IF_ABSENT = 4;
+
+    static final byte RESPONSE = 10;
+    static final byte INVALIDATE = 11;
+
+    static final byte FOUND = 20;
+    static final byte ABSENT = 21;
+    static final byte OK = 22;
+    static final byte ERROR = 23;
+
+    static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    private Protocol() {
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
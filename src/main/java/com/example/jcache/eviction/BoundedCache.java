@@ -0,0 +1,419 @@
+package com.example.jcache.eviction;
+
+import com.google.common.base.Preconditions;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🔹 Byte-bounded cache with W-TinyLFU admission
+ * Capacity is a total weight (usually bytes, see {@link Weighers}) instead of an entry count, so a
+ * few huge titles cannot blow the memory budget that a hundred short ones would fit in.
+ * With {@link EvictionPolicy#W_TINY_LFU} the space is split like Caffeine's:
+ * - window (1%): plain LRU, every new entry starts here;
+ * - probation (20% of the rest): entries that left the window, or were demoted;
+ * - protected (80% of the rest): entries hit again while on probation.
+ * When the cache is full, an entry leaving the window competes with the oldest probation entry and
+ * the one the {@link FrequencySketch} has seen less often is evicted. A one-off scan over cold ids
+ * therefore passes through the window without displacing the hot set.
+ * With {@link EvictionPolicy#LRU} everything lives in the window and no admission check is done.
+ * ⚠️ One lock guards the whole cache (gets reorder the queues); it is an eviction engine to
+ * compare policies, not a replacement for a concurrent store.
+ */
+public class BoundedCache<K, V> {
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final EvictionPolicy policy;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final FrequencySketch sketch;
+    private long weightedSize;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long evictedWeight;
+    private long rejections;
+
+    /**
+     * @param expectedEntries sizes the frequency sketch; it grows if the cache ends up holding more
+     */
+    public BoundedCache(long maximumWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy,
+                        int expectedEntries) {
+        Preconditions.checkArgument(maximumWeight > 0, "maximumWeight must be positive");
+        Preconditions.checkArgument(expectedEntries >= 0, "expectedEntries must not be negative");
+        this.maximumWeight = maximumWeight;
+        this.weigher = Preconditions.checkNotNull(weigher, "weigher");
+        this.policy = Preconditions.checkNotNull(policy, "policy");
+        if (policy == EvictionPolicy.LRU) {
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+        } else {
+            this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_SHARE));
+            this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_SHARE);
+        }
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public V get(K key) {
+        Preconditions.checkNotNull(key, "key");
+        lock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (policy == EvictionPolicy.W_TINY_LFU) {
+                sketch.increment(key);
+            }
+            if (node == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            onAccess(node);
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores the entry, then evicts until the cache is within its maximum weight again; that may
+     * evict the new entry itself if TinyLFU considers it less valuable than what is cached.
+     * An entry heavier than the whole cache is not stored; an older value of the key is dropped.
+     *
+     * @return the previous value, or null
+     */
+    public V put(K key, V value) {
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(value, "value");
+        long weight = weigher.weigh(key, value);
+        Preconditions.checkArgument(weight >= 0, "negative weight %s for key %s", weight, key);
+        lock.lock();
+        try {
+            if (weight > maximumWeight) {
+                rejections++;
+                Node<K, V> stale = data.remove(key);
+                if (stale != null) {
+                    unlink(stale);
+                }
+                return null;
+            }
+            if (policy == EvictionPolicy.W_TINY_LFU) {
+                sketch.increment(key);
+            }
+            Node<K, V> node = data.get(key);
+            V previous = null;
+            if (node == null) {
+                node = new Node<>(key, value, weight);
+                data.put(key, node);
+                window.addLast(node);
+                weightedSize += weight;
+                if (policy == EvictionPolicy.W_TINY_LFU) {
+                    sketch.ensureCapacity(data.size());
+                }
+            } else {
+                previous = node.value;
+                node.value = value;
+                queueOf(node).weight += weight - node.weight;
+                weightedSize += weight - node.weight;
+                node.weight = weight;
+                onAccess(node);
+            }
+            evict();
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public V remove(K key) {
+        Preconditions.checkNotNull(key, "key");
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node == null) {
+                return null;
+            }
+            unlink(node);
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Does not count as an access: neither recency nor frequency change.
+     */
+    public boolean containsKey(K key) {
+        lock.lock();
+        try {
+            return data.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+            weightedSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                // hit again after leaving the window: promote, demoting the oldest protected entries
+                probation.remove(node);
+                node.queue = Queue.PROTECTED;
+                protectedQueue.addLast(node);
+                while (protectedQueue.weight > protectedMaximum && protectedQueue.first != node) {
+                    Node<K, V> demoted = protectedQueue.first;
+                    protectedQueue.remove(demoted);
+                    demoted.queue = Queue.PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedQueue.moveToLast(node);
+                break;
+            default:
+                throw new IllegalStateException("Unknown queue " + node.queue);
+        }
+    }
+
+    private void evict() {
+        if (policy == EvictionPolicy.LRU) {
+            while (weightedSize > maximumWeight) {
+                evict(window.first);
+            }
+            return;
+        }
+        // entries pushed out of the window become candidates at the tail of probation
+        Node<K, V> candidate = null;
+        while (window.weight > windowMaximum) {
+            Node<K, V> node = window.first;
+            window.remove(node);
+            node.queue = Queue.PROBATION;
+            probation.addLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+        while (weightedSize > maximumWeight) {
+            Node<K, V> victim = probation.first != null ? probation.first
+                    : protectedQueue.first != null ? protectedQueue.first : window.first;
+            if (candidate == null || candidate == victim) {
+                if (victim == candidate) {
+                    candidate = candidate.next;
+                }
+                evict(victim);
+            } else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                Node<K, V> next = candidate.next;
+                evict(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        data.remove(node.key);
+        unlink(node);
+        evictions++;
+        evictedWeight += node.weight;
+    }
+
+    private void unlink(Node<K, V> node) {
+        queueOf(node).remove(node);
+        weightedSize -= node.weight;
+    }
+
+    private AccessQueue<K, V> queueOf(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            case PROTECTED:
+                return protectedQueue;
+            default:
+                throw new IllegalStateException("Unknown queue " + node.queue);
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return data.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getHitCount() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMissCount() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hits divided by gets, 0 before the first get.
+     */
+    public double getHitRatio() {
+        lock.lock();
+        try {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEvictedWeight() {
+        lock.lock();
+        try {
+            return evictedWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts refused because the entry alone weighs more than the cache may hold.
+     */
+    public long getRejectionCount() {
+        lock.lock();
+        try {
+            return rejections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum Queue {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long weight;
+        Queue queue = Queue.WINDOW;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked list in access order (least recent first) with its total weight.
+     */
+    private static final class AccessQueue<K, V> {
+        Node<K, V> first;
+        Node<K, V> last;
+        long weight;
+
+        void addLast(Node<K, V> node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.jcache.eviction;
+
+import com.example.jcache.writer.Book;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Byte budget and scan resistance
+ * {@code <heap unit="entries">100</heap>} holds 100 books whether their titles have 10 or 10,000
+ * characters. {@link BoundedCache} with {@link Weighers#books()} holds 256 KB of books instead.
+ * The example keeps 200 hot books in use, then runs a scan over 5,000 cold ids (a report, a
+ * crawler) and checks how many hot books are still cached:
+ * LRU → the scan flushes them all;
+ * W-TinyLFU → the scanned ids were seen once, the hot books many times, so the hot books stay.
+ */
+public class BoundedCacheExample {
+    private static final Logger LOGGER = Logger.getLogger(BoundedCacheExample.class.getName());
+    private static final long MAXIMUM_WEIGHT = 256 * 1024;
+    private static final int HOT_BOOKS = 200;
+    private static final int SCANNED_BOOKS = 5_000;
+
+    public static void main(String[] args) {
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            BoundedCache<Integer, Book> books = new BoundedCache<>(MAXIMUM_WEIGHT, Weighers.books(), policy, 1_000);
+            for (int round = 0; round < 10; round++) {
+                for (int id = 0; id < HOT_BOOKS; id++) {
+                    if (books.get(id) == null) {
+                        books.put(id, book(id));
+                    }
+                }
+            }
+            for (int id = HOT_BOOKS; id < HOT_BOOKS + SCANNED_BOOKS; id++) {
+                books.put(id, book(id));
+            }
+
+            int hotLeft = 0;
+            for (int id = 0; id < HOT_BOOKS; id++) {
+                if (books.containsKey(id)) {
+                    hotLeft++;
+                }
+            }
+            LOGGER.log(Level.INFO, "{0}: {1} books in {2} bytes, {3} of {4} hot books survived the scan",
+                    new Object[]{policy, books.size(), books.getWeightedSize(), hotLeft, HOT_BOOKS});
+        }
+    }
+
+    // every tenth book has a long title, the rest are short
+    private static Book book(int id) {
+        StringBuilder title = new StringBuilder("Title " + id);
+        for (int i = 0; id % 10 == 0 && i < 50; i++) {
+            title.append(" and more");
+        }
+        return new Book(id, title.toString(), "Author " + (id % 100));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.jcache.eviction;
+
+/**
+ * Which entries {@link BoundedCache} gives up when it is over its maximum weight.
+ */
+public enum EvictionPolicy {
+    /**
+     * Least recently used goes first; every new entry is admitted. A scan over many cold keys
+     * flushes the whole cache.
+     */
+    LRU,
+    /**
+     * Window TinyLFU: new entries go through a small LRU window and only displace an entry of the
+     * main space if the frequency sketch has seen them more often than that entry.
+     */
+    W_TINY_LFU
+}
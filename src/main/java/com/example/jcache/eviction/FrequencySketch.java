@@ -0,0 +1,94 @@
+package com.example.jcache.eviction;
+
+/**
+ * Approximate access counts for the admission filter of {@link BoundedCache}: a count-min sketch
+ * with 4-bit counters, sixteen to a long.
+ * Each key increments four counters (one per hash function) and its estimate is the smallest of
+ * them. Once the number of increments reaches ten times the table width all counters are halved,
+ * so popularity ages out and a key that was hot an hour ago does not block newcomers forever.
+ * Not thread-safe; the cache calls it under its lock.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        ensureCapacity(expectedEntries);
+    }
+
+    /**
+     * Grows the table when the cache holds more entries than expected; the counts are lost then.
+     */
+    void ensureCapacity(int expectedEntries) {
+        int width = 8;
+        while (width < expectedEntries && width < (1 << 30)) {
+            width <<= 1;
+        }
+        if (table != null && width <= table.length) {
+            return;
+        }
+        table = new long[width];
+        tableMask = width - 1;
+        sampleSize = 10 * width;
+        additions = 0;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = rehash(hash, i);
+            int shift = (int) (h & 15) << 2;
+            frequency = Math.min(frequency, (int) (table[index(h)] >>> shift) & MAX_COUNT);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = rehash(hash, i);
+            int index = index(h);
+            int shift = (int) (h & 15) << 2;
+            if (((table[index] >>> shift) & MAX_COUNT) != MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    // halve every counter: shift all nibbles right and clear the bit that crossed into the neighbour
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int index(long h) {
+        return (int) (h >>> 32) & tableMask;
+    }
+
+    private static long rehash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 29);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.jcache.eviction;
+
+/**
+ * How much of a {@link BoundedCache}'s capacity an entry uses, usually its approximate size in bytes.
+ * Called once when the entry is stored; the result must not be negative and must not change while
+ * the entry is cached.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    long weigh(K key, V value);
+}
@@ -0,0 +1,58 @@
+package com.example.jcache.eviction;
+
+import com.example.jcache.writer.Book;
+
+/**
+ * 🔹 Ready-made weighers
+ * Shallow heap estimates for a 64-bit JVM with compressed references: 12-byte object headers,
+ * 4-byte references, everything rounded up to 8 bytes. Strings are counted at two bytes per char
+ * (compact strings may use one), so the estimates err on the large side.
+ * The key is weighed too; the cache's own per-entry bookkeeping is not.
+ */
+public final class Weighers {
+    private static final long OBJECT_HEADER = 12;
+    private static final long ARRAY_HEADER = 16;
+    private static final long REFERENCE = 4;
+    private static final long BOXED_NUMBER = 16;
+    // String object: header, value reference, hash, coder and hashIsZero fields
+    private static final long STRING_SHELL = 24;
+
+    private Weighers() {
+    }
+
+    /**
+     * Every entry weighs 1, so the maximum weight is an entry count (like {@code <heap unit="entries">}).
+     */
+    public static <K, V> Weigher<K, V> entries() {
+        return (key, value) -> 1;
+    }
+
+    public static <K> Weigher<K, String> strings() {
+        return (key, value) -> sizeOf(key) + sizeOf(value);
+    }
+
+    /**
+     * Book: header, int id and two string references, plus title and author.
+     */
+    public static <K> Weigher<K, Book> books() {
+        return (key, book) -> sizeOf(key) + align(OBJECT_HEADER + 4 + 2 * REFERENCE)
+                + sizeOf(book.getTitle()) + sizeOf(book.getAuthor());
+    }
+
+    static long sizeOf(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return STRING_SHELL + align(ARRAY_HEADER + 2L * ((String) object).length());
+        }
+        if (object instanceof Number) {
+            return BOXED_NUMBER;
+        }
+        return align(OBJECT_HEADER + REFERENCE);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,388 @@
+package com.example.jcache.expiry;
+
+import com.google.common.base.Preconditions;
+import org.ehcache.ValueSupplier;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expiry;
+
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 Adaptive time-to-live
+ * A fixed TTL is too short for keys that rarely change or are slow to load, and too long for keys
+ * that change all the time. This expiry gives every write its own TTL from what it has seen of the key:
+ * change interval → each write of the key is compared with the previous one (by hashCode), so
+ * reloads after expiry tell whether the value changed in between; the change rate is estimated from
+ * how many of those checks found a change (Cho and Garcia-Molina's estimator, which copes with
+ * checks that are further apart than the changes);
+ * load cost → the time its loads took, measured by the loader returned from {@link #timed(CacheLoader)}.
+ * A key that changes and loads like the cache's writes do on average gets baseTtl.
+ * Other keys get baseTtl × √((load cost / average cost) × (change interval / average interval)), within
+ * [minTtl, maxTtl]. The square root is the TTL that minimizes load cost plus stale time when changes
+ * arrive at random: four times as expensive or four times as stable → twice the TTL.
+ * Keys with fewer than {@value #MIN_CHECKS} checks are not judged by change interval yet.
+ * Ehcache asks for the TTL inside every write, so nothing here is global: histories live in striped
+ * maps read without a lock, a write locks only its own key's history, and the cache-wide averages
+ * are striped adders.
+ * <pre>
+ * AdaptiveExpiry&lt;String, String&gt; expiry = new AdaptiveExpiry&lt;&gt;(60, 5, 3_600, TimeUnit.SECONDS);
+ * CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(1_000))
+ *         .withExpiry(expiry)
+ *         .withLoaderWriter(new ReadThroughLoaderWriter&lt;&gt;(expiry.timed(new WeatherServiceCacheLoader())));
+ * </pre>
+ * ⚠️ JCache's ExpiryPolicy is not told the key, so this is an Ehcache {@link Expiry}: configure the
+ * cache through Eh107Configuration.fromEhcacheCacheConfiguration.
+ * ⚠️ Values whose hashCode is identity-based look changed on every write.
+ */
+public class AdaptiveExpiry<K, V> implements Expiry<K, V> {
+    static final int MIN_CHECKS = 3;
+    // counts are halved past this many checks, so old behaviour fades out
+    private static final int KEY_WINDOW = 32;
+    private static final int GLOBAL_WINDOW = 10_000;
+    private static final int GLOBAL_LOAD_WINDOW = 100;
+    private static final double KEY_COST_WEIGHT = 0.3;
+    private static final int MIN_STRIPE_KEYS = 16;
+
+    private final long baseTtlMillis;
+    private final long minTtlMillis;
+    private final long maxTtlMillis;
+    private final HistoryStripe<K>[] stripes;
+    private final int stripeMask;
+    private final GlobalCounts global = new GlobalCounts();
+
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder unchangedWrites = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public AdaptiveExpiry(long baseTtl, long minTtl, long maxTtl, TimeUnit unit) {
+        this(baseTtl, minTtl, maxTtl, unit, 10_000);
+    }
+
+    /**
+     * @param maxTrackedKeys keys whose history is kept; beyond that, keys not written lately are dropped
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AdaptiveExpiry(long baseTtl, long minTtl, long maxTtl, TimeUnit unit, int maxTrackedKeys) {
+        Preconditions.checkArgument(minTtl > 0 && minTtl <= baseTtl && baseTtl <= maxTtl,
+                "expected 0 < minTtl <= baseTtl <= maxTtl");
+        Preconditions.checkArgument(maxTrackedKeys > 0, "maxTrackedKeys must be positive");
+        this.baseTtlMillis = unit.toMillis(baseTtl);
+        this.minTtlMillis = unit.toMillis(minTtl);
+        this.maxTtlMillis = unit.toMillis(maxTtl);
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2),
+                Math.max(1, Integer.highestOneBit(maxTrackedKeys / MIN_STRIPE_KEYS)));
+        this.stripes = new HistoryStripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new HistoryStripe<>(Math.max(1, maxTrackedKeys / stripeCount));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    @Override
+    public Duration getExpiryForCreation(K key, V value) {
+        return new Duration(written(key, value), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads keep the TTL the last write was given.
+     */
+    @Override
+    public Duration getExpiryForAccess(K key, ValueSupplier<? extends V> value) {
+        return null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate(K key, ValueSupplier<? extends V> oldValue, V newValue) {
+        return new Duration(written(key, newValue), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The loader with each load timed for this expiry; the cache then creates the entry, whose TTL
+     * includes the load just measured. The time of a loadAll is shared by its keys.
+     */
+    public CacheLoader<K, V> timed(CacheLoader<K, V> loader) {
+        Preconditions.checkNotNull(loader, "loader");
+        return new CacheLoader<K, V>() {
+            @Override
+            public V load(K key) throws CacheLoaderException {
+                long start = System.nanoTime();
+                V value = loader.load(key);
+                recordLoad(key, System.nanoTime() - start);
+                return value;
+            }
+
+            @Override
+            public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+                long start = System.nanoTime();
+                Map<K, V> values = loader.loadAll(keys);
+                if (!values.isEmpty()) {
+                    long each = (System.nanoTime() - start) / values.size();
+                    for (K key : values.keySet()) {
+                        recordLoad(key, each);
+                    }
+                }
+                return values;
+            }
+        };
+    }
+
+    /**
+     * For caches filled by the application (get, load, put): how long producing the value of key took.
+     */
+    public void recordLoad(K key, long nanos) {
+        loads.increment();
+        KeyHistory<K> history = history(key);
+        synchronized (history) {
+            history.loadNanos = ewma(history.loadNanos, nanos, KEY_COST_WEIGHT);
+        }
+        global.load(nanos);
+    }
+
+    /**
+     * The TTL the next write of key gets, in milliseconds.
+     */
+    public long ttlMillis(K key) {
+        KeyHistory<K> history = stripes[stripeIndex(key)].get(key);
+        if (history == null) {
+            return ttlMillis((KeyHistory<K>) null);
+        }
+        synchronized (history) {
+            return ttlMillis(history);
+        }
+    }
+
+    /**
+     * Writes whose value differed from the key's previous one.
+     */
+    public long getChangeCount() {
+        return changes.sum();
+    }
+
+    /**
+     * Writes of the value the key already had, e.g. a reload that found nothing new: each one is a
+     * load a longer TTL would have saved.
+     */
+    public long getUnchangedWriteCount() {
+        return unchangedWrites.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    private long written(K key, V value) {
+        long now = System.currentTimeMillis();
+        KeyHistory<K> history = history(key);
+        int fingerprint = value.hashCode();
+        // Ehcache already serializes the writes of one key, so this lock is uncontended
+        synchronized (history) {
+            history.referenced = true;
+            if (history.lastWriteMillis != 0) {
+                boolean changed = fingerprint != history.fingerprint;
+                long interval = Math.max(1, now - history.lastWriteMillis);
+                history.counts.check(changed, interval, KEY_WINDOW);
+                global.check(changed, interval);
+                (changed ? changes : unchangedWrites).increment();
+            }
+            history.fingerprint = fingerprint;
+            history.lastWriteMillis = now;
+            return ttlMillis(history);
+        }
+    }
+
+    // called with the history's lock held
+    private long ttlMillis(KeyHistory<K> history) {
+        double factor = 1;
+        if (history != null) {
+            double meanLoadNanos = global.meanLoadNanos();
+            if (!Double.isNaN(history.loadNanos) && meanLoadNanos > 0) {
+                factor *= history.loadNanos / meanLoadNanos;
+            }
+            if (history.counts.checks >= MIN_CHECKS) {
+                factor *= history.counts.meanChangeIntervalMillis() / global.meanChangeIntervalMillis();
+            }
+        }
+        double ttl = baseTtlMillis * Math.sqrt(factor);
+        return (long) Math.max(minTtlMillis, Math.min(maxTtlMillis, ttl));
+    }
+
+    private KeyHistory<K> history(K key) {
+        HistoryStripe<K> stripe = stripes[stripeIndex(key)];
+        KeyHistory<K> history = stripe.get(key);
+        return history != null ? history : stripe.add(key);
+    }
+
+    private int stripeIndex(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    private static double ewma(double mean, double sample, double weight) {
+        return Double.isNaN(mean) ? sample : mean + weight * (sample - mean);
+    }
+
+    /**
+     * Histories of the keys of one stripe. Lookups take no lock; adding a key locks the stripe and,
+     * when it is full, a CLOCK hand drops the first key not written since the hand last passed it.
+     */
+    private static final class HistoryStripe<K> {
+        private final int maxKeys;
+        private final ConcurrentHashMap<K, KeyHistory<K>> histories = new ConcurrentHashMap<>();
+        private final ArrayDeque<KeyHistory<K>> clock = new ArrayDeque<>();
+
+        private HistoryStripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        KeyHistory<K> get(K key) {
+            return histories.get(key);
+        }
+
+        synchronized KeyHistory<K> add(K key) {
+            KeyHistory<K> history = histories.get(key);
+            if (history != null) {
+                return history;
+            }
+            while (histories.size() >= maxKeys) {
+                evictOne();
+            }
+            history = new KeyHistory<>(key);
+            histories.put(key, history);
+            clock.addLast(history);
+            return history;
+        }
+
+        private void evictOne() {
+            KeyHistory<K> queued;
+            while ((queued = clock.pollFirst()) != null) {
+                if (queued.referenced) {
+                    queued.referenced = false;
+                    clock.addLast(queued);
+                } else {
+                    histories.remove(queued.key, queued);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class KeyHistory<K> {
+        private final K key;
+        private final ChangeCounts counts = new ChangeCounts();
+        // set by writes, cleared by the clock hand
+        private volatile boolean referenced;
+        private int fingerprint;
+        private long lastWriteMillis;
+        private double loadNanos = Double.NaN;
+
+        private KeyHistory(K key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Change checks and load times of all keys, in striped adders. Once a window is full the sums are
+     * halved so old behaviour fades out; writes racing the halving may land on either side of it,
+     * which does not matter for an average.
+     */
+    private static final class GlobalCounts {
+        private final DoubleAdder checks = new DoubleAdder();
+        private final DoubleAdder changed = new DoubleAdder();
+        private final DoubleAdder elapsedMillis = new DoubleAdder();
+        private final DoubleAdder loads = new DoubleAdder();
+        private final DoubleAdder loadNanos = new DoubleAdder();
+        private final AtomicBoolean halving = new AtomicBoolean();
+
+        void check(boolean change, long intervalMillis) {
+            checks.add(1);
+            elapsedMillis.add(intervalMillis);
+            if (change) {
+                changed.add(1);
+            }
+            if (checks.sum() >= GLOBAL_WINDOW) {
+                halve(checks, changed, elapsedMillis);
+            }
+        }
+
+        void load(long nanos) {
+            loads.add(1);
+            loadNanos.add(nanos);
+            if (loads.sum() >= GLOBAL_LOAD_WINDOW) {
+                halve(loads, loadNanos);
+            }
+        }
+
+        double meanChangeIntervalMillis() {
+            return ChangeCounts.meanChangeIntervalMillis(checks.sum(), changed.sum(), elapsedMillis.sum());
+        }
+
+        double meanLoadNanos() {
+            double count = loads.sum();
+            return count == 0 ? Double.NaN : loadNanos.sum() / count;
+        }
+
+        private void halve(DoubleAdder... sums) {
+            if (halving.compareAndSet(false, true)) {
+                try {
+                    for (DoubleAdder sum : sums) {
+                        sum.add(-sum.sum() / 2);
+                    }
+                } finally {
+                    halving.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks of a key (or all keys), how many found a change, and the time they covered.
+     */
+    private static final class ChangeCounts {
+        private double checks;
+        private double changed;
+        private double elapsedMillis;
+
+        void check(boolean change, long intervalMillis, int window) {
+            if (checks >= window) {
+                checks /= 2;
+                changed /= 2;
+                elapsedMillis /= 2;
+            }
+            checks++;
+            elapsedMillis += intervalMillis;
+            if (change) {
+                changed++;
+            }
+        }
+
+        /**
+         * Estimated mean time between changes.
+         * Counting changed checks alone would say "at most one change per check" and overestimate the
+         * interval of keys changing faster than they are checked; the log corrects for that.
+         * Without any change seen, the time watched so far is the estimate, so a key earns a long
+         * TTL by staying unchanged for long, not by being new.
+         */
+        double meanChangeIntervalMillis() {
+            return meanChangeIntervalMillis(checks, changed, elapsedMillis);
+        }
+
+        static double meanChangeIntervalMillis(double checks, double changed, double elapsedMillis) {
+            if (checks == 0) {
+                return Double.NaN;
+            }
+            if (changed == 0) {
+                return elapsedMillis;
+            }
+            double rate = -Math.log((checks - changed + 0.5) / (checks + 0.5)) / (elapsedMillis / checks);
+            return 1 / rate;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.jcache.expiry;
+
+import com.example.jcache.support.ReadThroughLoaderWriter;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.jsr107.Eh107Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.spi.CachingProvider;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 One TTL per key instead of one per cache
+ * One cache holds two kinds of keys: weather (changes about every 20s, 100ms to load, a scaled-down
+ * WeatherServiceCacheLoader) and quotes (change about every 200ms, 1ms to load). The same traffic
+ * runs twice, with a fixed one-second TTL and with {@link AdaptiveExpiry} (base 1s, 50ms..10s),
+ * counting the loads, the time spent loading and the reads that returned an outdated value.
+ * The adaptive run keeps weather for up to 10s, halving its slow loads, and reloads quotes about
+ * every 400ms: less time spent loading, and fewer stale reads overall.
+ */
+public class AdaptiveExpiryExample {
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveExpiryExample.class.getName());
+    private static final long RUN_MILLIS = 8_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        try (CachingProvider provider = Caching.getCachingProvider();
+             CacheManager cacheManager = provider.getCacheManager()) {
+            Backend fixedBackend = new Backend();
+            run(cacheManager, "fixed 1s", Expirations.timeToLiveExpiration(new Duration(1, TimeUnit.SECONDS)),
+                    fixedBackend, fixedBackend);
+
+            Backend adaptiveBackend = new Backend();
+            AdaptiveExpiry<String, String> adaptive = new AdaptiveExpiry<>(1_000, 50, 10_000, TimeUnit.MILLISECONDS);
+            run(cacheManager, "adaptive", adaptive, adaptiveBackend, adaptive.timed(adaptiveBackend));
+            LOGGER.log(Level.INFO, "Adaptive TTLs: weather:London {0} ms, quote:Q0 {1} ms; {2} reloads found no change",
+                    new Object[]{adaptive.ttlMillis("weather:London"), adaptive.ttlMillis("quote:Q0"),
+                            adaptive.getUnchangedWriteCount()});
+        }
+    }
+
+    private static void run(CacheManager cacheManager, String name, Expiry<? super String, ? super String> expiry,
+                            Backend backend, CacheLoader<String, String> loader) throws InterruptedException {
+        CacheConfiguration<String, String> configuration = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(String.class, String.class, ResourcePoolsBuilder.heap(1_000))
+                .withExpiry(expiry)
+                .withLoaderWriter(new ReadThroughLoaderWriter<>(loader))
+                .build();
+        ScheduledExecutorService updates = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backend-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (Cache<String, String> cache = cacheManager.createCache(name,
+                Eh107Configuration.fromEhcacheCacheConfiguration(configuration))) {
+            updates.scheduleAtFixedRate(backend::update, 100, 100, TimeUnit.MILLISECONDS);
+            long reads = 0;
+            long staleReads = 0;
+            long end = System.currentTimeMillis() + RUN_MILLIS;
+            while (System.currentTimeMillis() < end) {
+                for (String key : backend.keys()) {
+                    reads++;
+                    if (!backend.isCurrent(key, cache.get(key))) {
+                        staleReads++;
+                    }
+                }
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            LOGGER.log(Level.INFO, "{0}: {1} weather loads + {2} quote loads, {3} ms loading, {4} of {5} reads stale",
+                    new Object[]{name, backend.weatherLoads.sum(), backend.quoteLoads.sum(),
+                            TimeUnit.NANOSECONDS.toMillis(backend.loadNanos.sum()), staleReads, reads});
+        } finally {
+            updates.shutdownNow();
+        }
+    }
+
+    /**
+     * The system of record: every key has a version, bumped when the value changes.
+     */
+    static class Backend implements CacheLoader<String, String> {
+        private final Map<String, AtomicInteger> versions = new ConcurrentHashMap<>();
+        private final List<String> keys = new ArrayList<>();
+        private final Random random = new Random(42);
+        private final LongAdder weatherLoads = new LongAdder();
+        private final LongAdder quoteLoads = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+
+        Backend() {
+            for (String city : new String[]{"London", "Berlin", "Madrid", "Rome", "Vienna"}) {
+                keys.add("weather:" + city);
+            }
+            for (int i = 0; i < 20; i++) {
+                keys.add("quote:Q" + i);
+            }
+            for (String key : keys) {
+                versions.put(key, new AtomicInteger());
+            }
+        }
+
+        List<String> keys() {
+            return keys;
+        }
+
+        // every 100ms: a quote changes with probability 1/2, the weather of a city with 1/200
+        void update() {
+            for (String key : keys) {
+                if (random.nextDouble() < (isWeather(key) ? 0.005 : 0.5)) {
+                    versions.get(key).incrementAndGet();
+                }
+            }
+        }
+
+        boolean isCurrent(String key, String value) {
+            return value.equals(key + "#" + versions.get(key).get());
+        }
+
+        @Override
+        public String load(String key) throws CacheLoaderException {
+            long start = System.nanoTime();
+            try {
+                if (isWeather(key)) {
+                    weatherLoads.increment();
+                    TimeUnit.MILLISECONDS.sleep(100);
+                } else {
+                    quoteLoads.increment();
+                    TimeUnit.MILLISECONDS.sleep(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CacheLoaderException(e);
+            }
+            loadNanos.add(System.nanoTime() - start);
+            return key + "#" + versions.get(key).get();
+        }
+
+        @Override
+        public Map<String, String> loadAll(Iterable<? extends String> keys) throws CacheLoaderException {
+            Map<String, String> values = new HashMap<>();
+            for (String key : keys) {
+                values.put(key, load(key));
+            }
+            return values;
+        }
+
+        private static boolean isWeather(String key) {
+            return key.startsWith("weather:");
+        }
+    }
+}
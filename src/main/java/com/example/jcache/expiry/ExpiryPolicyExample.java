@@ -1,46 +1,64 @@
 package com.example.jcache.expiry;
 
+import com.example.jcache.listener.MyListener;
+import com.example.jcache.stream.CacheStreams;
+
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
 import javax.cache.spi.CachingProvider;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Entries expire one minute after creation. The cache is wrapped in {@link ProactiveExpiryCache}, so
+ * MyListener.onExpired runs about a minute after the put although nothing reads key1 again, and the
+ * entry is gone from memory by then.
+ */
 public class ExpiryPolicyExample {
     private static final Logger LOGGER = Logger.getLogger(ExpiryPolicyExample.class.getName());
 
     public static void main(String[] args) {
+        ScheduledExecutorService expiryScheduler = Executors.newSingleThreadScheduledExecutor();
         try (CachingProvider provider = Caching.getCachingProvider()) {
             try (CacheManager cacheManager = provider.getCacheManager()) {
                 MutableConfiguration<String, String> cacheConfiguration = new MutableConfiguration<String, String>()
                         .setTypes(String.class, String.class)
                         .setExpiryPolicyFactory(FactoryBuilder.factoryOf(
-                                new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
+                                new CreatedExpiryPolicy(Duration.ONE_MINUTE)))
+                        .addCacheEntryListenerConfiguration(new MutableCacheEntryListenerConfiguration<>(
+                                FactoryBuilder.factoryOf(MyListener.class), null, true, true));
 
-                try (Cache<String, String> expiringCache = cacheManager.createCache("expiringCache", cacheConfiguration)) {
+                try (ProactiveExpiryCache<String, String> expiringCache = new ProactiveExpiryCache<>(
+                        cacheManager.createCache("expiringCache", cacheConfiguration),
+                        new Duration(TimeUnit.SECONDS, 1), expiryScheduler)) {
                     expiringCache.put("key1", "value1");
 
                     for (Cache.Entry<String, String> entry : expiringCache) {
                         LOGGER.log(Level.INFO, "key: {0}%n, value: {1}%n", new Object[]{entry.getKey(), entry.getValue()});
                     }
 
-                    Thread.sleep(61_000);
-                    String value = expiringCache.get("key1");
-                    LOGGER.info(value);
+                    // MyListener logs "Entry expired: key=key1" during this sleep
+                    Thread.sleep(62_000);
+                    LOGGER.log(Level.INFO, "{0} entries removed by the reaper, {1} still pending",
+                            new Object[]{expiringCache.getReapedCount(), expiringCache.getPendingCount()});
 
-                    for (Cache.Entry<String, String> entry : expiringCache) {
-                        LOGGER.log(Level.INFO, "key: {0}%n, value: {1}%n", new Object[]{entry.getKey(), entry.getValue()});
-                    }
+                    LOGGER.log(Level.INFO, "{0} live keys left", CacheStreams.keys(expiringCache).count());
                 }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.severe(e.getMessage());
+        } finally {
+            expiryScheduler.shutdown();
         }
 
     }
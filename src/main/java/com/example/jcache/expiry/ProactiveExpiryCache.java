@@ -0,0 +1,228 @@
+package com.example.jcache.expiry;
+
+import com.example.jcache.support.ForwardingCache;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Proactive expiry
+ * JCache providers check expiry when an entry is touched: an expired entry nobody reads again stays
+ * in memory, and its CacheEntryExpiredListener (e.g. MyListener.onExpired cleaning up the database)
+ * is not called until something stumbles over it.
+ * This decorator tracks the deadline of every entry written through the cache in a
+ * {@link TimerWheel}, computed from the cache's own ExpiryPolicy. Every tick a reaper takes the batch
+ * of keys whose deadline passed and touches each one with containsKey: the provider finds it
+ * expired, drops it and fires EXPIRED to its listeners, within one tick of the deadline.
+ * containsKey neither loads nor counts as an access, so the sweep does not renew anything.
+ * ⚠️ Only entries written after the decorator was created are tracked. Access expiry is renewed by
+ * get/getAll of this decorator; an entry found still alive at its deadline (accessed some other way)
+ * is checked again one access duration later.
+ * ⚠️ Each removal is one provider operation, so Ehcache delivers one event per expired entry; the
+ * batching bounds the reaper's work per tick, not the listener's calls.
+ */
+public class ProactiveExpiryCache<K, V> extends ForwardingCache<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(ProactiveExpiryCache.class.getName());
+
+    private final ExpiryPolicy expiryPolicy;
+    private final Duration accessDuration;
+    private final TimerWheel<K> wheel;
+    private final CacheEntryListenerConfiguration<K, V> trackerConfiguration;
+    private final ScheduledFuture<?> reaper;
+
+    private final LongAdder reaped = new LongAdder();
+    private final LongAdder sweeps = new LongAdder();
+
+    /**
+     * @param cache     cache with a finite expiry policy
+     * @param tick      resolution of the reaper: entries are removed at most one tick after they expire
+     * @param scheduler executor running the reaper every tick
+     */
+    @SuppressWarnings("unchecked")
+    public ProactiveExpiryCache(Cache<K, V> cache, Duration tick, ScheduledExecutorService scheduler) {
+        super(cache);
+        Preconditions.checkArgument(tick != null && !tick.isEternal() && !tick.isZero(), "tick must be finite and positive");
+        Preconditions.checkNotNull(scheduler, "scheduler");
+        CompleteConfiguration<K, V> configuration = cache.getConfiguration(CompleteConfiguration.class);
+        this.expiryPolicy = configuration.getExpiryPolicyFactory().create();
+        this.accessDuration = expiryPolicy.getExpiryForAccess();
+        long tickMillis = tick.getTimeUnit().toMillis(tick.getDurationAmount());
+        this.wheel = new TimerWheel<>(tickMillis, System.currentTimeMillis());
+
+        DeadlineTracker<K, V> tracker = new DeadlineTracker<>(this);
+        Factory<DeadlineTracker<K, V>> trackerFactory = () -> tracker;
+        // synchronous, so the deadline is set before the write returns and never races a removal
+        this.trackerConfiguration = new MutableCacheEntryListenerConfiguration<>(trackerFactory, null, false, true);
+        cache.registerCacheEntryListener(trackerConfiguration);
+        this.reaper = scheduler.scheduleAtFixedRate(this::reap, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public V get(K key) {
+        V value = super.get(key);
+        if (value != null && accessDuration != null) {
+            schedule(key, accessDuration);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> values = super.getAll(keys);
+        if (accessDuration != null) {
+            for (K key : values.keySet()) {
+                schedule(key, accessDuration);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void clear() {
+        // clear() fires no events, so the tracker would keep the deadlines
+        super.clear();
+        synchronized (wheel) {
+            wheel.clear();
+        }
+    }
+
+    /**
+     * Number of expired entries the reaper removed.
+     */
+    public long getReapedCount() {
+        return reaped.sum();
+    }
+
+    /**
+     * Number of ticks in which the reaper found at least one deadline due.
+     */
+    public long getSweepCount() {
+        return sweeps.sum();
+    }
+
+    /**
+     * Number of entries waiting for their deadline.
+     */
+    public int getPendingCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        reaper.cancel(false);
+        if (!isClosed()) {
+            deregisterCacheEntryListener(trackerConfiguration);
+        }
+        synchronized (wheel) {
+            wheel.clear();
+        }
+        super.close();
+    }
+
+    // runs on the scheduler every tick
+    private void reap() {
+        try {
+            List<K> due;
+            synchronized (wheel) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            sweeps.increment();
+            for (K key : due) {
+                if (!delegate().containsKey(key)) {
+                    // gone: expired just now (the provider fired EXPIRED) or removed before
+                    reaped.increment();
+                } else if (accessDuration != null) {
+                    schedule(key, accessDuration);
+                }
+            }
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic task for good
+            LOGGER.log(Level.WARNING, "Expiry reaper of cache " + getName() + " failed", e);
+        }
+    }
+
+    // null keeps the current deadline, an eternal duration drops it
+    private void schedule(K key, Duration duration) {
+        if (duration == null) {
+            return;
+        }
+        synchronized (wheel) {
+            if (duration.isEternal()) {
+                wheel.cancel(key);
+            } else {
+                wheel.schedule(key, duration.getAdjustedTime(System.currentTimeMillis()));
+            }
+        }
+    }
+
+    private void cancel(K key) {
+        synchronized (wheel) {
+            wheel.cancel(key);
+        }
+    }
+
+    /**
+     * Sets a key's deadline when it is written and drops it once the key leaves the cache.
+     */
+    static class DeadlineTracker<K, V> implements CacheEntryCreatedListener<K, V>, CacheEntryUpdatedListener<K, V>,
+            CacheEntryRemovedListener<K, V>, CacheEntryExpiredListener<K, V> {
+        private final ProactiveExpiryCache<K, V> cache;
+
+        DeadlineTracker(ProactiveExpiryCache<K, V> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void onCreated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.schedule(event.getKey(), cache.expiryPolicy.getExpiryForCreation());
+            }
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.schedule(event.getKey(), cache.expiryPolicy.getExpiryForUpdate());
+            }
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.cancel(event.getKey());
+            }
+        }
+
+        @Override
+        public void onExpired(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.cancel(event.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.jcache.expiry;
+
+import com.example.jcache.support.ForwardingCache;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.expiry.ModifiedExpiryPolicy;
+import javax.cache.integration.CacheLoader;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Refresh-ahead (stale-while-revalidate)
+ * With a plain CreatedExpiryPolicy the first get after the TTL pays the full loader latency.
+ * This decorator remembers when each entry was written; a get that finds an entry older than
+ * refreshAheadFactor × TTL still returns the current value immediately, but also reloads the key
+ * through the CacheLoader on a background executor and puts the fresh value back.
+ * So while a key keeps being read, it is renewed before it expires and readers never block on
+ * the loader.
+ * A refresh only renews the entry it was scheduled for: if the key was written again while the load
+ * was in flight the reload is discarded, and it is stored with replace(), so a removed or expired
+ * key does not come back. (replace(key, oldValue, newValue) would close the remaining gap between
+ * that check and the write, but Ehcache 3.0 does not renew a read-through entry's TTL when the
+ * reloaded value equals the old one, which is the usual case.)
+ * ⚠️ replace() is an update. CreatedExpiryPolicy does not
+ * renew the TTL on update, so the cache must use an update-renewing policy such as
+ * ModifiedExpiryPolicy, see {@link #expiryPolicyFactory(Duration)}.
+ * Keys that are not read inside the refresh window simply expire as before. Pick the factor so
+ * that the window (TTL × (1 - refreshAheadFactor)) comfortably exceeds the loader latency: the
+ * provider may start the TTL clock before a read-through load, the tracker only sees it finish.
+ */
+public class RefreshAheadCache<K, V> extends ForwardingCache<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(RefreshAheadCache.class.getName());
+
+    private final CacheLoader<K, V> loader;
+    private final Executor executor;
+    private final long refreshAfterNanos;
+    private final Map<K, Long> writeTimes = new ConcurrentHashMap<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    private final CacheEntryListenerConfiguration<K, V> trackerConfiguration;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final LongAdder discardedRefreshes = new LongAdder();
+
+    /**
+     * @param cache              cache configured with an update-renewing expiry policy of the given ttl
+     * @param loader             loader used for background refreshes, normally the cache's read-through loader
+     * @param ttl                time to live of the cache entries
+     * @param refreshAheadFactor fraction of the ttl after which a read triggers a refresh, e.g. 0.8
+     * @param executor           executor running the refreshes
+     */
+    public RefreshAheadCache(Cache<K, V> cache, CacheLoader<K, V> loader, Duration ttl,
+                             double refreshAheadFactor, Executor executor) {
+        super(cache);
+        Preconditions.checkArgument(ttl != null && !ttl.isEternal() && !ttl.isZero(), "ttl must be finite and positive");
+        Preconditions.checkArgument(refreshAheadFactor > 0 && refreshAheadFactor < 1,
+                "refreshAheadFactor must be between 0 and 1");
+        checkRenewsOnUpdate(cache);
+        this.loader = Preconditions.checkNotNull(loader, "loader");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.refreshAfterNanos = (long) (ttl.getTimeUnit().toNanos(ttl.getDurationAmount()) * refreshAheadFactor);
+
+        WriteTimeTracker<K, V> tracker = new WriteTimeTracker<>(writeTimes);
+        Factory<WriteTimeTracker<K, V>> trackerFactory = () -> tracker;
+        this.trackerConfiguration = new MutableCacheEntryListenerConfiguration<>(trackerFactory, null, false, true);
+        cache.registerCacheEntryListener(trackerConfiguration);
+    }
+
+    /**
+     * Expiry policy for caches used in refresh-ahead mode: entries live for ttl after they were
+     * created or last updated, so every background refresh renews them.
+     */
+    public static Factory<ModifiedExpiryPolicy> expiryPolicyFactory(Duration ttl) {
+        return FactoryBuilder.factoryOf(new ModifiedExpiryPolicy(ttl));
+    }
+
+    @Override
+    public V get(K key) {
+        V value = super.get(key);
+        if (value == null) {
+            writeTimes.remove(key);
+        } else {
+            refreshIfDue(key);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> values = super.getAll(keys);
+        for (K key : values.keySet()) {
+            refreshIfDue(key);
+        }
+        return values;
+    }
+
+    private void refreshIfDue(K key) {
+        Long writtenAt = writeTimes.get(key);
+        if (writtenAt == null || System.nanoTime() - writtenAt < refreshAfterNanos) {
+            return;
+        }
+        if (!refreshing.add(key)) {
+            // A refresh for this key is already queued or running
+            return;
+        }
+        try {
+            executor.execute(() -> refresh(key, writtenAt));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            LOGGER.log(Level.FINE, "Refresh of {0} rejected, entry will expire normally", key);
+        }
+    }
+
+    private void refresh(K key, Long writtenAt) {
+        try {
+            V value = loader.load(key);
+            if (value == null) {
+                return;
+            }
+            // the tracker records every write, so a changed stamp means a newer value than the reload
+            if (writtenAt.equals(writeTimes.get(key)) && delegate().replace(key, value)) {
+                refreshes.increment();
+            } else {
+                // removed, rewritten or expired while loading: the reload is older than what the cache holds
+                discardedRefreshes.increment();
+            }
+        } catch (RuntimeException e) {
+            // The current value stays until it expires; the next read after that loads synchronously
+            failedRefreshes.increment();
+            LOGGER.log(Level.WARNING, "Background refresh of " + key + " failed", e);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * Number of entries renewed in the background.
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Number of background refreshes whose load failed.
+     */
+    public long getFailedRefreshCount() {
+        return failedRefreshes.sum();
+    }
+
+    /**
+     * Number of background refreshes dropped because the entry changed while they were loading.
+     */
+    public long getDiscardedRefreshCount() {
+        return discardedRefreshes.sum();
+    }
+
+    @Override
+    public void close() {
+        if (!isClosed()) {
+            deregisterCacheEntryListener(trackerConfiguration);
+        }
+        writeTimes.clear();
+        super.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void checkRenewsOnUpdate(Cache<?, ?> cache) {
+        CompleteConfiguration<?, ?> configuration = cache.getConfiguration(CompleteConfiguration.class);
+        ExpiryPolicy policy = configuration.getExpiryPolicyFactory().create();
+        Preconditions.checkArgument(policy.getExpiryForUpdate() != null,
+                "refresh-ahead needs an expiry policy that renews entries on update, e.g. ModifiedExpiryPolicy");
+    }
+
+    /**
+     * Records the time of every write and forgets keys once they leave the cache.
+     */
+    static class WriteTimeTracker<K, V> implements CacheEntryCreatedListener<K, V>, CacheEntryUpdatedListener<K, V>,
+            CacheEntryRemovedListener<K, V>, CacheEntryExpiredListener<K, V> {
+        private final Map<K, Long> writeTimes;
+
+        WriteTimeTracker(Map<K, Long> writeTimes) {
+            this.writeTimes = writeTimes;
+        }
+
+        @Override
+        public void onCreated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            record(events);
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            record(events);
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            forget(events);
+        }
+
+        @Override
+        public void onExpired(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            forget(events);
+        }
+
+        private void record(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            long now = System.nanoTime();
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                writeTimes.put(event.getKey(), now);
+            }
+        }
+
+        private void forget(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                writeTimes.remove(event.getKey());
+            }
+        }
+    }
+}
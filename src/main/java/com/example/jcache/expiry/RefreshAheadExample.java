@@ -0,0 +1,63 @@
+package com.example.jcache.expiry;
+
+import com.example.jcache.external.ExternalServiceCacheExample.WeatherServiceCacheLoader;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The weather cache from ExternalServiceCacheExample in refresh-ahead mode with a 10s TTL.
+ * Only the very first get waits for the 2s WeatherServiceCacheLoader; once an entry is older than
+ * half its TTL the next read triggers a background reload, so the entry is renewed before it
+ * expires and every later get is served straight from the cache.
+ */
+public class RefreshAheadExample {
+    private static final Logger LOGGER = Logger.getLogger(RefreshAheadExample.class.getName());
+    private static final String PARIS = "Paris";
+    private static final Duration TTL = new Duration(TimeUnit.SECONDS, 10);
+
+    public static void main(String[] args) {
+        ExecutorService refreshExecutor = Executors.newFixedThreadPool(2);
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                WeatherServiceCacheLoader loader = new WeatherServiceCacheLoader();
+                MutableConfiguration<String, String> cacheConfiguration = new MutableConfiguration<String, String>()
+                        .setTypes(String.class, String.class)
+                        .setReadThrough(true)
+                        .setCacheLoaderFactory(FactoryBuilder.factoryOf(WeatherServiceCacheLoader.class))
+                        // renew on update, so background refreshes extend the TTL
+                        .setExpiryPolicyFactory(RefreshAheadCache.expiryPolicyFactory(TTL));
+
+                try (Cache<String, String> weatherCache = new RefreshAheadCache<>(
+                        cacheManager.createCache("weatherCache", cacheConfiguration), loader, TTL, 0.5, refreshExecutor)) {
+
+                    // Read once a second for three TTLs: no read after the first should take ~2s
+                    for (int second = 0; second < 30; second++) {
+                        long start = System.nanoTime();
+                        String weather = weatherCache.get(PARIS);
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        LOGGER.log(Level.INFO, "t={0}s get took {1}ms: {2}", new Object[]{second, millis, weather});
+                        TimeUnit.SECONDS.sleep(1);
+                    }
+                    LOGGER.log(Level.INFO, "Background refreshes: {0}",
+                            weatherCache.unwrap(RefreshAheadCache.class).getRefreshCount());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.severe(e.getMessage());
+        } finally {
+            refreshExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.jcache.expiry;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🔹 Hierarchical timer wheel
+ * Keeps one deadline per key in four levels of 64 buckets, like the hands of a clock: level 0 has
+ * one bucket per tick, level 1 one per 64 ticks, level 2 one per 4,096 ticks and level 3 one per
+ * 262,144 ticks (with 1s ticks: a minute, an hour, three days and six months).
+ * A timer goes into the coarsest bucket it fits in; when the wheel reaches that bucket, its timers
+ * move down to a finer level, and level 0 buckets simply hold the timers due in that tick.
+ * Scheduling, rescheduling and cancelling a key are O(1) (a bucket is a doubly linked list and the
+ * key → node map finds the node), and a timer moves at most three times before it fires, so unlike a
+ * priority queue the cost per timer does not grow with the number of pending timers.
+ * ⚠️ Not thread-safe: callers synchronize, see {@link ProactiveExpiryCache}.
+ * Deadlines are rounded up to whole ticks, so a timer fires up to one tick late but never early.
+ */
+public class TimerWheel<K> {
+    private static final int BITS = 6;
+    private static final int BUCKETS = 1 << BITS;
+    private static final int MASK = BUCKETS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Node<K>[][] wheels;
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long tickMillis, long nowMillis) {
+        Preconditions.checkArgument(tickMillis > 0, "tickMillis must be positive");
+        this.tickMillis = tickMillis;
+        this.wheels = new Node[LEVELS][BUCKETS];
+        for (Node<K>[] wheel : wheels) {
+            for (int i = 0; i < BUCKETS; i++) {
+                wheel[i] = Node.sentinel();
+            }
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Sets the deadline of key, replacing the one it had. A deadline that already passed fires on
+     * the next tick.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        Preconditions.checkNotNull(key, "key");
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.tick = tick;
+        place(node);
+    }
+
+    /**
+     * Forgets the deadline of key, if it has one.
+     */
+    public boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    /**
+     * Forgets every deadline.
+     */
+    public void clear() {
+        for (Node<K> node : nodes.values()) {
+            node.unlink();
+        }
+        nodes.clear();
+    }
+
+    /**
+     * Deadline of key in ticks × tickMillis, or -1 if it has none.
+     */
+    public long deadline(K key) {
+        Node<K> node = nodes.get(key);
+        return node == null ? -1 : node.tick * tickMillis;
+    }
+
+    /**
+     * Number of scheduled keys.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Moves the wheel to now and returns the keys whose deadline passed, oldest first.
+     * Their timers are gone: a key that should fire again must be scheduled again.
+     */
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        if (nodes.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+            return due;
+        }
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            // coarse levels first, so timers due in this tick land in the level 0 bucket drained below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) ((tick >>> (BITS * level)) & MASK)]);
+                }
+            }
+            Node<K> bucket = wheels[0][(int) (tick & MASK)];
+            for (Node<K> node = bucket.next; node != bucket; node = bucket.next) {
+                node.unlink();
+                nodes.remove(node.key);
+                due.add(node.key);
+            }
+            if (nodes.isEmpty()) {
+                currentTick = targetTick;
+            }
+        }
+        return due;
+    }
+
+    private void cascade(Node<K> bucket) {
+        for (Node<K> node = bucket.next; node != bucket; node = bucket.next) {
+            node.unlink();
+            place(node);
+        }
+    }
+
+    // the coarsest level whose bucket for the deadline comes up before the deadline, within one turn
+    private void place(Node<K> node) {
+        long tick = Math.max(node.tick, currentTick);
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * level;
+            if ((tick >>> shift) - (currentTick >>> shift) < BUCKETS) {
+                wheels[level][(int) ((tick >>> shift) & MASK)].append(node);
+                return;
+            }
+        }
+        // further out than the top level reaches: park it in the last bucket of this turn, it is
+        // placed again when the wheel gets there
+        int shift = BITS * (LEVELS - 1);
+        wheels[LEVELS - 1][(int) (((currentTick >>> shift) + BUCKETS - 1) & MASK)].append(node);
+    }
+
+    private static final class Node<K> {
+        final K key;
+        long tick;
+        Node<K> prev = this;
+        Node<K> next = this;
+
+        Node(K key) {
+            this.key = key;
+        }
+
+        static <K> Node<K> sentinel() {
+            return new Node<>(null);
+        }
+
+        void append(Node<K> node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
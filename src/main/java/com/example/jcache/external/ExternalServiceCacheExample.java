@@ -1,5 +1,8 @@
 package com.example.jcache.external;
 
+import com.example.jcache.loader.BatchingCacheLoader;
+import com.example.jcache.loader.SingleFlightCacheLoader;
+
 import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
@@ -10,8 +13,17 @@ import javax.cache.expiry.Duration;
 import javax.cache.integration.CacheLoader;
 import javax.cache.integration.CacheLoaderException;
 import javax.cache.spi.CachingProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -19,17 +31,24 @@ import java.util.logging.Logger;
 public class ExternalServiceCacheExample {
     private static final Logger LOGGER = Logger.getLogger(ExternalServiceCacheExample.class.getName());
     private static final String PARIS = "Paris";
+    private static final String TOKYO = "Tokyo";
     public static final String RESULT_0 = "Result: {0}";
+    private static final int HOT_KEY_READERS = 10;
+    private static final List<String> CITIES = Arrays.asList("London", "Berlin", "Madrid", "Rome", "Vienna");
 
     public static void main(String[] args) throws Exception {
         CachingProvider provider = Caching.getCachingProvider();
         CacheManager cacheManager = provider.getCacheManager();
 
+        // ✅ Misses arriving within 10ms are sent to the weather service as one bulk request
+        BatchingCacheLoader<String, String> batchingLoader =
+                new BatchingCacheLoader<>(new WeatherServiceCacheLoader(), 10, TimeUnit.MILLISECONDS, 50, 4);
+
         // Configure cache with read-through and expiry
         MutableConfiguration<String, String> config = new MutableConfiguration<String, String>()
                 .setTypes(String.class, String.class)
                 .setReadThrough(true) // ✅ load from external service on miss
-                .setCacheLoaderFactory(FactoryBuilder.factoryOf(WeatherServiceCacheLoader.class))
+                .setCacheLoaderFactory(() -> batchingLoader)
                 .setStatisticsEnabled(true)
                 .setExpiryPolicyFactory(FactoryBuilder.factoryOf(new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
 
@@ -45,13 +64,65 @@ public class ExternalServiceCacheExample {
             String paris2 = weatherCache.get(PARIS);
             LOGGER.log(Level.INFO, RESULT_0, paris2);
 
+            // Bulk call - Ehcache's getAll read-through calls load once per missing key, one after the other,
+            // so the misses are fetched with a single backend request first and stored with putAll
+            LOGGER.info("Fetching weather for several cities...");
+            Set<String> missing = new LinkedHashSet<>();
+            for (String city : CITIES) {
+                if (!weatherCache.containsKey(city)) {
+                    missing.add(city);
+                }
+            }
+            weatherCache.putAll(batchingLoader.loadAll(missing));
+            Map<String, String> cities = weatherCache.getAll(new LinkedHashSet<>(CITIES));
+            LOGGER.log(Level.INFO, RESULT_0, cities);
+            LOGGER.log(Level.INFO, "Backend calls so far: {0}", batchingLoader.getBackendCalls());
+
+            // Cache-aside (get, then load and put on a miss) runs the load outside the cache's per-key
+            // lock, so a burst of readers would each call the backend; ✅ the single-flight loader lets
+            // them share one load
+            SingleFlightCacheLoader<String, String> forecastLoader =
+                    new SingleFlightCacheLoader<>(new WeatherServiceCacheLoader());
+            try (Cache<String, String> forecastCache = cacheManager.createCache("forecastCache",
+                    new MutableConfiguration<String, String>().setTypes(String.class, String.class))) {
+                List<String> forecasts = readConcurrently(() -> {
+                    String forecast = forecastCache.get(TOKYO);
+                    if (forecast == null) {
+                        forecast = forecastLoader.load(TOKYO);
+                        forecastCache.put(TOKYO, forecast);
+                    }
+                    return forecast;
+                });
+                LOGGER.log(Level.INFO, RESULT_0, forecasts);
+                LOGGER.log(Level.INFO, "Cache-aside loads: {0}, deduplicated loads: {1}",
+                        new Object[]{forecastLoader.getLoadCount(), forecastLoader.getDeduplicatedLoadCount()});
+            }
+
             // Sleep so you can see expiry effect (simulate cache timeout)
             LOGGER.info("Sleeping for 65s...");
             TimeUnit.SECONDS.sleep(65);
 
-            // Third call - expired, so external service called again
-            String paris3 = weatherCache.get(PARIS);
-            LOGGER.log(Level.INFO, RESULT_0, paris3);
+            // Third call - expired, so external service called again; read-through of one key runs inside
+            // Ehcache's per-key lock, so a burst of readers already shares one load
+            LOGGER.log(Level.INFO, RESULT_0, readConcurrently(() -> weatherCache.get(PARIS)));
+            LOGGER.log(Level.INFO, "Backend calls so far: {0}", batchingLoader.getBackendCalls());
+        }
+    }
+
+    private static List<String> readConcurrently(Callable<String> read) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(HOT_KEY_READERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < HOT_KEY_READERS; i++) {
+                results.add(readers.submit(read));
+            }
+            List<String> values = new ArrayList<>();
+            for (Future<String> result : results) {
+                values.add(result.get());
+            }
+            return values;
+        } finally {
+            readers.shutdown();
         }
     }
 
@@ -69,11 +140,18 @@ public class ExternalServiceCacheExample {
             return "Weather in " + city + " is SUNNY";
         }
 
+        // One bulk request for all cities, so a batch costs a single round-trip instead of one per key
         @Override
         public Map<String, String> loadAll(Iterable<? extends String> keys) {
             Map<String, String> results = new HashMap<>();
-            for (String key : keys) {
-                results.put(key, load(key));
+            for (String city : keys) {
+                results.put(city, "Weather in " + city + " is SUNNY");
+            }
+            LOGGER.log(Level.INFO, "[ExternalService] Fetching weather for {0} cities in one request ...", results.size());
+            try {
+                Thread.sleep(2000); // simulate network latency
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
             return results;
         }
@@ -0,0 +1,261 @@
+package com.example.jcache.listener;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.configuration.Factory;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.event.EventType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Asynchronous, batched listener dispatch
+ * Registered with the cache as a synchronous listener, so it runs on the writing thread, but all it
+ * does there is append the event to a lock-free ring buffer. Dedicated dispatcher threads drain the
+ * rings and hand the events to the real listener in batches (one onCreated call with many events
+ * instead of one call per put).
+ * Events are spread over lanes by key hash; each lane has its own ring and thread, so events of
+ * one key are delivered in the order the cache produced them.
+ * When a ring is full the {@link OverflowPolicy} decides whether the writer waits or the event is
+ * dropped.
+ * Closing the listener (the cache does this on Cache.close()) delivers what is still buffered.
+ */
+public class AsyncCacheEntryListener<K, V> implements CacheEntryCreatedListener<K, V>,
+        CacheEntryUpdatedListener<K, V>, CacheEntryRemovedListener<K, V>, CacheEntryExpiredListener<K, V>,
+        Closeable {
+    private static final Logger LOGGER = Logger.getLogger(AsyncCacheEntryListener.class.getName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int IDLE_SPINS = 100;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final CacheEntryListener<? super K, ? super V> delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final List<Lane> lanes;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public AsyncCacheEntryListener(CacheEntryListener<? super K, ? super V> delegate, int laneCount,
+                                   int ringCapacity, int batchSize, OverflowPolicy overflowPolicy) {
+        Preconditions.checkNotNull(delegate, "delegate listener");
+        Preconditions.checkArgument(laneCount > 0, "laneCount must be positive");
+        Preconditions.checkArgument(ringCapacity > 0, "ringCapacity must be positive");
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+        this.delegate = delegate;
+        this.overflowPolicy = Preconditions.checkNotNull(overflowPolicy, "overflowPolicy");
+        this.batchSize = batchSize;
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new Lane(ringCapacity, "cache-event-dispatcher-" + i));
+        }
+    }
+
+    /**
+     * Factory for MutableCacheEntryListenerConfiguration; register it with synchronous=true so the
+     * events reach the rings in the order the cache produced them.
+     */
+    public static <K, V> Factory<AsyncCacheEntryListener<K, V>> factory(
+            Factory<? extends CacheEntryListener<? super K, ? super V>> delegateFactory, int laneCount,
+            int ringCapacity, int batchSize, OverflowPolicy overflowPolicy) {
+        return () -> new AsyncCacheEntryListener<>(delegateFactory.create(), laneCount, ringCapacity, batchSize,
+                overflowPolicy);
+    }
+
+    @Override
+    public void onCreated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        publish(events);
+    }
+
+    @Override
+    public void onUpdated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        publish(events);
+    }
+
+    @Override
+    public void onRemoved(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        publish(events);
+    }
+
+    @Override
+    public void onExpired(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        publish(events);
+    }
+
+    private void publish(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+        for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+            Lane lane = lanes.get(laneIndex(event.getKey()));
+            if (lane.ring.offer(event)) {
+                published.increment();
+                lane.wakeUp();
+            } else if (overflowPolicy == OverflowPolicy.DROP) {
+                dropped.increment();
+            } else {
+                lane.offerBlocking(event);
+                published.increment();
+            }
+        }
+    }
+
+    private int laneIndex(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % lanes.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(EventType type, List<CacheEntryEvent<? extends K, ? extends V>> events) {
+        try {
+            switch (type) {
+                case CREATED:
+                    if (delegate instanceof CacheEntryCreatedListener) {
+                        ((CacheEntryCreatedListener<K, V>) delegate).onCreated(events);
+                    }
+                    break;
+                case UPDATED:
+                    if (delegate instanceof CacheEntryUpdatedListener) {
+                        ((CacheEntryUpdatedListener<K, V>) delegate).onUpdated(events);
+                    }
+                    break;
+                case REMOVED:
+                    if (delegate instanceof CacheEntryRemovedListener) {
+                        ((CacheEntryRemovedListener<K, V>) delegate).onRemoved(events);
+                    }
+                    break;
+                case EXPIRED:
+                    if (delegate instanceof CacheEntryExpiredListener) {
+                        ((CacheEntryExpiredListener<K, V>) delegate).onExpired(events);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            delivered.add(events.size());
+        } catch (RuntimeException e) {
+            // A failing listener must not kill the dispatcher thread
+            LOGGER.log(Level.WARNING, "Listener failed on a batch of " + events.size() + " " + type + " events", e);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Events discarded because their ring was full under {@link OverflowPolicy#DROP}.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Lane lane : lanes) {
+            lane.running = false;
+            LockSupport.unpark(lane.thread);
+        }
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    /**
+     * One ring buffer plus the thread that drains it.
+     */
+    private final class Lane implements Runnable {
+        private final EventRing<CacheEntryEvent<? extends K, ? extends V>> ring;
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean sleeping;
+
+        private Lane(int ringCapacity, String name) {
+            this.ring = new EventRing<>(ringCapacity);
+            this.thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void wakeUp() {
+            if (sleeping) {
+                sleeping = false;
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void offerBlocking(CacheEntryEvent<? extends K, ? extends V> event) {
+            while (!ring.offer(event)) {
+                wakeUp();
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+            wakeUp();
+        }
+
+        @Override
+        public void run() {
+            List<CacheEntryEvent<? extends K, ? extends V>> batch = new ArrayList<>(batchSize);
+            int idleSpins = 0;
+            while (running || !ring.isEmpty()) {
+                if (ring.drainTo(batch, batchSize) == 0) {
+                    if (++idleSpins < IDLE_SPINS) {
+                        // stay awake for a moment: unparking on every publish would cost the writers a syscall
+                        Thread.yield();
+                        continue;
+                    }
+                    idleSpins = 0;
+                    sleeping = true;
+                    // re-check after announcing, a producer may have published in between
+                    if (ring.isEmpty() && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                    continue;
+                }
+                idleSpins = 0;
+                batches.increment();
+                dispatch(batch);
+                batch.clear();
+            }
+        }
+
+        // Consecutive events of the same type go to the listener in one call, keeping the overall order
+        private void dispatch(List<CacheEntryEvent<? extends K, ? extends V>> batch) {
+            int start = 0;
+            for (int i = 1; i <= batch.size(); i++) {
+                if (i == batch.size() || batch.get(i).getEventType() != batch.get(start).getEventType()) {
+                    deliver(batch.get(start).getEventType(), new ArrayList<>(batch.subList(start, i)));
+                    start = i;
+                }
+            }
+        }
+    }
+}
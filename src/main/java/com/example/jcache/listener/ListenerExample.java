@@ -19,9 +19,12 @@ public class ListenerExample {
         try (CachingProvider provider = Caching.getCachingProvider()) {
             try (CacheManager cacheManager = provider.getCacheManager()) {
 
+                // MyListener runs on dispatcher threads; the put only appends the event to a ring buffer
                 CacheEntryListenerConfiguration<String, String> listenerConfig =
                         new MutableCacheEntryListenerConfiguration<>(
-                                FactoryBuilder.factoryOf(MyListener.class), null, false, true);
+                                AsyncCacheEntryListener.<String, String>factory(FactoryBuilder.factoryOf(MyListener.class),
+                                        2, 1024, 64, OverflowPolicy.BLOCK),
+                                null, false, true);
 
                 MutableConfiguration<String, String> cacheConfiguration = new MutableConfiguration<String, String>()
                         .setTypes(String.class, String.class)
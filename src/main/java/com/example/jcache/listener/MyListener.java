@@ -10,29 +10,29 @@ public class MyListener implements CacheEntryUpdatedListener<String, String>,
         CacheEntryExpiredListener<String, String> {
     private static final Logger LOGGER = Logger.getLogger(MyListener.class.getName());
 
+    // Events can arrive in batches (see AsyncCacheEntryListener), so every event of the batch is handled
     @Override
-    @SuppressWarnings("unchecked")
     public void onUpdated(Iterable<CacheEntryEvent<? extends String, ? extends String>> iterable) throws CacheEntryListenerException {
-        CacheEntryEvent<String, String> event = (CacheEntryEvent<String, String>) iterable.iterator().next();
-        LOGGER.info(event.getSource().getName() + " cache was updated.");
-        LOGGER.log(Level.INFO, "key: \"{0}\" was updated from \"{1}\" to \"{2}\"", new Object[]{event.getKey(), event.getOldValue(), event.getValue()});
+        for (CacheEntryEvent<? extends String, ? extends String> event : iterable) {
+            LOGGER.info(event.getSource().getName() + " cache was updated.");
+            LOGGER.log(Level.INFO, "key: \"{0}\" was updated from \"{1}\" to \"{2}\"", new Object[]{event.getKey(), event.getOldValue(), event.getValue()});
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void onCreated(Iterable<CacheEntryEvent<? extends String, ? extends String>> iterable) throws CacheEntryListenerException {
-        CacheEntryEvent<String, String> event = (CacheEntryEvent<String, String>) iterable.iterator().next();
-        LOGGER.info("New entry created in " + event.getSource().getName() + " cache");
-        LOGGER.info("key: \"" + event.getKey() + "\", value: \"" + event.getValue() + "\"");
+        for (CacheEntryEvent<? extends String, ? extends String> event : iterable) {
+            LOGGER.info("New entry created in " + event.getSource().getName() + " cache");
+            LOGGER.info("key: \"" + event.getKey() + "\", value: \"" + event.getValue() + "\"");
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void onRemoved(Iterable<CacheEntryEvent<? extends String, ? extends String>> iterable) throws CacheEntryListenerException {
-        CacheEntryEvent<String, String> event = (CacheEntryEvent<String, String>) iterable.iterator().next();
-
-        LOGGER.log(Level.INFO, "Entry removed from {0} cache", event.getSource().getName());
-        LOGGER.log(Level.INFO, "key: \"{0}\", value: \"{1}\"", new Object[]{event.getKey(), event.getValue()});
+        for (CacheEntryEvent<? extends String, ? extends String> event : iterable) {
+            LOGGER.log(Level.INFO, "Entry removed from {0} cache", event.getSource().getName());
+            LOGGER.log(Level.INFO, "key: \"{0}\", value: \"{1}\"", new Object[]{event.getKey(), event.getValue()});
+        }
     }
 
     /**
@@ -0,0 +1,16 @@
+package com.example.jcache.listener;
+
+/**
+ * What {@link AsyncCacheEntryListener} does with a new event when its lane's ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * The writing thread waits until the dispatcher frees a slot. No events are lost, but a slow
+     * listener throttles writers once the buffer is full.
+     */
+    BLOCK,
+    /**
+     * The event is dropped and counted. Writers never wait; listeners may miss events.
+     */
+    DROP
+}
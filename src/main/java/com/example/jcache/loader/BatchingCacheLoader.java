@@ -0,0 +1,249 @@
+package com.example.jcache.loader;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Batching read-through loader
+ * Wraps a CacheLoader whose loadAll is a real bulk call (one backend round-trip for many keys)
+ * and turns single-key misses into bulk calls:
+ * Misses arriving within the batch window are collected and sent as one delegate.loadAll.
+ * A batch is dispatched early once it reaches maxBatchSize; larger loadAll calls are split into
+ * batches of that size which run in parallel on the backend executor.
+ * Keys that are already waiting or in flight are coalesced: every caller waiting on the same key
+ * gets the result of the same backend call.
+ * Closing the loader (the cache does this on Cache.close()) dispatches whatever is still pending.
+ * ⚠️ Ehcache 3.0 never calls loadAll for read-through: getAll loads each missing key with its own
+ * load call, serially. Behind Ehcache this loader therefore only coalesces concurrent single-key
+ * gets; to fetch many keys in one request, call loadAll directly for the misses and putAll the result.
+ */
+public class BatchingCacheLoader<K, V> implements CacheLoader<K, V>, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(BatchingCacheLoader.class.getName());
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+    private final CacheLoader<K, V> delegate;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService backend;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> collecting = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requestedKeys = new LongAdder();
+    private final LongAdder coalescedKeys = new LongAdder();
+    private final LongAdder backendCalls = new LongAdder();
+
+    public BatchingCacheLoader(CacheLoader<K, V> delegate, long batchWindow, TimeUnit unit,
+                               int maxBatchSize, int parallelism) {
+        Preconditions.checkNotNull(delegate, "delegate loader");
+        Preconditions.checkArgument(batchWindow >= 0, "batchWindow must not be negative");
+        Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+        this.delegate = delegate;
+        this.batchWindowNanos = unit.toNanos(batchWindow);
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "batch-loader-timer-"));
+        this.backend = Executors.newFixedThreadPool(parallelism, r -> daemon(r, "batch-loader-"));
+    }
+
+    @Override
+    public V load(K key) throws CacheLoaderException {
+        return await(enqueue(key));
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (!futures.containsKey(key)) {
+                futures.put(key, enqueue(key));
+            }
+        }
+        // Don't leave the tail of a bulk request waiting for the window to close
+        flush();
+
+        Map<K, V> results = new HashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+            V value = await(entry.getValue());
+            if (value != null) {
+                results.put(entry.getKey(), value);
+            }
+        }
+        return results;
+    }
+
+    private CompletableFuture<V> enqueue(K key) {
+        requestedKeys.increment();
+        CompletableFuture<V> future = inFlight.get(key);
+        if (future != null) {
+            coalescedKeys.increment();
+            return future;
+        }
+
+        Map<K, CompletableFuture<V>> full = null;
+        synchronized (lock) {
+            future = collecting.get(key);
+            if (future == null) {
+                // Re-check under the lock: takeBatch may have just moved the key in flight
+                future = inFlight.get(key);
+            }
+            if (future != null) {
+                coalescedKeys.increment();
+                return future;
+            }
+            future = new CompletableFuture<>();
+            collecting.put(key, future);
+            if (collecting.size() >= maxBatchSize) {
+                full = takeBatch();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(this::flush, batchWindowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * Dispatches the batch currently being collected without waiting for the window to elapse.
+     */
+    public void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = takeBatch();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    // Must hold lock
+    private Map<K, CompletableFuture<V>> takeBatch() {
+        Map<K, CompletableFuture<V>> batch = collecting;
+        collecting = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        // Published before the lock is released so later callers coalesce onto the in-flight call
+        inFlight.putAll(batch);
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            backend.execute(() -> loadBatch(batch));
+        } catch (RuntimeException e) {
+            // Executor already shut down: fail the waiters instead of leaving them hanging
+            completeExceptionally(batch, e);
+        }
+    }
+
+    private void loadBatch(Map<K, CompletableFuture<V>> batch) {
+        backendCalls.increment();
+        LOGGER.log(Level.FINE, "Loading batch of {0} keys", batch.size());
+        try {
+            Map<K, V> loaded = delegate.loadAll(batch.keySet());
+            for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+                inFlight.remove(entry.getKey(), entry.getValue());
+                entry.getValue().complete(loaded == null ? null : loaded.get(entry.getKey()));
+            }
+        } catch (Throwable e) {
+            // Any failure, Errors included, must release the waiters: they block without a timeout
+            completeExceptionally(batch, e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    private void completeExceptionally(Map<K, CompletableFuture<V>> batch, Throwable e) {
+        for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+            inFlight.remove(entry.getKey(), entry.getValue());
+            entry.getValue().completeExceptionally(e);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException("Interrupted while waiting for batched load", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CacheLoaderException) {
+                throw (CacheLoaderException) cause;
+            }
+            throw new CacheLoaderException(cause);
+        }
+    }
+
+    /**
+     * Number of keys requested through load/loadAll, including coalesced ones.
+     */
+    public long getRequestedKeys() {
+        return requestedKeys.sum();
+    }
+
+    /**
+     * Number of requested keys that piggy-backed on a load already waiting or in flight.
+     */
+    public long getCoalescedKeys() {
+        return coalescedKeys.sum();
+    }
+
+    /**
+     * Number of delegate.loadAll calls, i.e. backend round-trips.
+     */
+    public long getBackendCalls() {
+        return backendCalls.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        timer.shutdown();
+        backend.shutdown();
+        try {
+            if (!backend.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warning("Pending batch loads did not finish within 30s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String prefix) {
+        Thread thread = new Thread(runnable, prefix + THREAD_SEQUENCE.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
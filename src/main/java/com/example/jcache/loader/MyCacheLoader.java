@@ -18,10 +18,12 @@ public class MyCacheLoader implements CacheLoader<String, String> {
 
     @Override
     public Map<String, String> loadAll(Iterable<? extends String> keys) throws CacheLoaderException {
+        // A bulk loader should fetch all keys in one backend request rather than calling load per key
         Map<String, String> map = new HashMap<>();
         for (String key : keys) {
-            map.put(key, load(key)); // Reuse the load method for individual keys
+            map.put(key, "Value for " + key);
         }
+        LOGGER.log(Level.INFO, "Loading {0} keys", map.size());
         return map;
     }
 }
@@ -0,0 +1,142 @@
+package com.example.jcache.loader;
+
+import javax.cache.integration.CacheLoaderException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 🔹 Single-flight (stampede protection)
+ * At most one load per key is in flight. The first caller for a key runs the load on its own
+ * thread, every caller arriving while it runs waits for and shares that result instead of
+ * hitting the backend again. Once the load finishes the key is released, so the next miss
+ * (e.g. after expiry) loads fresh data.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public V execute(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.apply(key);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Bulk variant: keys already in flight are waited on, the remaining keys are claimed and
+     * loaded with a single call to bulkLoader. Keys the bulk loader leaves out map to null and
+     * are omitted from the result.
+     */
+    public Map<K, V> executeAll(Iterable<? extends K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        Map<K, CompletableFuture<V>> claimed = new HashMap<>();
+        Map<K, CompletableFuture<V>> waiting = new HashMap<>();
+        Set<K> unique = new LinkedHashSet<>();
+        for (K key : keys) {
+            unique.add(key);
+        }
+        for (K key : unique) {
+            CompletableFuture<V> call = new CompletableFuture<>();
+            CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+            if (existing != null) {
+                deduplicated.increment();
+                waiting.put(key, existing);
+            } else {
+                claimed.put(key, call);
+            }
+        }
+
+        Map<K, V> results = new HashMap<>();
+        if (!claimed.isEmpty()) {
+            executions.increment();
+            try {
+                Map<K, V> loaded = bulkLoader.apply(claimed.keySet());
+                for (Map.Entry<K, CompletableFuture<V>> entry : claimed.entrySet()) {
+                    V value = loaded == null ? null : loaded.get(entry.getKey());
+                    entry.getValue().complete(value);
+                    if (value != null) {
+                        results.put(entry.getKey(), value);
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                for (CompletableFuture<V> call : claimed.values()) {
+                    call.completeExceptionally(e);
+                }
+                throw e;
+            } finally {
+                for (Map.Entry<K, CompletableFuture<V>> entry : claimed.entrySet()) {
+                    calls.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        for (Map.Entry<K, CompletableFuture<V>> entry : waiting.entrySet()) {
+            V value = await(entry.getValue());
+            if (value != null) {
+                results.put(entry.getKey(), value);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of loads actually executed against the backend (a bulk load counts once).
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Number of key requests that were served by waiting on a load already in flight.
+     */
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     */
+    public int getInFlight() {
+        return calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoaderException("Interrupted while waiting for an in-flight load", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CacheLoaderException(cause);
+        }
+    }
+}
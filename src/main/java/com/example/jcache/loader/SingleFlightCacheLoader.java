@@ -0,0 +1,64 @@
+package com.example.jcache.loader;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Read-through loader that runs every key through a {@link SingleFlight}, so concurrent misses on
+ * a hot key (e.g. "Paris" right after it expired) cost one backend call instead of one per caller.
+ * Overlapping load and loadAll calls (get racing getAll, Cache.loadAll) are deduplicated as well.
+ * Note: Ehcache's on-heap store already serializes read-through of a single key inside its
+ * compute, so there the wrapper mostly catches bulk overlaps; providers that load outside a
+ * per-key lock get the full protection.
+ */
+public class SingleFlightCacheLoader<K, V> implements CacheLoader<K, V>, Closeable {
+    private final CacheLoader<K, V> delegate;
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+    public SingleFlightCacheLoader(CacheLoader<K, V> delegate) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate loader");
+    }
+
+    @Override
+    public V load(K key) throws CacheLoaderException {
+        return singleFlight.execute(key, delegate::load);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+        return singleFlight.executeAll(keys, delegate::loadAll);
+    }
+
+    /**
+     * Number of backend loads executed through the delegate.
+     */
+    public long getLoadCount() {
+        return singleFlight.getExecutions();
+    }
+
+    /**
+     * Number of key requests that waited on a load already in flight instead of loading again.
+     */
+    public long getDeduplicatedLoadCount() {
+        return singleFlight.getDeduplicated();
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     */
+    public int getInFlightCount() {
+        return singleFlight.getInFlight();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.jcache.offheap;
+
+import com.example.jcache.writer.Book;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * 🔹 Compact Book serializer
+ * Ehcache has to turn every value into bytes before it can leave the Java heap (off-heap, disk).
+ * The default falls back to Java serialization, which needs Serializable and writes class
+ * descriptors with every entry. This one writes only the fields:
+ * id as a fixed 4-byte int, then title and author as a 4-byte length followed by UTF-8 bytes
+ * (length -1 means null).
+ * A Book of two 10-character ASCII strings takes 4 + (4 + 10) + (4 + 10) = 32 bytes.
+ */
+public class BookSerializer implements Serializer<Book> {
+    private static final int NULL_LENGTH = -1;
+
+    public BookSerializer() {
+    }
+
+    /**
+     * Ehcache calls this constructor when the serializer is configured by class.
+     */
+    public BookSerializer(ClassLoader classLoader) {
+        this();
+    }
+
+    @Override
+    public ByteBuffer serialize(Book book) throws SerializerException {
+        byte[] title = encode(book.getTitle());
+        byte[] author = encode(book.getAuthor());
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + encodedSize(title) + encodedSize(author));
+        buffer.putInt(book.getId());
+        putString(buffer, title);
+        putString(buffer, author);
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public Book read(ByteBuffer buffer) throws SerializerException {
+        try {
+            int id = buffer.getInt();
+            String title = getString(buffer);
+            String author = getString(buffer);
+            return new Book(id, title, author);
+        } catch (RuntimeException e) {
+            throw new SerializerException("Corrupt Book record", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Book book, ByteBuffer buffer) throws SerializerException {
+        Book stored = read(buffer);
+        return book.getId() == stored.getId()
+                && Objects.equals(book.getTitle(), stored.getTitle())
+                && Objects.equals(book.getAuthor(), stored.getAuthor());
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int encodedSize(byte[] bytes) {
+        return Integer.BYTES + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.jcache.offheap;
+
+import com.example.jcache.writer.Book;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Heap + off-heap tiers
+ * MutableConfiguration can only describe an on-heap cache; tiers are provider specific, so the
+ * cache is configured with Ehcache's own builder and handed to JCache through
+ * Eh107Configuration.fromEhcacheCacheConfiguration(...).
+ * heap(1000 entries) → the hot entries stay as objects, no (de)serialization on a hit.
+ * offheap(32 MB) → the rest of the catalogue lives in direct memory the GC never scans;
+ * a hit there deserializes a new Book through {@link BookSerializer}.
+ * ⚠️ The JVM needs enough direct memory for the off-heap pool (-XX:MaxDirectMemorySize).
+ * ⚠️ Off-heap entries are copies: changing a Book returned from the off-heap tier does not
+ * change the cached value, put it again instead.
+ */
+public class OffHeapTierExample {
+    private static final Logger LOGGER = Logger.getLogger(OffHeapTierExample.class.getName());
+    private static final int CATALOGUE_SIZE = 100_000;
+
+    public static void main(String[] args) {
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                CacheConfiguration<Integer, Book> tieredConfiguration = CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Integer.class, Book.class, ResourcePoolsBuilder.newResourcePoolsBuilder()
+                                .heap(1_000, EntryUnit.ENTRIES)
+                                .offheap(32, MemoryUnit.MB))
+                        .withValueSerializer(new BookSerializer())
+                        .build();
+
+                try (Cache<Integer, Book> catalogue = cacheManager.createCache("bookCatalogue",
+                        Eh107Configuration.fromEhcacheCacheConfiguration(tieredConfiguration))) {
+                    for (int id = 0; id < CATALOGUE_SIZE; id++) {
+                        catalogue.put(id, new Book(id, "Title " + id, "Author " + (id % 100)));
+                    }
+
+                    // the first read of a cold id comes from off-heap and promotes it to the heap tier
+                    Book cold = catalogue.get(42);
+                    Book hot = catalogue.get(42);
+                    LOGGER.log(Level.INFO, "First read: {0}, second read served from heap: {1}",
+                            new Object[]{cold, cold == hot});
+
+                    int found = 0;
+                    for (int id = 0; id < CATALOGUE_SIZE; id++) {
+                        if (catalogue.get(id) != null) {
+                            found++;
+                        }
+                    }
+                    LOGGER.log(Level.INFO, "{0} of {1} books still cached", new Object[]{found, CATALOGUE_SIZE});
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.jcache.primitive;
+
+import com.example.jcache.support.ListenerRegistration;
+import com.example.jcache.support.SimpleCacheEntryEvent;
+import com.example.jcache.support.SimpleEntry;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.event.EventType;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The javax.cache.Cache side of {@link IntKeyCache} and {@link LongKeyCache}: every boxed call is
+ * unboxed once and served by the same {@link LongKeyTable} as the primitive methods.
+ * Entries are stored by reference and never expire; read/write-through is not supported, so it is
+ * meant for hot id → value lookups, not as a general Ehcache replacement.
+ * Listeners are supported; with none registered a write costs no event and no boxing.
+ * ⚠️ Events are fired after the table is updated, outside its lock: two racing writes of one key
+ * may reach a listener in the opposite order.
+ */
+abstract class AbstractPrimitiveKeyCache<K extends Number, V> implements Cache<K, V> {
+    final LongKeyTable<V> table;
+    private final String name;
+    private final MutableConfiguration<K, V> configuration;
+    private final List<ListenerRegistration<K, V>> listeners = new CopyOnWriteArrayList<>();
+    private final Executor asyncEvents = task -> eventDispatcher().execute(task);
+    private ExecutorService eventDispatcher;
+    private volatile boolean closed;
+
+    AbstractPrimitiveKeyCache(String name, Class<K> keyType, Class<V> valueType, int expectedSize) {
+        this.name = Preconditions.checkNotNull(name, "name");
+        Preconditions.checkArgument(expectedSize >= 0, "expectedSize must not be negative");
+        this.configuration = new MutableConfiguration<K, V>()
+                .setTypes(keyType, Preconditions.checkNotNull(valueType, "valueType"))
+                .setStoreByValue(false);
+        this.table = new LongKeyTable<>(expectedSize);
+    }
+
+    abstract K box(long key);
+
+    private long unbox(K key) {
+        Preconditions.checkNotNull(key, "key");
+        return key.longValue();
+    }
+
+    final void checkOpen() {
+        Preconditions.checkState(!closed, "Cache %s is closed", name);
+    }
+
+    final V checkValue(V value) {
+        return Preconditions.checkNotNull(value, "value");
+    }
+
+    final V store(long key, V value) {
+        V old = table.put(key, checkValue(value));
+        fire(old == null ? EventType.CREATED : EventType.UPDATED, key, value, old);
+        return old;
+    }
+
+    final boolean storeIfAbsent(long key, V value) {
+        if (table.putIfAbsent(key, checkValue(value)) != null) {
+            return false;
+        }
+        fire(EventType.CREATED, key, value, null);
+        return true;
+    }
+
+    final V delete(long key) {
+        V old = table.remove(key);
+        if (old != null) {
+            fire(EventType.REMOVED, key, old, old);
+        }
+        return old;
+    }
+
+    @Override
+    public V get(K key) {
+        checkOpen();
+        return table.get(unbox(key));
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        checkOpen();
+        Map<K, V> result = new HashMap<>(keys.size() * 2);
+        for (K key : keys) {
+            V value = table.get(unbox(key));
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkOpen();
+        return table.get(unbox(key)) != null;
+    }
+
+    /**
+     * There is no CacheLoader, so there is nothing to load.
+     */
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        checkOpen();
+        if (completionListener != null) {
+            completionListener.onCompletion();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        checkOpen();
+        store(unbox(key), value);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        checkOpen();
+        return store(unbox(key), value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        checkOpen();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            store(unbox(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        checkOpen();
+        return storeIfAbsent(unbox(key), value);
+    }
+
+    @Override
+    public boolean remove(K key) {
+        checkOpen();
+        return delete(unbox(key)) != null;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        checkOpen();
+        long primitiveKey = unbox(key);
+        if (!table.remove(primitiveKey, checkValue(oldValue))) {
+            return false;
+        }
+        fire(EventType.REMOVED, primitiveKey, oldValue, oldValue);
+        return true;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        checkOpen();
+        return delete(unbox(key));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        checkOpen();
+        return replace(unbox(key), checkValue(oldValue), newValue) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        checkOpen();
+        return replace(unbox(key), null, value) != null;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        checkOpen();
+        return replace(unbox(key), null, value);
+    }
+
+    private V replace(long key, V expected, V value) {
+        V old = table.replace(key, expected, checkValue(value));
+        if (old != null) {
+            fire(EventType.UPDATED, key, value, old);
+        }
+        return old;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        checkOpen();
+        for (K key : keys) {
+            delete(unbox(key));
+        }
+    }
+
+    /**
+     * Same as clear() unless listeners are registered, in which case each entry is removed, and
+     * reported, one by one.
+     */
+    @Override
+    public void removeAll() {
+        checkOpen();
+        if (listeners.isEmpty()) {
+            table.clear();
+            return;
+        }
+        List<Long> keys = new ArrayList<>(table.size());
+        table.forEach((key, value) -> keys.add(key));
+        for (long key : keys) {
+            delete(key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        table.clear();
+    }
+
+    /**
+     * Number of entries; not part of javax.cache.Cache, which has no size().
+     */
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        if (clazz.isInstance(configuration)) {
+            return clazz.cast(new MutableConfiguration<>(configuration));
+        }
+        throw new IllegalArgumentException("Unsupported configuration class " + clazz.getName());
+    }
+
+    /**
+     * Runs the processor on a buffered copy of the entry without holding any lock, so it may call
+     * this cache, for any key, itself. Its change is applied only if process returns normally, and
+     * only if the entry still holds the value the processor saw; otherwise the processor runs again.
+     * ⚠️ Under contention on one key a processor may therefore run more than once: keep it free of
+     * side effects outside the entry.
+     */
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+        checkOpen();
+        Preconditions.checkNotNull(entryProcessor, "entryProcessor");
+        long primitiveKey = unbox(key);
+        while (true) {
+            ProcessorEntry entry = new ProcessorEntry(key, table.get(primitiveKey));
+            T result;
+            try {
+                result = entryProcessor.process(entry, arguments);
+            } catch (EntryProcessorException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new EntryProcessorException(e);
+            }
+            if (entry.apply(primitiveKey)) {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor,
+                                                         Object... arguments) {
+        Map<K, EntryProcessorResult<T>> results = new HashMap<>();
+        for (K key : keys) {
+            try {
+                T result = invoke(key, entryProcessor, arguments);
+                if (result != null) {
+                    results.put(key, () -> result);
+                }
+            } catch (EntryProcessorException e) {
+                results.put(key, () -> {
+                    throw e;
+                });
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Created directly, not through a CachingProvider, so there is no manager.
+     */
+    @Override
+    public CacheManager getCacheManager() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        table.clear();
+        for (ListenerRegistration<K, V> registration : listeners) {
+            registration.close();
+        }
+        listeners.clear();
+        synchronized (this) {
+            if (eventDispatcher != null) {
+                eventDispatcher.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + name + " to " + clazz.getName());
+    }
+
+    /**
+     * Asynchronous listeners run on one daemon thread per cache, started with the first event.
+     * No EXPIRED events are fired, since entries never expire.
+     */
+    @Override
+    public synchronized void registerCacheEntryListener(
+            CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        checkOpen();
+        Preconditions.checkNotNull(cacheEntryListenerConfiguration, "cacheEntryListenerConfiguration");
+        configuration.addCacheEntryListenerConfiguration(cacheEntryListenerConfiguration);
+        listeners.add(new ListenerRegistration<>(cacheEntryListenerConfiguration));
+    }
+
+    @Override
+    public synchronized void deregisterCacheEntryListener(
+            CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        checkOpen();
+        Preconditions.checkNotNull(cacheEntryListenerConfiguration, "cacheEntryListenerConfiguration");
+        configuration.removeCacheEntryListenerConfiguration(cacheEntryListenerConfiguration);
+        for (ListenerRegistration<K, V> registration : listeners) {
+            if (registration.getConfiguration().equals(cacheEntryListenerConfiguration)) {
+                listeners.remove(registration);
+                registration.close();
+            }
+        }
+    }
+
+    private void fire(EventType type, long key, V value, V oldValue) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        SimpleCacheEntryEvent<K, V> event = new SimpleCacheEntryEvent<>(this, type, box(key), value, oldValue);
+        for (ListenerRegistration<K, V> registration : listeners) {
+            registration.deliver(event, asyncEvents);
+        }
+    }
+
+    private synchronized ExecutorService eventDispatcher() {
+        if (eventDispatcher == null) {
+            eventDispatcher = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name + "-events");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return eventDispatcher;
+    }
+
+    /**
+     * Iterates over a snapshot taken segment by segment; remove() removes from the cache.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        checkOpen();
+        List<Entry<K, V>> snapshot = new ArrayList<>(table.size());
+        table.forEach((key, value) -> snapshot.add(new SimpleEntry<>(box(key), value)));
+        Iterator<Entry<K, V>> entries = snapshot.iterator();
+        return new Iterator<Entry<K, V>>() {
+            private Entry<K, V> last;
+
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!entries.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = entries.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                Preconditions.checkState(last != null, "next() has not been called");
+                AbstractPrimitiveKeyCache.this.remove(last.getKey());
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Entry handed to an EntryProcessor: changes are buffered until apply.
+     */
+    private final class ProcessorEntry implements MutableEntry<K, V> {
+        private final K key;
+        private final V original;
+        private V value;
+        private Operation operation = Operation.NONE;
+
+        private ProcessorEntry(K key, V original) {
+            this.key = key;
+            this.original = original;
+            this.value = original;
+        }
+
+        @Override
+        public boolean exists() {
+            return value != null;
+        }
+
+        @Override
+        public void remove() {
+            value = null;
+            operation = Operation.REMOVE;
+        }
+
+        @Override
+        public void setValue(V value) {
+            this.value = checkValue(value);
+            operation = Operation.UPDATE;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Cannot unwrap entry to " + clazz.getName());
+        }
+
+        /**
+         * Applies the buffered change if the entry still holds the original value; false if it
+         * changed meanwhile and the processor has to run again.
+         */
+        private boolean apply(long primitiveKey) {
+            if (operation == Operation.NONE || (operation == Operation.REMOVE && original == null)) {
+                return true;
+            }
+            StampedLock lock = table.lockFor(primitiveKey);
+            long stamp = lock.writeLock();
+            try {
+                if (table.getLocked(primitiveKey) != original) {
+                    return false;
+                }
+                if (operation == Operation.UPDATE) {
+                    table.putLocked(primitiveKey, value);
+                } else {
+                    table.removeLocked(primitiveKey);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            if (operation == Operation.REMOVE) {
+                fire(EventType.REMOVED, primitiveKey, original, original);
+            } else {
+                fire(original == null ? EventType.CREATED : EventType.UPDATED, primitiveKey, value, original);
+            }
+            return true;
+        }
+    }
+
+    private enum Operation {
+        NONE, UPDATE, REMOVE
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.jcache.primitive;
+
+/**
+ * 🔹 Cache keyed by primitive int ids
+ * A JCache Cache&lt;Integer, V&gt; plus overloads taking a plain int, so the hot path never boxes
+ * the key and never hashes an Integer object.
+ * The keys live in open-addressing long[] arrays (see LongKeyTable); reads are lock-free unless
+ * they race with a write to the same segment.
+ * ⚠️ No expiry, eviction, loaders or writers: size it for the whole id space.
+ */
+public class IntKeyCache<V> extends AbstractPrimitiveKeyCache<Integer, V> {
+
+    public IntKeyCache(String name, Class<V> valueType, int expectedSize) {
+        super(name, Integer.class, valueType, expectedSize);
+    }
+
+    @Override
+    Integer box(long key) {
+        return (int) key;
+    }
+
+    public V get(int key) {
+        checkOpen();
+        return table.get(key);
+    }
+
+    public boolean containsKey(int key) {
+        checkOpen();
+        return table.get(key) != null;
+    }
+
+    public void put(int key, V value) {
+        checkOpen();
+        store(key, value);
+    }
+
+    public V getAndPut(int key, V value) {
+        checkOpen();
+        return store(key, value);
+    }
+
+    public boolean putIfAbsent(int key, V value) {
+        checkOpen();
+        return storeIfAbsent(key, value);
+    }
+
+    public boolean remove(int key) {
+        checkOpen();
+        return delete(key) != null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.jcache.primitive;
+
+/**
+ * 🔹 Cache keyed by primitive long ids
+ * A JCache Cache&lt;Long, V&gt; plus overloads taking a plain long, so the hot path never boxes
+ * the key and never hashes a Long object.
+ * The keys live in open-addressing long[] arrays (see LongKeyTable); reads are lock-free unless
+ * they race with a write to the same segment.
+ * ⚠️ No expiry, eviction, loaders or writers: size it for the whole id space.
+ */
+public class LongKeyCache<V> extends AbstractPrimitiveKeyCache<Long, V> {
+
+    public LongKeyCache(String name, Class<V> valueType, int expectedSize) {
+        super(name, Long.class, valueType, expectedSize);
+    }
+
+    @Override
+    Long box(long key) {
+        return key;
+    }
+
+    public V get(long key) {
+        checkOpen();
+        return table.get(key);
+    }
+
+    public boolean containsKey(long key) {
+        checkOpen();
+        return table.get(key) != null;
+    }
+
+    public void put(long key, V value) {
+        checkOpen();
+        store(key, value);
+    }
+
+    public V getAndPut(long key, V value) {
+        checkOpen();
+        return store(key, value);
+    }
+
+    public boolean putIfAbsent(long key, V value) {
+        checkOpen();
+        return storeIfAbsent(key, value);
+    }
+
+    public boolean remove(long key) {
+        checkOpen();
+        return delete(key) != null;
+    }
+}
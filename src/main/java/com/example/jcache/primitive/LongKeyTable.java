@@ -0,0 +1,352 @@
+package com.example.jcache.primitive;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent hash table from primitive long keys to values, without boxing the keys.
+ * The table is split into segments; each segment is an open-addressing table (parallel long[] and
+ * Object[] arrays, linear probing) guarded by its own StampedLock.
+ * Reads are optimistic: they probe the arrays without locking and only retry under the read lock
+ * if a writer changed the segment meanwhile. Writes take the segment's write lock.
+ * A null value marks an empty slot, so values must not be null; removal shifts the following
+ * entries back instead of leaving tombstones.
+ */
+final class LongKeyTable<V> {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    LongKeyTable(int expectedSize) {
+        int perSegment = Math.max(MIN_CAPACITY, expectedSize / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    V get(long key) {
+        long hash = mix(key);
+        return segmentFor(hash).get(key, (int) hash);
+    }
+
+    V put(long key, V value) {
+        long hash = mix(key);
+        return segmentFor(hash).put(key, (int) hash, value, false);
+    }
+
+    V putIfAbsent(long key, V value) {
+        long hash = mix(key);
+        return segmentFor(hash).put(key, (int) hash, value, true);
+    }
+
+    V remove(long key) {
+        long hash = mix(key);
+        return segmentFor(hash).remove(key, (int) hash, null);
+    }
+
+    /**
+     * Removes the entry only if it currently maps to the expected value (compared with equals).
+     */
+    boolean remove(long key, Object expected) {
+        long hash = mix(key);
+        return segmentFor(hash).remove(key, (int) hash, expected) != null;
+    }
+
+    /**
+     * Replaces the value only if the key is present and, when expected is not null, maps to it.
+     *
+     * @return the previous value, or null if nothing was replaced
+     */
+    V replace(long key, Object expected, V value) {
+        long hash = mix(key);
+        return segmentFor(hash).replace(key, (int) hash, expected, value);
+    }
+
+    /**
+     * Lock of the segment holding the key, for callers that need several operations on one key to
+     * be atomic (the lock is not reentrant: use the *Locked methods while holding it).
+     */
+    StampedLock lockFor(long key) {
+        return segmentFor(mix(key)).lock;
+    }
+
+    V getLocked(long key) {
+        long hash = mix(key);
+        return segmentFor(hash).find(key, (int) hash);
+    }
+
+    V putLocked(long key, V value) {
+        long hash = mix(key);
+        return segmentFor(hash).insert(key, (int) hash, value, false);
+    }
+
+    V removeLocked(long key) {
+        long hash = mix(key);
+        return segmentFor(hash).delete(key, (int) hash, null);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    void forEach(LongObjectConsumer<? super V> action) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    // fmix64 from MurmurHash3: sequential ids spread over all segments and slots
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * Key and value arrays of a segment, swapped together on resize.
+     */
+    private static final class Slots {
+        final long[] keys;
+        final Object[] values;
+
+        Slots(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment<V> {
+        final StampedLock lock = new StampedLock();
+        volatile Slots slots;
+        int size;
+
+        Segment(int expectedSize) {
+            int capacity = MIN_CAPACITY;
+            while (capacity < expectedSize * 2) {
+                capacity <<= 1;
+            }
+            this.slots = new Slots(capacity);
+        }
+
+        V get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            V value = probe(slots, key, hash);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return probe(slots, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V probe(Slots slots, long key, int hash) {
+            long[] keys = slots.keys;
+            Object[] values = slots.values;
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            // bounded: a racing writer may leave no empty slot on the path, validation catches it
+            for (int i = 0; i <= mask; i++) {
+                Object value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[index] == key) {
+                    return (V) value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        V find(long key, int hash) {
+            return probe(slots, key, hash);
+        }
+
+        V put(long key, int hash, V value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                return insert(key, hash, value, onlyIfAbsent);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V insert(long key, int hash, V value, boolean onlyIfAbsent) {
+            Slots current = slots;
+            int mask = current.keys.length - 1;
+            int index = hash & mask;
+            while (current.values[index] != null) {
+                if (current.keys[index] == key) {
+                    V previous = (V) current.values[index];
+                    if (!onlyIfAbsent) {
+                        current.values[index] = value;
+                    }
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+            current.keys[index] = key;
+            current.values[index] = value;
+            if (++size * 2 > current.keys.length) {
+                resize(current);
+            }
+            return null;
+        }
+
+        V remove(long key, int hash, Object expected) {
+            long stamp = lock.writeLock();
+            try {
+                return delete(key, hash, expected);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V delete(long key, int hash, Object expected) {
+            Slots current = slots;
+            long[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    V previous = (V) values[index];
+                    if (expected != null && !expected.equals(previous)) {
+                        return null;
+                    }
+                    shiftBack(current, index);
+                    size--;
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V replace(long key, int hash, Object expected, V value) {
+            long stamp = lock.writeLock();
+            try {
+                Slots current = slots;
+                int mask = current.keys.length - 1;
+                int index = hash & mask;
+                while (current.values[index] != null) {
+                    if (current.keys[index] == key) {
+                        V previous = (V) current.values[index];
+                        if (expected != null && !expected.equals(previous)) {
+                            return null;
+                        }
+                        current.values[index] = value;
+                        return previous;
+                    }
+                    index = (index + 1) & mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // Backward-shift deletion: moves later entries of the probe run into the gap so lookups
+        // never stop early at a hole
+        private static void shiftBack(Slots slots, int gap) {
+            long[] keys = slots.keys;
+            Object[] values = slots.values;
+            int mask = keys.length - 1;
+            int index = gap;
+            while (true) {
+                index = (index + 1) & mask;
+                if (values[index] == null) {
+                    break;
+                }
+                int home = (int) mix(keys[index]) & mask;
+                // move the entry if its home slot is not between the gap and its position (cyclically)
+                boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+                if (movable) {
+                    keys[gap] = keys[index];
+                    values[gap] = values[index];
+                    gap = index;
+                }
+            }
+            keys[gap] = 0;
+            values[gap] = null;
+        }
+
+        private void resize(Slots old) {
+            Slots resized = new Slots(old.keys.length * 2);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                Object value = old.values[i];
+                if (value != null) {
+                    int index = (int) mix(old.keys[i]) & mask;
+                    while (resized.values[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    resized.keys[index] = old.keys[i];
+                    resized.values[index] = value;
+                }
+            }
+            slots = resized;
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                slots = new Slots(MIN_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(LongObjectConsumer<? super V> action) {
+            long[] keys;
+            Object[] values;
+            long stamp = lock.readLock();
+            try {
+                Slots current = slots;
+                keys = current.keys.clone();
+                values = current.values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    action.accept(keys[i], (V) values[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.jcache.primitive;
+
+import com.example.jcache.writer.Book;
+
+import javax.cache.Cache;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Primitive keys
+ * Cache&lt;Integer, Book&gt; boxes every id: cache.get(42_000) allocates an Integer (outside the
+ * -128..127 cache), hashes it and compares it with equals.
+ * {@link IntKeyCache} takes the int directly for get/put/remove and still is a javax.cache.Cache,
+ * so code written against the JCache API keeps working on the same instance.
+ */
+public class PrimitiveKeyCacheExample {
+    private static final Logger LOGGER = Logger.getLogger(PrimitiveKeyCacheExample.class.getName());
+
+    public static void main(String[] args) {
+        try (IntKeyCache<Book> books = new IntKeyCache<>("booksById", Book.class, 100_000)) {
+            for (int id = 0; id < 100_000; id++) {
+                books.put(id, new Book(id, "Book " + id, "Author " + (id % 100))); // no boxing
+            }
+
+            Book book = books.get(42_000); // no boxing
+            LOGGER.log(Level.INFO, "Typed lookup: {0}", book);
+
+            // the same instance through the standard API
+            Cache<Integer, Book> cache = books;
+            cache.invoke(42_000, (entry, arguments) -> {
+                entry.setValue(new Book(entry.getKey(), entry.getValue().getTitle() + " (2nd edition)",
+                        entry.getValue().getAuthor()));
+                return null;
+            });
+            LOGGER.log(Level.INFO, "After invoke: {0}", cache.get(42_000));
+            LOGGER.log(Level.INFO, "{0} books cached", books.size());
+        }
+    }
+}
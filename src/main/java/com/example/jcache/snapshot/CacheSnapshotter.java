@@ -0,0 +1,303 @@
+package com.example.jcache.snapshot;
+
+import com.example.jcache.cluster.Codec;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+
+import javax.cache.Cache;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.expiry.Duration;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CompletionListenerFuture;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Snapshot + warm-up
+ * After a restart every cache is empty and the backend takes the full miss storm until the hot
+ * set has been loaded again, one miss at a time. The snapshotter periodically writes the keys
+ * (and, per cache, optionally the values) of the registered caches to a compact file; on startup
+ * {@link #restore(WarmUpOptions)} refills the caches from it before or while traffic arrives:
+ * values → put back directly, no backend call at all;
+ * keys only → reloaded through the cache's configured CacheLoader, in loadAll batches
+ * (one bulk backend request each), a few batches in parallel and capped at a rate of keys per second.
+ * The snapshot holds what each cache currently contains, i.e. for a bounded cache what its eviction
+ * policy kept. A cache holding more than maxEntries is cut off in iteration (hash) order, which
+ * keeps an arbitrary subset rather than the most used keys: size maxEntries to the whole cache.
+ * <pre>
+ * CacheSnapshotter snapshotter = new CacheSnapshotter(Paths.get("caches.snapshot"))
+ *         .register(weatherCache, Codecs.strings(), null, 10_000)
+ *         .register(bookCache, Codecs.integers(), Codecs.books(), 50_000);
+ * snapshotter.restore(WarmUpOptions.defaults().withKeysPerSecond(500));
+ * snapshotter.schedule(scheduler, 5, TimeUnit.MINUTES);
+ * </pre>
+ * ⚠️ Iterating counts as an access for JCache, so with an accessed expiry policy every snapshot
+ * renews the TTL of the entries it reads.
+ * ⚠️ Values of write-through caches are never put back (the writer would write them to the system of
+ * record again): their keys are reloaded through the loader, or skipped if there is none.
+ * ⚠️ A restored value gets a fresh TTL. By default a cache's values are only put back while the
+ * snapshot is younger than the cache's creation TTL, otherwise its keys are reloaded; the values were
+ * written before the snapshot, so they may still be up to twice that old. Set
+ * {@link WarmUpOptions#withMaxValueAge} when the data goes stale sooner (or later) than the TTL.
+ */
+public class CacheSnapshotter {
+    private static final Logger LOGGER = Logger.getLogger(CacheSnapshotter.class.getName());
+
+    private final Path file;
+    private final Map<String, Registration<?, ?>> registrations = new LinkedHashMap<>();
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder restoredValues = new LongAdder();
+    private final LongAdder reloadedKeys = new LongAdder();
+    private final LongAdder failedKeys = new LongAdder();
+
+    public CacheSnapshotter(Path file) {
+        this.file = Preconditions.checkNotNull(file, "file");
+    }
+
+    /**
+     * @param valueCodec null to store only the keys, which are then reloaded through the cache's loader
+     * @param maxEntries most entries of this cache in a snapshot; beyond that, entries are dropped in
+     *                   iteration order, not by use
+     */
+    public synchronized <K, V> CacheSnapshotter register(Cache<K, V> cache, Codec<K> keyCodec, Codec<V> valueCodec,
+                                                         int maxEntries) {
+        Preconditions.checkNotNull(cache, "cache");
+        Preconditions.checkNotNull(keyCodec, "keyCodec");
+        Preconditions.checkArgument(maxEntries > 0, "maxEntries must be positive");
+        registrations.put(cache.getName(), new Registration<>(cache, keyCodec, valueCodec, maxEntries));
+        return this;
+    }
+
+    /**
+     * Writes the registered caches' current contents to the snapshot file, replacing the previous snapshot.
+     */
+    public synchronized void snapshot() throws IOException {
+        Map<String, SnapshotFile.Section> sections = new LinkedHashMap<>();
+        int entries = 0;
+        for (Registration<?, ?> registration : registrations.values()) {
+            if (!registration.cache.isClosed()) {
+                SnapshotFile.Section section = registration.capture();
+                sections.put(registration.cache.getName(), section);
+                entries += section.keys.size();
+            }
+        }
+        new SnapshotFile(System.currentTimeMillis(), sections).write(file);
+        snapshots.increment();
+        LOGGER.log(Level.INFO, "Snapshot of {0} entries from {1} caches written to {2}",
+                new Object[]{entries, sections.size(), file});
+    }
+
+    /**
+     * Takes a snapshot every period; a failed snapshot is logged and the next one tried as planned.
+     * Cancel the returned future to stop.
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Cache snapshot to " + file + " failed", e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Refills the registered caches from the snapshot file and returns once every value has been put
+     * and every reload batch has finished. Entries already in a cache are left as they are.
+     * Call it from a background thread to serve requests while the caches warm up.
+     *
+     * @return false if there is no snapshot yet
+     */
+    public boolean restore(WarmUpOptions options) throws IOException, InterruptedException {
+        if (!Files.exists(file)) {
+            LOGGER.log(Level.INFO, "No cache snapshot at {0}, starting cold", file);
+            return false;
+        }
+        SnapshotFile snapshot = SnapshotFile.read(file);
+        long age = System.currentTimeMillis() - snapshot.createdAtMillis;
+        RateLimiter limiter = options.getKeysPerSecond() > 0 ? RateLimiter.create(options.getKeysPerSecond()) : null;
+        ExecutorService loaders = Executors.newFixedThreadPool(options.getParallelism(), warmUpThreads());
+        try {
+            List<Future<?>> batches = new ArrayList<>();
+            for (Map.Entry<String, SnapshotFile.Section> entry : snapshot.sections.entrySet()) {
+                Registration<?, ?> registration;
+                synchronized (this) {
+                    registration = registrations.get(entry.getKey());
+                }
+                if (registration == null || registration.cache.isClosed()) {
+                    LOGGER.log(Level.INFO, "Snapshot of {0} skipped, the cache is not registered", entry.getKey());
+                    continue;
+                }
+                batches.addAll(registration.restore(entry.getValue(), age, options, loaders, limiter));
+            }
+            for (Future<?> batch : batches) {
+                try {
+                    batch.get();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Warm-up batch failed", e.getCause());
+                }
+            }
+        } finally {
+            loaders.shutdownNow();
+        }
+        LOGGER.log(Level.INFO, "Warm-up from a {0}s old snapshot: {1} values restored, {2} keys reloaded, {3} failed",
+                new Object[]{TimeUnit.MILLISECONDS.toSeconds(age), getRestoredValueCount(), getReloadedKeyCount(),
+                        getFailedKeyCount()});
+        return true;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    /**
+     * Values put back from the snapshot without a backend call.
+     */
+    public long getRestoredValueCount() {
+        return restoredValues.sum();
+    }
+
+    /**
+     * Keys loaded again through the caches' loaders.
+     */
+    public long getReloadedKeyCount() {
+        return reloadedKeys.sum();
+    }
+
+    /**
+     * Keys that could not be reloaded: the loader failed or the cache has no loader.
+     */
+    public long getFailedKeyCount() {
+        return failedKeys.sum();
+    }
+
+    private static ThreadFactory warmUpThreads() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Registration<K, V> {
+        private final Cache<K, V> cache;
+        private final Codec<K> keyCodec;
+        private final Codec<V> valueCodec;
+        private final int maxEntries;
+
+        private Registration(Cache<K, V> cache, Codec<K> keyCodec, Codec<V> valueCodec, int maxEntries) {
+            this.cache = cache;
+            this.keyCodec = keyCodec;
+            this.valueCodec = valueCodec;
+            this.maxEntries = maxEntries;
+        }
+
+        SnapshotFile.Section capture() {
+            SnapshotFile.Section section = new SnapshotFile.Section(valueCodec != null);
+            for (Cache.Entry<K, V> entry : cache) {
+                if (section.keys.size() >= maxEntries) {
+                    break;
+                }
+                section.keys.add(keyCodec.encode(entry.getKey()));
+                if (valueCodec != null) {
+                    section.values.add(valueCodec.encode(entry.getValue()));
+                }
+            }
+            return section;
+        }
+
+        List<Future<?>> restore(SnapshotFile.Section section, long snapshotAgeMillis, WarmUpOptions options,
+                                ExecutorService loaders, RateLimiter limiter) {
+            @SuppressWarnings("unchecked")
+            CompleteConfiguration<K, V> configuration = cache.getConfiguration(CompleteConfiguration.class);
+            boolean putValues = section.withValues && valueCodec != null && !configuration.isWriteThrough()
+                    && snapshotAgeMillis <= maxValueAgeMillis(configuration, options);
+            List<K> reload = new ArrayList<>();
+            for (int i = 0; i < section.keys.size(); i++) {
+                K key = keyCodec.decode(section.keys.get(i));
+                if (!putValues) {
+                    reload.add(key);
+                } else if (cache.putIfAbsent(key, valueCodec.decode(section.values.get(i)))) {
+                    restoredValues.increment();
+                }
+            }
+            if (reload.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (configuration.getCacheLoaderFactory() == null) {
+                failedKeys.add(reload.size());
+                LOGGER.log(Level.WARNING, "{0}: {1} keys not restored, the cache has no CacheLoader",
+                        new Object[]{cache.getName(), reload.size()});
+                return new ArrayList<>();
+            }
+            // Cache.loadAll must be used for write-through caches, where a put would reach the writer.
+            // Everywhere else the loader is called directly: Ehcache 3.0 hands it the keys of a loadAll one by one
+            CacheLoader<K, V> loader = configuration.isWriteThrough() ? null : configuration.getCacheLoaderFactory().create();
+            List<Future<?>> batches = new ArrayList<>();
+            for (int from = 0; from < reload.size(); from += options.getBatchSize()) {
+                Set<K> batch = new LinkedHashSet<>(reload.subList(from, Math.min(from + options.getBatchSize(), reload.size())));
+                batches.add(loaders.submit(() -> load(batch, loader, limiter)));
+            }
+            return batches;
+        }
+
+        private long maxValueAgeMillis(CompleteConfiguration<K, V> configuration, WarmUpOptions options) {
+            if (options.hasMaxValueAge()) {
+                return options.getMaxValueAgeMillis();
+            }
+            Duration ttl = configuration.getExpiryPolicyFactory().create().getExpiryForCreation();
+            if (ttl == null || ttl.isEternal()) {
+                return Long.MAX_VALUE;
+            }
+            return ttl.getTimeUnit().toMillis(ttl.getDurationAmount());
+        }
+
+        private Void load(Set<K> batch, CacheLoader<K, V> loader, RateLimiter limiter) throws InterruptedException {
+            if (limiter != null) {
+                limiter.acquire(batch.size());
+            }
+            try {
+                if (loader != null) {
+                    for (Map.Entry<K, V> loaded : loader.loadAll(batch).entrySet()) {
+                        // keys loaded by live traffic in the meantime keep their value
+                        cache.putIfAbsent(loaded.getKey(), loaded.getValue());
+                    }
+                } else {
+                    CompletionListenerFuture done = new CompletionListenerFuture();
+                    cache.loadAll(batch, false, done);
+                    done.get();
+                }
+                reloadedKeys.add(batch.size());
+            } catch (ExecutionException | RuntimeException e) {
+                failedKeys.add(batch.size());
+                LOGGER.log(Level.WARNING, cache.getName() + ": loading " + batch.size() + " keys failed",
+                        e instanceof ExecutionException ? e.getCause() : e);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.jcache.snapshot;
+
+import com.example.jcache.cluster.Codecs;
+import com.example.jcache.external.ExternalServiceCacheExample.WeatherServiceCacheLoader;
+import com.example.jcache.writer.Book;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A deploy with and without a snapshot.
+ * Before: weatherCache holds the weather of 200 cities (read through the WeatherServiceCacheLoader,
+ * 2s per request), bookCache 1,000 books; the snapshotter writes the city names and the books to a file.
+ * After: both caches start empty in a new CacheManager. The restore puts the books back directly
+ * and reloads the cities in bulk requests of 50 (4 in parallel, at most 100 cities/s), so after
+ * about 3s every city and book is a hit instead of 200 misses of 2s each.
+ */
+public class SnapshotExample {
+    private static final Logger LOGGER = Logger.getLogger(SnapshotExample.class.getName());
+    private static final int CITIES = 200;
+    private static final int BOOKS = 1_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Files.createTempDirectory("cache-snapshot").resolve("caches.snapshot");
+        Set<String> cities = new LinkedHashSet<>();
+        for (int i = 0; i < CITIES; i++) {
+            cities.add("City " + i);
+        }
+
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                Cache<String, String> weatherCache = cacheManager.createCache("weatherCache", weatherConfiguration());
+                Cache<Integer, Book> bookCache = cacheManager.createCache("bookCache", bookConfiguration());
+                // the cities requested since the last deploy
+                weatherCache.putAll(new WeatherServiceCacheLoader().loadAll(cities));
+                for (int id = 0; id < BOOKS; id++) {
+                    bookCache.put(id, new Book(id, "Title " + id, "Author " + (id % 100)));
+                }
+                snapshotter(file, weatherCache, bookCache).snapshot();
+            }
+
+            // the deploy: a new CacheManager with the same, empty caches
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                Cache<String, String> weatherCache = cacheManager.createCache("weatherCache", weatherConfiguration());
+                Cache<Integer, Book> bookCache = cacheManager.createCache("bookCache", bookConfiguration());
+                CacheSnapshotter snapshotter = snapshotter(file, weatherCache, bookCache);
+
+                long start = System.nanoTime();
+                snapshotter.restore(WarmUpOptions.defaults()
+                        .withParallelism(4)
+                        .withBatchSize(50)
+                        .withKeysPerSecond(100));
+                LOGGER.log(Level.INFO, "Warm-up took {0}ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                start = System.nanoTime();
+                weatherCache.getAll(cities);
+                for (int id = 0; id < BOOKS; id++) {
+                    bookCache.get(id);
+                }
+                LOGGER.log(Level.INFO, "{0} cities and {1} books read in {2}ms, no backend call",
+                        new Object[]{CITIES, BOOKS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)});
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+        }
+    }
+
+    private static CacheSnapshotter snapshotter(Path file, Cache<String, String> weatherCache,
+                                                Cache<Integer, Book> bookCache) {
+        return new CacheSnapshotter(file)
+                // weather goes stale quickly: keep only the city names and ask the service again
+                .register(weatherCache, Codecs.strings(), null, 10_000)
+                .register(bookCache, Codecs.integers(), Codecs.books(), 10_000);
+    }
+
+    private static MutableConfiguration<String, String> weatherConfiguration() {
+        return new MutableConfiguration<String, String>()
+                .setTypes(String.class, String.class)
+                .setReadThrough(true)
+                .setCacheLoaderFactory(FactoryBuilder.factoryOf(WeatherServiceCacheLoader.class));
+    }
+
+    private static MutableConfiguration<Integer, Book> bookConfiguration() {
+        return new MutableConfiguration<Integer, Book>()
+                .setTypes(Integer.class, Book.class)
+                .setStoreByValue(false);
+    }
+}
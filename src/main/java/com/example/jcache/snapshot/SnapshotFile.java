@@ -0,0 +1,110 @@
+package com.example.jcache.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The snapshot on disk, gzip-compressed:
+ * magic, version, creation time, cache count, then per cache its name, whether values follow the
+ * keys, the entry count and the entries as length-prefixed encoded key (and value) bytes.
+ * Writes go to a temporary file that is then moved over the old snapshot, so a crash while
+ * writing leaves the previous snapshot intact.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x4A43534E;
+    private static final int VERSION = 1;
+
+    final long createdAtMillis;
+    final Map<String, Section> sections;
+
+    SnapshotFile(long createdAtMillis, Map<String, Section> sections) {
+        this.createdAtMillis = createdAtMillis;
+        this.sections = sections;
+    }
+
+    static final class Section {
+        final boolean withValues;
+        final List<byte[]> keys = new ArrayList<>();
+        final List<byte[]> values = new ArrayList<>();
+
+        Section(boolean withValues) {
+            this.withValues = withValues;
+        }
+    }
+
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(createdAtMillis);
+            out.writeInt(sections.size());
+            for (Map.Entry<String, Section> entry : sections.entrySet()) {
+                Section section = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeBoolean(section.withValues);
+                out.writeInt(section.keys.size());
+                for (int i = 0; i < section.keys.size(); i++) {
+                    writeBytes(out, section.keys.get(i));
+                    if (section.withValues) {
+                        writeBytes(out, section.values.get(i));
+                    }
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static SnapshotFile read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a cache snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + file);
+            }
+            long createdAtMillis = in.readLong();
+            int cacheCount = in.readInt();
+            Map<String, Section> sections = new LinkedHashMap<>();
+            for (int c = 0; c < cacheCount; c++) {
+                String cacheName = in.readUTF();
+                Section section = new Section(in.readBoolean());
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    section.keys.add(readBytes(in));
+                    if (section.withValues) {
+                        section.values.add(readBytes(in));
+                    }
+                }
+                sections.put(cacheName, section);
+            }
+            return new SnapshotFile(createdAtMillis, sections);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
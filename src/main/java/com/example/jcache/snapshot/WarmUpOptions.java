@@ -0,0 +1,83 @@
+package com.example.jcache.snapshot;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How {@link CacheSnapshotter#restore(WarmUpOptions)} refills the caches:
+ * parallelism → loadAll batches running at the same time;
+ * batchSize → keys per loadAll, i.e. per backend bulk request;
+ * keysPerSecond → cap on keys sent to the loaders, so the warm-up does not become the miss storm
+ * it is meant to prevent (0 = no cap);
+ * maxValueAge → stored values older than this are not trusted, their keys are reloaded instead;
+ * by default each cache's creation TTL, so a snapshot older than the TTL only restores keys.
+ */
+public final class WarmUpOptions {
+    // maxValueAge taken from each cache's expiry policy
+    private static final long CREATION_TTL = -1;
+
+    private final int parallelism;
+    private final int batchSize;
+    private final double keysPerSecond;
+    private final long maxValueAgeMillis;
+
+    private WarmUpOptions(int parallelism, int batchSize, double keysPerSecond, long maxValueAgeMillis) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+        Preconditions.checkArgument(keysPerSecond >= 0, "keysPerSecond must not be negative");
+        Preconditions.checkArgument(maxValueAgeMillis >= 0 || maxValueAgeMillis == CREATION_TTL,
+                "maxValueAge must not be negative");
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.keysPerSecond = keysPerSecond;
+        this.maxValueAgeMillis = maxValueAgeMillis;
+    }
+
+    /**
+     * 4 parallel batches of 100 keys, no rate cap, stored values trusted for the cache's creation TTL.
+     */
+    public static WarmUpOptions defaults() {
+        return new WarmUpOptions(4, 100, 0, CREATION_TTL);
+    }
+
+    public WarmUpOptions withParallelism(int parallelism) {
+        return new WarmUpOptions(parallelism, batchSize, keysPerSecond, maxValueAgeMillis);
+    }
+
+    public WarmUpOptions withBatchSize(int batchSize) {
+        return new WarmUpOptions(parallelism, batchSize, keysPerSecond, maxValueAgeMillis);
+    }
+
+    public WarmUpOptions withKeysPerSecond(double keysPerSecond) {
+        return new WarmUpOptions(parallelism, batchSize, keysPerSecond, maxValueAgeMillis);
+    }
+
+    public WarmUpOptions withMaxValueAge(long maxValueAge, TimeUnit unit) {
+        return new WarmUpOptions(parallelism, batchSize, keysPerSecond, unit.toMillis(maxValueAge));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public double getKeysPerSecond() {
+        return keysPerSecond;
+    }
+
+    /**
+     * False when each cache's creation TTL is used instead of {@link #getMaxValueAgeMillis()}.
+     */
+    public boolean hasMaxValueAge() {
+        return maxValueAgeMillis != CREATION_TTL;
+    }
+
+    public long getMaxValueAgeMillis() {
+        Preconditions.checkState(hasMaxValueAge(), "maxValueAge comes from each cache's expiry policy");
+        return maxValueAgeMillis;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.jcache.statistics;
+
+import com.google.common.base.Preconditions;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 Per-cache instrumentation
+ * One latency histogram and one call counter per {@link CacheOperation}, plus hit, miss and
+ * failure counters, all updated without locks or allocation.
+ * Shared by {@link InstrumentedCache}, {@link InstrumentedCacheLoader} and
+ * {@link InstrumentedCacheWriter}, so one snapshot shows the cache and its backend side by side.
+ * Counters are always exact; with sampleEvery > 1 only about one call in sampleEvery is timed,
+ * which keeps the two System.nanoTime() calls off the hot path of very cheap operations.
+ */
+public final class CacheMetrics {
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+    private static final CacheOperation[] OPERATIONS = CacheOperation.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] failures = new LongAdder[OPERATIONS.length];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final int sampleMask;
+
+    public CacheMetrics() {
+        this(1);
+    }
+
+    /**
+     * @param sampleEvery time roughly one call in sampleEvery; must be a power of two, 1 times every call
+     */
+    public CacheMetrics(int sampleEvery) {
+        Preconditions.checkArgument(sampleEvery > 0 && Integer.bitCount(sampleEvery) == 1,
+                "sampleEvery must be a positive power of two");
+        this.sampleMask = sampleEvery - 1;
+        for (CacheOperation operation : OPERATIONS) {
+            latencies[operation.ordinal()] = new LatencyHistogram();
+            calls[operation.ordinal()] = new LongAdder();
+            failures[operation.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing a call; hand the result to {@link #stop(CacheOperation, long)}.
+     */
+    long start() {
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    void stop(CacheOperation operation, long start) {
+        calls[operation.ordinal()].increment();
+        if (start != NOT_SAMPLED) {
+            latencies[operation.ordinal()].recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    void failed(CacheOperation operation, long start) {
+        failures[operation.ordinal()].increment();
+        stop(operation, start);
+    }
+
+    void hits(int count) {
+        hits.add(count);
+    }
+
+    void misses(int count) {
+        misses.add(count);
+    }
+
+    public CacheMetricsSnapshot snapshot() {
+        Map<CacheOperation, HistogramSnapshot> latencySnapshots = new EnumMap<>(CacheOperation.class);
+        Map<CacheOperation, Long> callCounts = new EnumMap<>(CacheOperation.class);
+        Map<CacheOperation, Long> failureCounts = new EnumMap<>(CacheOperation.class);
+        for (CacheOperation operation : OPERATIONS) {
+            latencySnapshots.put(operation, latencies[operation.ordinal()].snapshot());
+            callCounts.put(operation, calls[operation.ordinal()].sum());
+            failureCounts.put(operation, failures[operation.ordinal()].sum());
+        }
+        return new CacheMetricsSnapshot(latencySnapshots, callCounts, failureCounts, hits.sum(), misses.sum());
+    }
+}
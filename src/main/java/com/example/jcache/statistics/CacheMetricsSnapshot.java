@@ -0,0 +1,72 @@
+package com.example.jcache.statistics;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a {@link CacheMetrics}. Cheap enough to take every few seconds from a
+ * reporter thread; the counters are read one after another, not atomically as a group.
+ */
+public final class CacheMetricsSnapshot {
+    private final Map<CacheOperation, HistogramSnapshot> latencies;
+    private final Map<CacheOperation, Long> calls;
+    private final Map<CacheOperation, Long> failures;
+    private final long hits;
+    private final long misses;
+
+    CacheMetricsSnapshot(Map<CacheOperation, HistogramSnapshot> latencies, Map<CacheOperation, Long> calls,
+                         Map<CacheOperation, Long> failures, long hits, long misses) {
+        this.latencies = latencies;
+        this.calls = calls;
+        this.failures = failures;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Latency of the timed calls; with sampling this holds fewer values than {@link #getCalls}.
+     */
+    public HistogramSnapshot getLatency(CacheOperation operation) {
+        return latencies.get(operation);
+    }
+
+    public long getCalls(CacheOperation operation) {
+        return calls.get(operation);
+    }
+
+    public long getFailures(CacheOperation operation) {
+        return failures.get(operation);
+    }
+
+    /**
+     * Keys returned with a value by get/getAll (read-through loads included, see LOAD for those).
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(String.format("hits=%d, misses=%d, hitRatio=%.2f", hits, misses, getHitRatio()));
+        for (Map.Entry<CacheOperation, HistogramSnapshot> entry : latencies.entrySet()) {
+            CacheOperation operation = entry.getKey();
+            if (calls.get(operation) == 0) {
+                continue;
+            }
+            builder.append(System.lineSeparator())
+                    .append(String.format("%-6s calls=%d, failures=%d, ", operation, calls.get(operation),
+                            failures.get(operation)))
+                    .append(entry.getValue());
+        }
+        return builder.toString();
+    }
+}
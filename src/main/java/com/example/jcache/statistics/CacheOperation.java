@@ -0,0 +1,27 @@
+package com.example.jcache.statistics;
+
+/**
+ * Operations timed by {@link CacheMetrics}.
+ */
+public enum CacheOperation {
+    /**
+     * get and getAll on the cache, including read-through time on a miss.
+     */
+    GET,
+    /**
+     * put, putAll, putIfAbsent and getAndPut on the cache, including write-through time.
+     */
+    PUT,
+    /**
+     * remove, getAndRemove and removeAll(keys) on the cache, including write-through time.
+     */
+    REMOVE,
+    /**
+     * load and loadAll on the CacheLoader.
+     */
+    LOAD,
+    /**
+     * write, writeAll, delete and deleteAll on the CacheWriter.
+     */
+    WRITE
+}
@@ -0,0 +1,175 @@
+package com.example.jcache.statistics;
+
+import com.example.jcache.support.ForwardingCache;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🔹 Instrumented cache
+ * Decorator that times get, put and remove calls into a {@link CacheMetrics} and counts hits and
+ * misses, without depending on the provider's statistics or on JMX.
+ * A get answered by read-through counts as a hit here, because the caller got a value; wrap the
+ * loader in an {@link InstrumentedCacheLoader} with the same metrics to see how many of them
+ * were loads.
+ * Other operations (replace, invoke, iteration, ...) are forwarded untimed.
+ */
+public class InstrumentedCache<K, V> extends ForwardingCache<K, V> {
+    private final CacheMetrics metrics;
+
+    public InstrumentedCache(Cache<K, V> cache) {
+        this(cache, new CacheMetrics());
+    }
+
+    public InstrumentedCache(Cache<K, V> cache, CacheMetrics metrics) {
+        super(cache);
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
+    }
+
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public V get(K key) {
+        long start = metrics.start();
+        V value;
+        try {
+            value = delegate().get(key);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.GET, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.GET, start);
+        if (value == null) {
+            metrics.misses(1);
+        } else {
+            metrics.hits(1);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        long start = metrics.start();
+        Map<K, V> values;
+        try {
+            values = delegate().getAll(keys);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.GET, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.GET, start);
+        metrics.hits(values.size());
+        metrics.misses(keys.size() - values.size());
+        return values;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        long start = metrics.start();
+        try {
+            delegate().put(key, value);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.PUT, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.PUT, start);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        long start = metrics.start();
+        V previous;
+        try {
+            previous = delegate().getAndPut(key, value);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.PUT, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.PUT, start);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        long start = metrics.start();
+        try {
+            delegate().putAll(map);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.PUT, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.PUT, start);
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        long start = metrics.start();
+        boolean stored;
+        try {
+            stored = delegate().putIfAbsent(key, value);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.PUT, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.PUT, start);
+        return stored;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        long start = metrics.start();
+        boolean removed;
+        try {
+            removed = delegate().remove(key);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.REMOVE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.REMOVE, start);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        long start = metrics.start();
+        boolean removed;
+        try {
+            removed = delegate().remove(key, oldValue);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.REMOVE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.REMOVE, start);
+        return removed;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        long start = metrics.start();
+        V previous;
+        try {
+            previous = delegate().getAndRemove(key);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.REMOVE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.REMOVE, start);
+        return previous;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        long start = metrics.start();
+        try {
+            delegate().removeAll(keys);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.REMOVE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.REMOVE, start);
+    }
+}
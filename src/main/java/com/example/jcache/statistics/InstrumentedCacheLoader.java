@@ -0,0 +1,57 @@
+package com.example.jcache.statistics;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Read-through loader that times load and loadAll calls into {@link CacheOperation#LOAD}.
+ */
+public class InstrumentedCacheLoader<K, V> implements CacheLoader<K, V>, Closeable {
+    private final CacheLoader<K, V> delegate;
+    private final CacheMetrics metrics;
+
+    public InstrumentedCacheLoader(CacheLoader<K, V> delegate, CacheMetrics metrics) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate loader");
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
+    }
+
+    @Override
+    public V load(K key) throws CacheLoaderException {
+        long start = metrics.start();
+        V value;
+        try {
+            value = delegate.load(key);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.LOAD, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.LOAD, start);
+        return value;
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+        long start = metrics.start();
+        Map<K, V> values;
+        try {
+            values = delegate.loadAll(keys);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.LOAD, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.LOAD, start);
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.jcache.statistics;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Write-through writer that times write, writeAll, delete and deleteAll calls into
+ * {@link CacheOperation#WRITE}.
+ */
+public class InstrumentedCacheWriter<K, V> implements CacheWriter<K, V>, Closeable {
+    private final CacheWriter<K, V> delegate;
+    private final CacheMetrics metrics;
+
+    public InstrumentedCacheWriter(CacheWriter<K, V> delegate, CacheMetrics metrics) {
+        this.delegate = Preconditions.checkNotNull(delegate, "delegate writer");
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
+    }
+
+    @Override
+    public void write(Cache.Entry<? extends K, ? extends V> entry) throws CacheWriterException {
+        long start = metrics.start();
+        try {
+            delegate.write(entry);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.WRITE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.WRITE, start);
+    }
+
+    @Override
+    public void writeAll(Collection<Cache.Entry<? extends K, ? extends V>> entries) throws CacheWriterException {
+        long start = metrics.start();
+        try {
+            delegate.writeAll(entries);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.WRITE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.WRITE, start);
+    }
+
+    @Override
+    public void delete(Object key) throws CacheWriterException {
+        long start = metrics.start();
+        try {
+            delegate.delete(key);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.WRITE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.WRITE, start);
+    }
+
+    @Override
+    public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        long start = metrics.start();
+        try {
+            delegate.deleteAll(keys);
+        } catch (RuntimeException e) {
+            metrics.failed(CacheOperation.WRITE, start);
+            throw e;
+        }
+        metrics.stop(CacheOperation.WRITE, start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.jcache.stream;
+
+import com.example.jcache.striped.StripedCachingProvider;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * 🔹 Aggregating over a whole cache
+ * A store-by-value cache of 200,000 listings, and a report counting the listings of each author.
+ * With the for-each loop every value is deserialized just to read one field, on one thread.
+ * The projection stream reads the field from the stored value and splits the scan across the
+ * fork-join pool; the key scan touches no value at all.
+ */
+public class CacheStreamExample {
+    private static final Logger LOGGER = Logger.getLogger(CacheStreamExample.class.getName());
+    private static final int LISTINGS = 200_000;
+    private static final int AUTHORS = 500;
+
+    public static void main(String[] args) {
+        try (CachingProvider provider = Caching.getCachingProvider(StripedCachingProvider.class.getName())) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                MutableConfiguration<Integer, Listing> cacheConfiguration = new MutableConfiguration<Integer, Listing>()
+                        .setTypes(Integer.class, Listing.class);
+
+                try (Cache<Integer, Listing> listings = cacheManager.createCache("listings", cacheConfiguration)) {
+                    for (int id = 0; id < LISTINGS; id++) {
+                        listings.put(id, new Listing("author" + id % AUTHORS, "title" + id, id % 100));
+                    }
+
+                    long start = System.nanoTime();
+                    Map<String, Long> perAuthorLoop = new HashMap<>();
+                    for (Cache.Entry<Integer, Listing> entry : listings) {
+                        perAuthorLoop.merge(entry.getValue().author, 1L, Long::sum);
+                    }
+                    long loopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    ConcurrentMap<String, Long> perAuthorStream = CacheStreams.project(listings,
+                                    (id, listing) -> listing.author)
+                            .parallel()
+                            .collect(Collectors.groupingByConcurrent(Function.identity(), Collectors.counting()));
+                    long streamMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    Preconditions.checkState(perAuthorLoop.equals(perAuthorStream), "reports differ");
+
+                    start = System.nanoTime();
+                    long freeListings = CacheStreams.keys(listings).parallel().filter(id -> id % 100 == 0).count();
+                    long keyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                    LOGGER.log(Level.INFO, "{0} authors: for-each loop {1} ms, parallel projection {2} ms",
+                            new Object[]{perAuthorStream.size(), loopMillis, streamMillis});
+                    LOGGER.log(Level.INFO, "{0} free listings found from the keys alone in {1} ms",
+                            new Object[]{freeListings, keyMillis});
+                }
+            }
+        }
+    }
+
+    /**
+     * Value stored by copy: reading it through the cache deserializes all of it.
+     */
+    static final class Listing implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String author;
+        final String title;
+        final int price;
+
+        Listing(String author, String title, int price) {
+            this.author = author;
+            this.title = title;
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.jcache.stream;
+
+import com.example.jcache.striped.StripedCache;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 🔹 Streams over cache contents
+ * Cache is only Iterable: a for-each loop walks the entries one at a time on one thread and copies
+ * every value, even when a job only needs the keys or one field of each value.
+ * These streams are sequential; call parallel() to spread a scan over the common fork-join pool.
+ * On a {@link StripedCache} (found through unwrap, so decorators are looked through) the stream is
+ * split by range of the underlying hash table, takes no lock, skips expired entries with one
+ * comparison, and keys() and project() never copy a value.
+ * Any other cache is read through its iterator: elements are still handed out in batches to
+ * parallel workers, but the iteration itself is sequential and every value is fetched (and copied
+ * under store-by-value) by the provider.
+ * ⚠️ Scans are weakly consistent and are not accesses: they do not extend access expiry, count
+ * in statistics or go through the decorators in front of the cache.
+ */
+public final class CacheStreams {
+
+    private CacheStreams() {
+    }
+
+    /**
+     * Live entries; values are copied as the cache's iterator would.
+     */
+    public static <K, V> Stream<Cache.Entry<K, V>> entries(Cache<K, V> cache) {
+        StripedCache<K, V> striped = striped(cache);
+        if (striped != null) {
+            return StreamSupport.stream(striped.entrySpliterator(), false);
+        }
+        return StreamSupport.stream(iteratorSpliterator(cache), false);
+    }
+
+    /**
+     * Keys of the live entries.
+     */
+    public static <K, V> Stream<K> keys(Cache<K, V> cache) {
+        StripedCache<K, V> striped = striped(cache);
+        if (striped != null) {
+            return StreamSupport.stream(striped.keySpliterator(), false);
+        }
+        return entries(cache).map(Cache.Entry::getKey);
+    }
+
+    /**
+     * One projection per live entry, e.g. a single field of the value; null projections are skipped.
+     * ⚠️ On a StripedCache the projection sees the cache's own value instance: it must not modify or
+     * keep it.
+     */
+    public static <K, V, R> Stream<R> project(Cache<K, V> cache,
+                                              BiFunction<? super K, ? super V, ? extends R> projection) {
+        Preconditions.checkNotNull(projection, "projection");
+        StripedCache<K, V> striped = striped(cache);
+        if (striped != null) {
+            return StreamSupport.stream(striped.spliterator(projection), false);
+        }
+        return entries(cache).<R>map(entry -> projection.apply(entry.getKey(), entry.getValue()))
+                .filter(projected -> projected != null);
+    }
+
+    private static <K, V> Spliterator<Cache.Entry<K, V>> iteratorSpliterator(Cache<K, V> cache) {
+        return Spliterators.spliteratorUnknownSize(cache.iterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> StripedCache<K, V> striped(Cache<K, V> cache) {
+        Preconditions.checkNotNull(cache, "cache");
+        try {
+            return cache.unwrap(StripedCache.class);
+        } catch (IllegalArgumentException e) {
+            // not backed by a StripedCache
+            return null;
+        }
+    }
+}
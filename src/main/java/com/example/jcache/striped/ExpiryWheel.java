@@ -0,0 +1,72 @@
+package com.example.jcache.striped;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel: a ring of buckets, one per tick, each holding the timeouts due in that tick
+ * (or a whole number of revolutions later). Scheduling appends to one lock-free queue and advancing
+ * only visits the buckets of the ticks that passed, so both are O(1) per timeout regardless of how
+ * many entries are waiting.
+ * Timeouts are never cancelled: the callback re-checks whether the entry is still current and
+ * expired, which also makes firing late (one revolution at most, if a writer races the reaper into a
+ * bucket that was just drained) harmless, because reads check the expiry timestamp themselves.
+ */
+final class ExpiryWheel<T> {
+    private static final int BUCKETS = 1024;
+    private static final int MASK = BUCKETS - 1;
+
+    private final long tickMillis;
+    private final ConcurrentLinkedQueue<Timeout<T>>[] buckets;
+    private volatile long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ExpiryWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ConcurrentLinkedQueue[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    void schedule(T item, long expiresAtMillis) {
+        // round up, so a timeout never fires before its deadline
+        long tick = Math.max((expiresAtMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        buckets[(int) (tick & MASK)].add(new Timeout<>(item, tick));
+    }
+
+    /**
+     * Fires every timeout due up to now. Must be called by a single thread.
+     */
+    void advance(long nowMillis, Consumer<? super T> onTimeout) {
+        long targetTick = nowMillis / tickMillis;
+        List<Timeout<T>> notYetDue = new ArrayList<>();
+        for (long tick = currentTick + 1; tick <= targetTick; tick++) {
+            ConcurrentLinkedQueue<Timeout<T>> bucket = buckets[(int) (tick & MASK)];
+            Timeout<T> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.tick > tick) {
+                    notYetDue.add(timeout);
+                } else {
+                    onTimeout.accept(timeout.item);
+                }
+            }
+            bucket.addAll(notYetDue);
+            notYetDue.clear();
+            currentTick = tick;
+        }
+    }
+
+    private static final class Timeout<T> {
+        final T item;
+        final long tick;
+
+        Timeout(T item, long tick) {
+            this.item = item;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.jcache.striped;
+
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the live mappings of a {@link StripedCache}, handing out one projection of each.
+ * It wraps the ConcurrentHashMap's own spliterator, which splits the hash table into ranges of bins
+ * without locking or copying, so a parallel stream walks disjoint parts of the table on each worker.
+ * The clock is read once per scan: an entry counts as expired if its expiry time has passed when the
+ * scan started, which makes skipping it a single comparison.
+ */
+final class ScanSpliterator<K, V, R> implements Spliterator<R> {
+    private final Spliterator<StoredValue<K, V>> values;
+    private final BiFunction<? super K, ? super V, ? extends R> projection;
+    private final long now;
+    private final int characteristics;
+    private R next;
+
+    ScanSpliterator(Spliterator<StoredValue<K, V>> values, BiFunction<? super K, ? super V, ? extends R> projection,
+                    long now, int characteristics) {
+        this.values = values;
+        this.projection = projection;
+        this.now = now;
+        this.characteristics = characteristics;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        // skip expired mappings and null projections until one is found or the range is exhausted
+        while (values.tryAdvance(this::project)) {
+            if (next != null) {
+                R found = next;
+                next = null;
+                action.accept(found);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        values.forEachRemaining(stored -> {
+            if (!stored.isExpiredAt(now)) {
+                R projected = projection.apply(stored.key, stored.value);
+                if (projected != null) {
+                    action.accept(projected);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        Spliterator<StoredValue<K, V>> split = values.trySplit();
+        return split == null ? null : new ScanSpliterator<>(split, projection, now, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return values.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private void project(StoredValue<K, V> stored) {
+        if (!stored.isExpiredAt(now)) {
+            next = projection.apply(stored.key, stored.value);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.jcache.striped;
+
+/**
+ * One mapping of a {@link StripedCache}; every put installs a new instance.
+ * The expiry time is volatile because reads may extend it (access expiry) without the stripe lock.
+ * timerDeadline is the deadline of the key's pending timer-wheel timeout (0 if none); a new mapping
+ * inherits it from the one it replaces, so updating a key does not pile up timeouts. It is only
+ * touched under the key's stripe lock.
+ */
+final class StoredValue<K, V> {
+    static final long ETERNAL = Long.MAX_VALUE;
+
+    final K key;
+    final V value;
+    volatile long expiresAt;
+    long timerDeadline;
+
+    StoredValue(K key, V value, long expiresAt) {
+        this.key = key;
+        this.value = value;
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isExpiredAt(long nowMillis) {
+        return expiresAt <= nowMillis;
+    }
+}
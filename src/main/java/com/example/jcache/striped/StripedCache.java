@@ -0,0 +1,959 @@
+package com.example.jcache.striped;
+
+import com.example.jcache.loader.SingleFlight;
+import com.example.jcache.support.ListenerRegistration;
+import com.example.jcache.support.SimpleCacheEntryEvent;
+import com.example.jcache.support.SimpleEntry;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.event.EventType;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.EternalExpiryPolicy;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of {@link StripedCachingProvider}.
+ * Reads go straight to a ConcurrentHashMap and take no lock. Every write locks one of a fixed
+ * number of stripes (picked by key hash) around the whole sequence of expiry check, CacheWriter
+ * call, map update and synchronous listener calls, so that sequence is atomic per key while
+ * writes to keys of other stripes run in parallel.
+ * Each mapping carries its expiry time: a read that finds it passed removes the entry and fires
+ * the EXPIRED event itself; the timer wheel reclaims the entries nobody reads anymore.
+ * Concurrent read-through misses of one key share a single CacheLoader call.
+ */
+public class StripedCache<K, V> implements Cache<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(StripedCache.class.getName());
+    private static final int MIN_STRIPES = 16;
+
+    private final String name;
+    private final StripedCacheManager cacheManager;
+    private final MutableConfiguration<K, V> configuration;
+    private final ConcurrentHashMap<K, StoredValue<K, V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final ExpiryPolicy expiryPolicy;
+    private final boolean eternal;
+    private final CacheLoader<K, V> loader;
+    private final CacheWriter<? super K, ? super V> writer;
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final ValueCopier copier;
+    private final List<ListenerRegistration<K, V>> listeners = new CopyOnWriteArrayList<>();
+    private final Executor asyncEvents;
+    private final StripedCacheStatistics statistics = new StripedCacheStatistics();
+    private final ExpiryWheel<StoredValue<K, V>> wheel;
+    private final ScheduledFuture<?> reaper;
+    private volatile boolean statisticsEnabled;
+    private volatile boolean closed;
+
+    StripedCache(String name, StripedCacheManager cacheManager, MutableConfiguration<K, V> configuration) {
+        this.name = name;
+        this.cacheManager = cacheManager;
+        this.configuration = configuration;
+        int stripeCount = MIN_STRIPES;
+        while (stripeCount < 4 * Runtime.getRuntime().availableProcessors()) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.expiryPolicy = configuration.getExpiryPolicyFactory().create();
+        this.eternal = expiryPolicy instanceof EternalExpiryPolicy;
+        Factory<CacheLoader<K, V>> loaderFactory = configuration.getCacheLoaderFactory();
+        this.loader = loaderFactory == null ? null : loaderFactory.create();
+        Factory<CacheWriter<? super K, ? super V>> writerFactory = configuration.getCacheWriterFactory();
+        this.writer = configuration.isWriteThrough() && writerFactory != null ? writerFactory.create() : null;
+        this.copier = configuration.isStoreByValue() ? new ValueCopier(cacheManager.getClassLoader()) : null;
+        for (CacheEntryListenerConfiguration<K, V> listenerConfiguration
+                : configuration.getCacheEntryListenerConfigurations()) {
+            listeners.add(new ListenerRegistration<>(listenerConfiguration));
+        }
+        this.asyncEvents = task -> cacheManager.eventDispatcher().execute(task);
+        this.statisticsEnabled = configuration.isStatisticsEnabled();
+        if (eternal) {
+            this.wheel = null;
+            this.reaper = null;
+        } else {
+            this.wheel = new ExpiryWheel<>(StripedCacheManager.EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+            this.reaper = cacheManager.scheduleExpiry(this::reapExpired);
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        checkOpen();
+        Preconditions.checkNotNull(key, "key");
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        V value = lookup(key);
+        if (value != null) {
+            if (statisticsEnabled) {
+                statistics.recordHit(start);
+            }
+            return copy(value);
+        }
+        if (configuration.isReadThrough() && loader != null) {
+            value = load(key);
+        }
+        if (statisticsEnabled) {
+            statistics.recordMiss(start);
+        }
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        checkOpen();
+        Map<K, V> result = new HashMap<>(keys.size() * 2);
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        checkOpen();
+        StoredValue<K, V> stored = entries.get(Preconditions.checkNotNull(key, "key"));
+        return stored != null && !stored.isExpiredAt(now());
+    }
+
+    /**
+     * Runs on the common fork-join pool; loaded values are stored without calling the CacheWriter.
+     */
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        checkOpen();
+        Preconditions.checkNotNull(keys, "keys");
+        if (loader == null) {
+            if (completionListener != null) {
+                completionListener.onCompletion();
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                Set<K> toLoad = new HashSet<>();
+                for (K key : keys) {
+                    if (replaceExistingValues || !containsKey(key)) {
+                        toLoad.add(key);
+                    }
+                }
+                if (!toLoad.isEmpty()) {
+                    for (Map.Entry<K, V> loaded : loader.loadAll(toLoad).entrySet()) {
+                        if (loaded.getValue() != null) {
+                            storeLoaded(loaded.getKey(), loaded.getValue(), replaceExistingValues);
+                        }
+                    }
+                }
+                if (completionListener != null) {
+                    completionListener.onCompletion();
+                }
+            } catch (Exception e) {
+                if (completionListener != null) {
+                    completionListener.onException(e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void put(K key, V value) {
+        checkOpen();
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        K storedKey = copy(Preconditions.checkNotNull(key, "key"));
+        V storedValue = copy(Preconditions.checkNotNull(value, "value"));
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            StoredValue<K, V> old = liveLocked(key, now);
+            writeThrough(key, value);
+            installLocked(storedKey, storedValue, old, now);
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled) {
+            statistics.recordPut(start);
+        }
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        checkOpen();
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        K storedKey = copy(Preconditions.checkNotNull(key, "key"));
+        V storedValue = copy(Preconditions.checkNotNull(value, "value"));
+        StoredValue<K, V> old;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            old = liveLocked(key, now);
+            writeThrough(key, value);
+            installLocked(storedKey, storedValue, old, now);
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled) {
+            recordGet(old != null, start);
+            statistics.recordPut(start);
+        }
+        return old == null ? null : copy(old.value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        checkOpen();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        checkOpen();
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        K storedKey = copy(Preconditions.checkNotNull(key, "key"));
+        V storedValue = copy(Preconditions.checkNotNull(value, "value"));
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            if (liveLocked(key, now) != null) {
+                return false;
+            }
+            writeThrough(key, value);
+            installLocked(storedKey, storedValue, null, now);
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled) {
+            statistics.recordPut(start);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        return removeEntry(key) != null;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        checkOpen();
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(oldValue, "oldValue");
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            StoredValue<K, V> old = liveLocked(key, now());
+            if (old == null || !old.value.equals(oldValue)) {
+                return false;
+            }
+            deleteThrough(key);
+            unlinkLocked(key, old);
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled) {
+            statistics.recordRemoval(start);
+        }
+        return true;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        StoredValue<K, V> old = removeEntry(key);
+        return old == null ? null : copy(old.value);
+    }
+
+    private StoredValue<K, V> removeEntry(K key) {
+        checkOpen();
+        Preconditions.checkNotNull(key, "key");
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        StoredValue<K, V> old;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            old = liveLocked(key, now());
+            deleteThrough(key);
+            if (old != null) {
+                unlinkLocked(key, old);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled && old != null) {
+            statistics.recordRemoval(start);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Preconditions.checkNotNull(oldValue, "oldValue");
+        return replaceEntry(key, oldValue, newValue) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        return replaceEntry(key, null, value) != null;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        StoredValue<K, V> old = replaceEntry(key, null, value);
+        return old == null ? null : copy(old.value);
+    }
+
+    // replaces the live mapping if there is one and, when expected is given, it equals expected
+    private StoredValue<K, V> replaceEntry(K key, V expected, V value) {
+        checkOpen();
+        long start = statisticsEnabled ? System.nanoTime() : 0;
+        K storedKey = copy(Preconditions.checkNotNull(key, "key"));
+        V storedValue = copy(Preconditions.checkNotNull(value, "value"));
+        StoredValue<K, V> old;
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            old = liveLocked(key, now);
+            if (old == null || (expected != null && !old.value.equals(expected))) {
+                return null;
+            }
+            writeThrough(key, value);
+            installLocked(storedKey, storedValue, old, now);
+        } finally {
+            lock.unlock();
+        }
+        if (statisticsEnabled) {
+            statistics.recordPut(start);
+        }
+        return old;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        checkOpen();
+        for (K key : keys) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        checkOpen();
+        for (K key : entries.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Drops every entry without calling the CacheWriter or the listeners.
+     */
+    @Override
+    public void clear() {
+        checkOpen();
+        entries.clear();
+    }
+
+    @Override
+    public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+        if (clazz.isInstance(configuration)) {
+            synchronized (this) {
+                return clazz.cast(new MutableConfiguration<>(configuration));
+            }
+        }
+        throw new IllegalArgumentException("Unsupported configuration class " + clazz.getName());
+    }
+
+    /**
+     * Runs the processor under the key's stripe lock and applies its outcome (through the writer,
+     * with events) once it returns.
+     */
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+        checkOpen();
+        Preconditions.checkNotNull(key, "key");
+        Preconditions.checkNotNull(entryProcessor, "entryProcessor");
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            ProcessorEntry entry = new ProcessorEntry(key, liveLocked(key, now));
+            T result;
+            try {
+                result = entryProcessor.process(entry, arguments);
+            } catch (EntryProcessorException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new EntryProcessorException(e);
+            }
+            entry.apply(now);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor,
+                                                         Object... arguments) {
+        Map<K, EntryProcessorResult<T>> results = new HashMap<>();
+        for (K key : keys) {
+            try {
+                T result = invoke(key, entryProcessor, arguments);
+                if (result != null) {
+                    results.put(key, () -> result);
+                }
+            } catch (EntryProcessorException e) {
+                results.put(key, () -> {
+                    throw e;
+                });
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        release();
+        cacheManager.release(this);
+        closeQuietly(loader);
+        closeQuietly(writer);
+        for (ListenerRegistration<K, V> registration : listeners) {
+            registration.close();
+        }
+        entries.clear();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + name + " to " + clazz.getName());
+    }
+
+    @Override
+    public synchronized void registerCacheEntryListener(
+            CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        checkOpen();
+        Preconditions.checkNotNull(cacheEntryListenerConfiguration, "cacheEntryListenerConfiguration");
+        configuration.addCacheEntryListenerConfiguration(cacheEntryListenerConfiguration);
+        listeners.add(new ListenerRegistration<>(cacheEntryListenerConfiguration));
+    }
+
+    @Override
+    public synchronized void deregisterCacheEntryListener(
+            CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+        checkOpen();
+        Preconditions.checkNotNull(cacheEntryListenerConfiguration, "cacheEntryListenerConfiguration");
+        configuration.removeCacheEntryListenerConfiguration(cacheEntryListenerConfiguration);
+        for (ListenerRegistration<K, V> registration : listeners) {
+            if (registration.getConfiguration().equals(cacheEntryListenerConfiguration)) {
+                listeners.remove(registration);
+                registration.close();
+            }
+        }
+    }
+
+    /**
+     * Iterates over the live map, skipping entries whose expiry time has passed; remove() removes
+     * from the cache.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        checkOpen();
+        Iterator<StoredValue<K, V>> values = entries.values().iterator();
+        return new Iterator<Entry<K, V>>() {
+            private Entry<K, V> next;
+            private Entry<K, V> last;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && values.hasNext()) {
+                    StoredValue<K, V> stored = values.next();
+                    if (!stored.isExpiredAt(now())) {
+                        next = new SimpleEntry<>(stored.key, copy(stored.value));
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = null;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                Preconditions.checkState(last != null, "next() has not been called");
+                StripedCache.this.remove(last.getKey());
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * Live entries, split by table range for parallel streams. Values are copied like iterator() does.
+     */
+    public Spliterator<Entry<K, V>> entrySpliterator() {
+        return spliterator((key, value) -> new SimpleEntry<>(key, copy(value)), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Keys of the live entries; no value is copied or deserialized.
+     */
+    public Spliterator<K> keySpliterator() {
+        return spliterator((key, value) -> key, Spliterator.DISTINCT);
+    }
+
+    /**
+     * One projection per live entry, computed from the stored value without copying it; null
+     * projections are skipped. Under store-by-value the result is copied instead, which is free for
+     * the immutable JDK types a projection usually returns.
+     * ⚠️ The projection sees the cache's own value instance: it must not modify or keep it.
+     */
+    public <R> Spliterator<R> spliterator(BiFunction<? super K, ? super V, ? extends R> projection) {
+        Preconditions.checkNotNull(projection, "projection");
+        return spliterator((key, value) -> copy(projection.apply(key, value)), 0);
+    }
+
+    // weakly consistent like the map's: mappings changed during the scan may or may not be seen
+    private <R> Spliterator<R> spliterator(BiFunction<? super K, ? super V, ? extends R> projection,
+                                           int characteristics) {
+        checkOpen();
+        return new ScanSpliterator<>(entries.values().spliterator(), projection, now(),
+                characteristics | Spliterator.CONCURRENT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Mappings currently held, including expired ones the timer wheel has not reclaimed yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    StripedCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    synchronized void setStatisticsEnabled(boolean enabled) {
+        statisticsEnabled = enabled;
+        configuration.setStatisticsEnabled(enabled);
+    }
+
+    synchronized void setManagementEnabled(boolean enabled) {
+        configuration.setManagementEnabled(enabled);
+    }
+
+    /**
+     * Stops the expiry reaper; used on close and when the manager discards a cache it created twice.
+     */
+    void release() {
+        if (reaper != null) {
+            reaper.cancel(false);
+        }
+    }
+
+    private void checkOpen() {
+        Preconditions.checkState(!closed, "Cache %s is closed", name);
+    }
+
+    private ReentrantLock lockFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    // eternal caches never look at the clock: every expiry time is StoredValue.ETERNAL
+    private long now() {
+        return eternal ? 0 : System.currentTimeMillis();
+    }
+
+    // store-by-value: keys and values are copied on the way in, values again on the way out
+    private <T> T copy(T object) {
+        return copier == null ? object : copier.copy(object);
+    }
+
+    private void recordGet(boolean hit, long start) {
+        if (hit) {
+            statistics.recordHit(start);
+        } else {
+            statistics.recordMiss(start);
+        }
+    }
+
+    // lock-free read: an expired mapping is removed (under its lock) and reads as absent
+    private V lookup(K key) {
+        StoredValue<K, V> stored = entries.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (!eternal) {
+            long now = System.currentTimeMillis();
+            if (stored.isExpiredAt(now)) {
+                expire(stored, now);
+                return null;
+            }
+            Duration access = expiryForAccess();
+            if (access != null) {
+                stored.expiresAt = expiresAt(access, now);
+            }
+        }
+        return stored.value;
+    }
+
+    private V load(K key) {
+        V loaded;
+        try {
+            loaded = loads.execute(key, loader::load);
+        } catch (CacheLoaderException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new CacheLoaderException(e);
+        }
+        if (loaded != null) {
+            storeLoaded(key, loaded, false);
+        }
+        return loaded;
+    }
+
+    private void storeLoaded(K key, V value, boolean replaceExisting) {
+        K storedKey = copy(key);
+        V storedValue = copy(value);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            long now = now();
+            StoredValue<K, V> old = liveLocked(key, now);
+            if (old == null || replaceExisting) {
+                installLocked(storedKey, storedValue, old, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the live mapping of key, with the stripe lock held; an expired one is removed and reported
+    private StoredValue<K, V> liveLocked(K key, long now) {
+        StoredValue<K, V> stored = entries.get(key);
+        if (stored != null && stored.isExpiredAt(now)) {
+            entries.remove(key, stored);
+            fire(EventType.EXPIRED, stored.key, stored.value, stored.value);
+            return null;
+        }
+        return stored;
+    }
+
+    // makes value the mapping of key, with creation or update expiry, and fires CREATED/UPDATED
+    private void installLocked(K key, V value, StoredValue<K, V> old, long now) {
+        long expiresAt;
+        if (eternal) {
+            expiresAt = StoredValue.ETERNAL;
+        } else if (old == null) {
+            expiresAt = expiresAt(expiryForCreation(), now);
+        } else {
+            Duration update = expiryForUpdate();
+            expiresAt = update == null ? old.expiresAt : expiresAt(update, now);
+        }
+        if (expiresAt <= now) {
+            // a zero duration: the new value is never visible, the old one is gone
+            if (old != null) {
+                unlinkLocked(old.key, old);
+            }
+            return;
+        }
+        StoredValue<K, V> stored = new StoredValue<>(key, value, expiresAt);
+        if (expiresAt != StoredValue.ETERNAL) {
+            // one pending timeout per key: an update keeps the old one unless it would fire too late
+            long pending = old == null ? 0 : old.timerDeadline;
+            if (pending == 0 || pending > expiresAt) {
+                pending = expiresAt;
+                wheel.schedule(stored, expiresAt);
+            }
+            stored.timerDeadline = pending;
+        }
+        entries.put(key, stored);
+        if (old == null) {
+            fire(EventType.CREATED, key, value, null);
+        } else {
+            fire(EventType.UPDATED, key, value, old.value);
+        }
+    }
+
+    private void unlinkLocked(K key, StoredValue<K, V> old) {
+        if (entries.remove(key, old)) {
+            fire(EventType.REMOVED, old.key, old.value, old.value);
+        }
+    }
+
+    private void expire(StoredValue<K, V> stored, long now) {
+        ReentrantLock lock = lockFor(stored.key);
+        lock.lock();
+        try {
+            if (stored.isExpiredAt(now) && entries.remove(stored.key, stored)) {
+                fire(EventType.EXPIRED, stored.key, stored.value, stored.value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // runs on the manager's reaper thread every tick
+    private void reapExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            wheel.advance(now, scheduled -> onTimeout(scheduled, now));
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic task for good
+            LOGGER.log(Level.WARNING, "Expiry reaper of cache " + name + " failed", e);
+        }
+    }
+
+    // the timeout may belong to an older mapping of the key, which handed it on to the current one
+    private void onTimeout(StoredValue<K, V> scheduled, long now) {
+        ReentrantLock lock = lockFor(scheduled.key);
+        lock.lock();
+        try {
+            StoredValue<K, V> current = entries.get(scheduled.key);
+            if (current == null || current.timerDeadline != scheduled.timerDeadline) {
+                return; // removed, or another timeout is pending for the key
+            }
+            if (current.isExpiredAt(now)) {
+                entries.remove(current.key, current);
+                fire(EventType.EXPIRED, current.key, current.value, current.value);
+            } else if (current.expiresAt != StoredValue.ETERNAL) {
+                // updated or accessed since: wait for the new deadline
+                current.timerDeadline = current.expiresAt;
+                wheel.schedule(current, current.expiresAt);
+            } else {
+                current.timerDeadline = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fire(EventType type, K key, V value, V oldValue) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        SimpleCacheEntryEvent<K, V> event = new SimpleCacheEntryEvent<>(this, type, key, value, oldValue);
+        for (ListenerRegistration<K, V> registration : listeners) {
+            registration.deliver(event, asyncEvents);
+        }
+    }
+
+    private void writeThrough(K key, V value) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(new SimpleEntry<>(key, value));
+        } catch (CacheWriterException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new CacheWriterException(e);
+        }
+    }
+
+    private void deleteThrough(K key) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.delete(key);
+        } catch (CacheWriterException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new CacheWriterException(e);
+        }
+    }
+
+    private static long expiresAt(Duration duration, long now) {
+        return duration.isEternal() ? StoredValue.ETERNAL : duration.getAdjustedTime(now);
+    }
+
+    // JSR 107: a failing policy makes a new entry expire at once and leaves existing ones unchanged
+    private Duration expiryForCreation() {
+        try {
+            Duration duration = expiryPolicy.getExpiryForCreation();
+            return duration == null ? Duration.ETERNAL : duration;
+        } catch (RuntimeException e) {
+            return Duration.ZERO;
+        }
+    }
+
+    private Duration expiryForUpdate() {
+        try {
+            return expiryPolicy.getExpiryForUpdate();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Duration expiryForAccess() {
+        try {
+            return expiryPolicy.getExpiryForAccess();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(Object resource) {
+        if (resource instanceof Closeable) {
+            try {
+                ((Closeable) resource).close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not close " + resource, e);
+            }
+        }
+    }
+
+    /**
+     * MutableEntry handed to an EntryProcessor; changes are applied when the processor returns.
+     */
+    private final class ProcessorEntry implements MutableEntry<K, V> {
+        private final K key;
+        private final StoredValue<K, V> original;
+        private V value;
+        private Operation operation = Operation.NONE;
+
+        private ProcessorEntry(K key, StoredValue<K, V> original) {
+            this.key = key;
+            this.original = original;
+            this.value = original == null ? null : original.value;
+        }
+
+        @Override
+        public boolean exists() {
+            return value != null;
+        }
+
+        /**
+         * With read-through, reading an absent entry loads it (on this thread, under the lock).
+         */
+        @Override
+        public V getValue() {
+            if (value == null && operation == Operation.NONE && configuration.isReadThrough() && loader != null) {
+                value = loader.load(key);
+                if (value != null) {
+                    operation = Operation.LOAD;
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public void setValue(V value) {
+            this.value = Preconditions.checkNotNull(value, "value");
+            operation = Operation.UPDATE;
+        }
+
+        @Override
+        public void remove() {
+            value = null;
+            operation = Operation.REMOVE;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> clazz) {
+            if (clazz.isInstance(this)) {
+                return clazz.cast(this);
+            }
+            throw new IllegalArgumentException("Cannot unwrap entry to " + clazz.getName());
+        }
+
+        private void apply(long now) {
+            switch (operation) {
+                case UPDATE:
+                    writeThrough(key, value);
+                    installLocked(copy(key), copy(value), original, now);
+                    break;
+                case LOAD:
+                    installLocked(copy(key), copy(value), null, now);
+                    break;
+                case REMOVE:
+                    if (original != null) {
+                        deleteThrough(key);
+                        unlinkLocked(key, original);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private enum Operation {
+        NONE, LOAD, UPDATE, REMOVE
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.jcache.striped;
+
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.management.CacheMXBean;
+
+/**
+ * CacheMXBean of a {@link StripedCache}: its configuration, read-only.
+ */
+final class StripedCacheManagement implements CacheMXBean {
+    private final StripedCache<?, ?> cache;
+
+    StripedCacheManagement(StripedCache<?, ?> cache) {
+        this.cache = cache;
+    }
+
+    // the raw class literal cannot name the cache's key and value types
+    @SuppressWarnings("unchecked")
+    private CompleteConfiguration<?, ?> configuration() {
+        return cache.getConfiguration(CompleteConfiguration.class);
+    }
+
+    @Override
+    public String getKeyType() {
+        return configuration().getKeyType().getName();
+    }
+
+    @Override
+    public String getValueType() {
+        return configuration().getValueType().getName();
+    }
+
+    @Override
+    public boolean isReadThrough() {
+        return configuration().isReadThrough();
+    }
+
+    @Override
+    public boolean isWriteThrough() {
+        return configuration().isWriteThrough();
+    }
+
+    @Override
+    public boolean isStoreByValue() {
+        return configuration().isStoreByValue();
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return configuration().isStatisticsEnabled();
+    }
+
+    @Override
+    public boolean isManagementEnabled() {
+        return configuration().isManagementEnabled();
+    }
+}
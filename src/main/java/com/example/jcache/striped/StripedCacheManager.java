@@ -0,0 +1,283 @@
+package com.example.jcache.striped;
+
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.CacheException;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CompleteConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.spi.CachingProvider;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * CacheManager of {@link StripedCachingProvider}. Besides the caches it owns two daemon threads,
+ * both started on first use: the expiry reaper that advances the caches' timer wheels, and the
+ * dispatcher for listeners registered as asynchronous.
+ */
+public class StripedCacheManager implements CacheManager {
+    private static final Logger LOGGER = Logger.getLogger(StripedCacheManager.class.getName());
+    static final long EXPIRY_TICK_MILLIS = 100;
+
+    private final StripedCachingProvider provider;
+    private final URI uri;
+    private final ClassLoader classLoader;
+    private final Properties properties;
+    private final ConcurrentMap<String, StripedCache<?, ?>> caches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService expiryReaper;
+    private ExecutorService eventDispatcher;
+    private volatile boolean closed;
+
+    StripedCacheManager(StripedCachingProvider provider, URI uri, ClassLoader classLoader, Properties properties) {
+        this.provider = provider;
+        this.uri = uri;
+        this.classLoader = classLoader;
+        this.properties = properties;
+    }
+
+    @Override
+    public CachingProvider getCachingProvider() {
+        return provider;
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public Properties getProperties() {
+        return properties;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V, C extends Configuration<K, V>> Cache<K, V> createCache(String cacheName, C configuration) {
+        checkOpen();
+        Preconditions.checkNotNull(cacheName, "cacheName");
+        Preconditions.checkNotNull(configuration, "configuration");
+        MutableConfiguration<K, V> copy = configuration instanceof CompleteConfiguration
+                ? new MutableConfiguration<>((CompleteConfiguration<K, V>) configuration)
+                : new MutableConfiguration<K, V>()
+                .setTypes(configuration.getKeyType(), configuration.getValueType())
+                .setStoreByValue(configuration.isStoreByValue());
+        StripedCache<K, V> cache = new StripedCache<>(cacheName, this, copy);
+        if (caches.putIfAbsent(cacheName, cache) != null) {
+            cache.release();
+            throw new CacheException("A cache named " + cacheName + " already exists");
+        }
+        if (copy.isStatisticsEnabled()) {
+            registerMBean(cache, "CacheStatistics", cache.getStatistics());
+        }
+        if (copy.isManagementEnabled()) {
+            registerMBean(cache, "CacheConfiguration", new StripedCacheManagement(cache));
+        }
+        return cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        checkOpen();
+        Preconditions.checkNotNull(keyType, "keyType");
+        Preconditions.checkNotNull(valueType, "valueType");
+        StripedCache<?, ?> cache = caches.get(Preconditions.checkNotNull(cacheName, "cacheName"));
+        if (cache == null) {
+            return null;
+        }
+        Configuration<?, ?> configuration = cache.getConfiguration(CompleteConfiguration.class);
+        if (!keyType.equals(configuration.getKeyType()) || !valueType.equals(configuration.getValueType())) {
+            throw new ClassCastException("Cache " + cacheName + " has types " + configuration.getKeyType().getName()
+                    + "/" + configuration.getValueType().getName());
+        }
+        return (Cache<K, V>) cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Cache<K, V> getCache(String cacheName) {
+        checkOpen();
+        return (Cache<K, V>) caches.get(Preconditions.checkNotNull(cacheName, "cacheName"));
+    }
+
+    @Override
+    public Iterable<String> getCacheNames() {
+        checkOpen();
+        return Collections.unmodifiableList(new ArrayList<>(caches.keySet()));
+    }
+
+    @Override
+    public void destroyCache(String cacheName) {
+        checkOpen();
+        StripedCache<?, ?> cache = caches.get(Preconditions.checkNotNull(cacheName, "cacheName"));
+        if (cache != null) {
+            cache.clear();
+            cache.close();
+        }
+    }
+
+    @Override
+    public void enableManagement(String cacheName, boolean enabled) {
+        checkOpen();
+        StripedCache<?, ?> cache = caches.get(Preconditions.checkNotNull(cacheName, "cacheName"));
+        if (cache != null) {
+            cache.setManagementEnabled(enabled);
+            if (enabled) {
+                registerMBean(cache, "CacheConfiguration", new StripedCacheManagement(cache));
+            } else {
+                unregisterMBean(cache, "CacheConfiguration");
+            }
+        }
+    }
+
+    @Override
+    public void enableStatistics(String cacheName, boolean enabled) {
+        checkOpen();
+        StripedCache<?, ?> cache = caches.get(Preconditions.checkNotNull(cacheName, "cacheName"));
+        if (cache != null) {
+            cache.setStatisticsEnabled(enabled);
+            if (enabled) {
+                registerMBean(cache, "CacheStatistics", cache.getStatistics());
+            } else {
+                unregisterMBean(cache, "CacheStatistics");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (StripedCache<?, ?> cache : new ArrayList<>(caches.values())) {
+            cache.close();
+        }
+        synchronized (this) {
+            if (expiryReaper != null) {
+                expiryReaper.shutdownNow();
+            }
+            if (eventDispatcher != null) {
+                eventDispatcher.shutdown();
+            }
+        }
+        provider.release(this);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + uri + " to " + clazz.getName());
+    }
+
+    /**
+     * Advances the cache's timer wheel every {@link #EXPIRY_TICK_MILLIS} until the cache is closed.
+     */
+    synchronized ScheduledFuture<?> scheduleExpiry(Runnable reap) {
+        if (expiryReaper == null) {
+            expiryReaper = Executors.newSingleThreadScheduledExecutor(daemon("striped-cache-expiry"));
+        }
+        return expiryReaper.scheduleAtFixedRate(reap, EXPIRY_TICK_MILLIS, EXPIRY_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Single thread, so asynchronous listeners see the events in the order the caches produced them.
+     */
+    synchronized ExecutorService eventDispatcher() {
+        if (eventDispatcher == null) {
+            eventDispatcher = Executors.newSingleThreadExecutor(daemon("striped-cache-events"));
+        }
+        return eventDispatcher;
+    }
+
+    /**
+     * Called by a cache once it is closed.
+     */
+    void release(StripedCache<?, ?> cache) {
+        if (caches.remove(cache.getName(), cache)) {
+            unregisterMBean(cache, "CacheStatistics");
+            unregisterMBean(cache, "CacheConfiguration");
+        }
+    }
+
+    private void checkOpen() {
+        Preconditions.checkState(!closed, "CacheManager %s is closed", uri);
+    }
+
+    private ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + uri);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // same naming scheme as Ehcache, so JMX clients such as StatisticsExample find the beans
+    private ObjectName objectName(StripedCache<?, ?> cache, String type) throws MalformedObjectNameException {
+        return new ObjectName("javax.cache:type=" + type + ",CacheManager=" + sanitize(uri.toString())
+                + ",Cache=" + sanitize(cache.getName()));
+    }
+
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replaceAll("[,:=\n]", ".");
+    }
+
+    private void registerMBean(StripedCache<?, ?> cache, String type, Object bean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = objectName(cache, type);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(bean, name);
+            }
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                 | NotCompliantMBeanException e) {
+            throw new CacheException("Could not register " + type + " MBean of " + cache.getName(), e);
+        }
+    }
+
+    private void unregisterMBean(StripedCache<?, ?> cache, String type) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = objectName(cache, type);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (MalformedObjectNameException | InstanceNotFoundException | MBeanRegistrationException e) {
+            LOGGER.log(Level.WARNING, "Could not unregister " + type + " MBean of " + cache.getName(), e);
+        }
+    }
+}
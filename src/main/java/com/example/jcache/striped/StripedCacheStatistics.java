@@ -0,0 +1,114 @@
+package com.example.jcache.striped;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters behind a cache's CacheStatisticsMXBean. LongAdders, so concurrent hits on different
+ * cores do not contend on one counter; the StripedCache only records while statistics are enabled.
+ */
+final class StripedCacheStatistics implements CacheStatisticsMXBean {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final LongAdder getNanos = new LongAdder();
+    private final LongAdder putNanos = new LongAdder();
+    private final LongAdder removeNanos = new LongAdder();
+
+    void recordHit(long startNanos) {
+        hits.increment();
+        getNanos.add(System.nanoTime() - startNanos);
+    }
+
+    void recordMiss(long startNanos) {
+        misses.increment();
+        getNanos.add(System.nanoTime() - startNanos);
+    }
+
+    void recordPut(long startNanos) {
+        puts.increment();
+        putNanos.add(System.nanoTime() - startNanos);
+    }
+
+    void recordRemoval(long startNanos) {
+        removals.increment();
+        removeNanos.add(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void clear() {
+        hits.reset();
+        misses.reset();
+        puts.reset();
+        removals.reset();
+        getNanos.reset();
+        putNanos.reset();
+        removeNanos.reset();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public float getCacheHitPercentage() {
+        long gets = getCacheGets();
+        return gets == 0 ? 0 : 100f * getCacheHits() / gets;
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public float getCacheMissPercentage() {
+        long gets = getCacheGets();
+        return gets == 0 ? 0 : 100f * getCacheMisses() / gets;
+    }
+
+    @Override
+    public long getCacheGets() {
+        return hits.sum() + misses.sum();
+    }
+
+    @Override
+    public long getCachePuts() {
+        return puts.sum();
+    }
+
+    @Override
+    public long getCacheRemovals() {
+        return removals.sum();
+    }
+
+    /**
+     * Always 0: the cache has no size bound, entries only leave by removal or expiry.
+     */
+    @Override
+    public long getCacheEvictions() {
+        return 0;
+    }
+
+    @Override
+    public float getAverageGetTime() {
+        return averageMicros(getNanos.sum(), getCacheGets());
+    }
+
+    @Override
+    public float getAveragePutTime() {
+        return averageMicros(putNanos.sum(), getCachePuts());
+    }
+
+    @Override
+    public float getAverageRemoveTime() {
+        return averageMicros(removeNanos.sum(), getCacheRemovals());
+    }
+
+    private static float averageMicros(long totalNanos, long count) {
+        return count == 0 ? 0 : (float) totalNanos / count / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.jcache.striped;
+
+import javax.cache.CacheManager;
+import javax.cache.configuration.OptionalFeature;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+/**
+ * 🔹 Lock-striped in-process CachingProvider
+ * A small JCache implementation to compare against Ehcache: entries live in a ConcurrentHashMap
+ * (lock-free reads), writes serialize per key on one of a fixed set of striped locks, expiry is a
+ * timestamp per entry checked on read and reclaimed in the background by a timer wheel.
+ * It is deliberately not listed in META-INF/services, so Caching.getCachingProvider() still returns
+ * Ehcache; select it by class name:
+ * <pre>
+ * CachingProvider provider = Caching.getCachingProvider(StripedCachingProvider.class.getName());
+ * </pre>
+ * ⚠️ Once loaded, JCache knows two providers: Caching.getCachingProvider() without a name then fails
+ * with "Multiple CachingProviders", so name Ehcache explicitly as well in code that uses both.
+ * ⚠️ On-heap only, no size bound or eviction, and no XML configuration: the URI only names the manager.
+ */
+public class StripedCachingProvider implements CachingProvider {
+    static final URI DEFAULT_URI = URI.create("urn:X-striped:default");
+
+    private final Map<ClassLoader, Map<URI, StripedCacheManager>> cacheManagers = new WeakHashMap<>();
+
+    @Override
+    public synchronized CacheManager getCacheManager(URI uri, ClassLoader classLoader, Properties properties) {
+        URI managerUri = uri == null ? getDefaultURI() : uri;
+        ClassLoader managerClassLoader = classLoader == null ? getDefaultClassLoader() : classLoader;
+        Map<URI, StripedCacheManager> byUri = cacheManagers.computeIfAbsent(managerClassLoader, loader -> new HashMap<>());
+        StripedCacheManager cacheManager = byUri.get(managerUri);
+        if (cacheManager == null) {
+            Properties managerProperties = new Properties();
+            if (properties != null) {
+                managerProperties.putAll(properties);
+            }
+            cacheManager = new StripedCacheManager(this, managerUri, managerClassLoader, managerProperties);
+            byUri.put(managerUri, cacheManager);
+        }
+        return cacheManager;
+    }
+
+    @Override
+    public CacheManager getCacheManager(URI uri, ClassLoader classLoader) {
+        return getCacheManager(uri, classLoader, getDefaultProperties());
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return getCacheManager(getDefaultURI(), getDefaultClassLoader());
+    }
+
+    @Override
+    public ClassLoader getDefaultClassLoader() {
+        return getClass().getClassLoader();
+    }
+
+    @Override
+    public URI getDefaultURI() {
+        return DEFAULT_URI;
+    }
+
+    @Override
+    public Properties getDefaultProperties() {
+        return new Properties();
+    }
+
+    @Override
+    public void close() {
+        List<StripedCacheManager> open = new ArrayList<>();
+        synchronized (this) {
+            for (Map<URI, StripedCacheManager> byUri : cacheManagers.values()) {
+                open.addAll(byUri.values());
+            }
+        }
+        open.forEach(StripedCacheManager::close);
+    }
+
+    @Override
+    public void close(ClassLoader classLoader) {
+        List<StripedCacheManager> open = new ArrayList<>();
+        synchronized (this) {
+            Map<URI, StripedCacheManager> byUri = cacheManagers.get(
+                    classLoader == null ? getDefaultClassLoader() : classLoader);
+            if (byUri != null) {
+                open.addAll(byUri.values());
+            }
+        }
+        open.forEach(StripedCacheManager::close);
+    }
+
+    @Override
+    public void close(URI uri, ClassLoader classLoader) {
+        StripedCacheManager cacheManager;
+        synchronized (this) {
+            Map<URI, StripedCacheManager> byUri = cacheManagers.get(
+                    classLoader == null ? getDefaultClassLoader() : classLoader);
+            cacheManager = byUri == null ? null : byUri.get(uri == null ? getDefaultURI() : uri);
+        }
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    /**
+     * Entries are stored by reference unless the configuration asks for store-by-value.
+     */
+    @Override
+    public boolean isSupported(OptionalFeature optionalFeature) {
+        return optionalFeature == OptionalFeature.STORE_BY_REFERENCE;
+    }
+
+    /**
+     * Called by a manager once it is closed, so the next getCacheManager creates a fresh one.
+     */
+    synchronized void release(StripedCacheManager cacheManager) {
+        Map<URI, StripedCacheManager> byUri = cacheManagers.get(cacheManager.getClassLoader());
+        if (byUri != null) {
+            byUri.remove(cacheManager.getURI(), cacheManager);
+            if (byUri.isEmpty()) {
+                cacheManagers.remove(cacheManager.getClassLoader());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.jcache.striped;
+
+import com.example.jcache.listener.MyListener;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Choosing a CachingProvider by class name
+ * Caching.getCachingProvider() returns the provider found on the classpath (Ehcache here).
+ * Caching.getCachingProvider(className) loads a specific one, so the same JCache code runs on
+ * {@link StripedCachingProvider} instead.
+ * The cache below expires entries 2 seconds after creation: nobody reads them again, yet
+ * MyListener.onExpired runs for each of them once the timer wheel reaches their deadline.
+ */
+public class StripedProviderExample {
+    private static final Logger LOGGER = Logger.getLogger(StripedProviderExample.class.getName());
+
+    public static void main(String[] args) {
+        try (CachingProvider provider = Caching.getCachingProvider(StripedCachingProvider.class.getName())) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                MutableConfiguration<String, String> cacheConfiguration = new MutableConfiguration<String, String>()
+                        .setTypes(String.class, String.class)
+                        .setStatisticsEnabled(true)
+                        .setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, 2)))
+                        .addCacheEntryListenerConfiguration(new MutableCacheEntryListenerConfiguration<>(
+                                FactoryBuilder.factoryOf(MyListener.class), null, false, true));
+
+                try (Cache<String, String> cache = cacheManager.createCache("stripedCache", cacheConfiguration)) {
+                    for (int i = 0; i < 3; i++) {
+                        cache.put("key" + i, "value" + i);
+                    }
+                    LOGGER.log(Level.INFO, "key1 → {0}", cache.get("key1"));
+
+                    Thread.sleep(2_500);
+                    LOGGER.log(Level.INFO, "{0} entries left after expiry",
+                            cache.unwrap(StripedCache.class).size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.severe(e.getMessage());
+        }
+    }
+}
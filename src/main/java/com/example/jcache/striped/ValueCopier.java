@@ -0,0 +1,69 @@
+package com.example.jcache.striped;
+
+import javax.cache.CacheException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+
+/**
+ * Store-by-value copies: values of immutable JDK types are shared as they are, anything else is
+ * copied through Java serialization with the cache manager's class loader.
+ */
+final class ValueCopier {
+    private final ClassLoader classLoader;
+
+    ValueCopier(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T copy(T value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new CacheException("Store-by-value needs a Serializable value, got " + value.getClass().getName());
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            try (ObjectInputStream in = new ClassLoaderObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray()), classLoader)) {
+                return (T) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new CacheException("Could not copy " + value.getClass().getName(), e);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof Double || value instanceof Float
+                || value instanceof Boolean || value instanceof Character || value instanceof Enum;
+    }
+
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(description.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(description);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.jcache.support;
+
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Factory;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEventFilter;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A listener created from its CacheEntryListenerConfiguration, with its optional filter.
+ * Synchronous listeners run on the writing thread before the cache operation returns; the others
+ * run on the executor the cache passes in, e.g. its manager's single event thread.
+ */
+public final class ListenerRegistration<K, V> {
+    private static final Logger LOGGER = Logger.getLogger(ListenerRegistration.class.getName());
+
+    private final CacheEntryListenerConfiguration<K, V> configuration;
+    private final CacheEntryListener<? super K, ? super V> listener;
+    private final CacheEntryEventFilter<? super K, ? super V> filter;
+
+    public ListenerRegistration(CacheEntryListenerConfiguration<K, V> configuration) {
+        this.configuration = configuration;
+        this.listener = configuration.getCacheEntryListenerFactory().create();
+        Factory<CacheEntryEventFilter<? super K, ? super V>> filterFactory =
+                configuration.getCacheEntryEventFilterFactory();
+        this.filter = filterFactory == null ? null : filterFactory.create();
+    }
+
+    public CacheEntryListenerConfiguration<K, V> getConfiguration() {
+        return configuration;
+    }
+
+    public void deliver(SimpleCacheEntryEvent<K, V> event, Executor asyncExecutor) {
+        if (!accepts(event)) {
+            return;
+        }
+        SimpleCacheEntryEvent<K, V> delivered = configuration.isOldValueRequired() ? event : event.withoutOldValue();
+        if (configuration.isSynchronous()) {
+            dispatch(delivered);
+        } else {
+            asyncExecutor.execute(() -> {
+                try {
+                    dispatch(delivered);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Asynchronous listener failed on " + delivered.getEventType(), e);
+                }
+            });
+        }
+    }
+
+    private boolean accepts(SimpleCacheEntryEvent<K, V> event) {
+        switch (event.getEventType()) {
+            case CREATED:
+                return listener instanceof CacheEntryCreatedListener && (filter == null || filter.evaluate(event));
+            case UPDATED:
+                return listener instanceof CacheEntryUpdatedListener && (filter == null || filter.evaluate(event));
+            case REMOVED:
+                return listener instanceof CacheEntryRemovedListener && (filter == null || filter.evaluate(event));
+            case EXPIRED:
+                return listener instanceof CacheEntryExpiredListener && (filter == null || filter.evaluate(event));
+            default:
+                return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void dispatch(SimpleCacheEntryEvent<K, V> event) {
+        switch (event.getEventType()) {
+            case CREATED:
+                ((CacheEntryCreatedListener<K, V>) listener).onCreated(Collections.singletonList(event));
+                break;
+            case UPDATED:
+                ((CacheEntryUpdatedListener<K, V>) listener).onUpdated(Collections.singletonList(event));
+                break;
+            case REMOVED:
+                ((CacheEntryRemovedListener<K, V>) listener).onRemoved(Collections.singletonList(event));
+                break;
+            case EXPIRED:
+                ((CacheEntryExpiredListener<K, V>) listener).onExpired(Collections.singletonList(event));
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void close() {
+        if (listener instanceof Closeable) {
+            try {
+                ((Closeable) listener).close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not close listener " + listener, e);
+            }
+        }
+    }
+}
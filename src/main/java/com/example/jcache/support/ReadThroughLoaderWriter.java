@@ -0,0 +1,44 @@
+package com.example.jcache.support;
+
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+
+import javax.cache.integration.CacheLoader;
+import java.util.Map;
+
+/**
+ * Read-through for an Ehcache-configured cache (Eh107Configuration.fromEhcacheCacheConfiguration),
+ * which takes an Ehcache loader-writer rather than a JCache loader. Writes go nowhere.
+ */
+public class ReadThroughLoaderWriter<K, V> implements CacheLoaderWriter<K, V> {
+    private final CacheLoader<K, V> loader;
+
+    public ReadThroughLoaderWriter(CacheLoader<K, V> loader) {
+        this.loader = loader;
+    }
+
+    @Override
+    public V load(K key) {
+        return loader.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) {
+        return loader.loadAll(keys);
+    }
+
+    @Override
+    public void write(K key, V value) {
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends K, ? extends V>> entries) {
+    }
+
+    @Override
+    public void delete(K key) {
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends K> keys) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.jcache.support;
+
+import javax.cache.Cache;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.EventType;
+
+/**
+ * Event a cache implementation hands to its listeners through a {@link ListenerRegistration}.
+ */
+public final class SimpleCacheEntryEvent<K, V> extends CacheEntryEvent<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    // typed copy of the EventObject source, which getSource() only returns raw; transient like it
+    private final transient Cache<K, V> cache;
+    private final K key;
+    private final V value;
+    private final V oldValue;
+
+    public SimpleCacheEntryEvent(Cache<K, V> source, EventType eventType, K key, V value, V oldValue) {
+        super(source, eventType);
+        this.cache = source;
+        this.key = key;
+        this.value = value;
+        this.oldValue = oldValue;
+    }
+
+    /**
+     * The same event for a listener that did not ask for old values.
+     */
+    SimpleCacheEntryEvent<K, V> withoutOldValue() {
+        return oldValue == null ? this : new SimpleCacheEntryEvent<>(cache, getEventType(), key, value, null);
+    }
+
+    @Override
+    public K getKey() {
+        return key;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public V getOldValue() {
+        return oldValue;
+    }
+
+    @Override
+    public boolean isOldValueAvailable() {
+        return oldValue != null;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap event to " + clazz.getName());
+    }
+}
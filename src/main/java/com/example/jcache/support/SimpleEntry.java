@@ -0,0 +1,57 @@
+package com.example.jcache.support;
+
+import javax.cache.Cache;
+import java.util.Objects;
+
+/**
+ * Immutable {@link Cache.Entry} for handing key/value pairs to writers, listeners and iterators.
+ */
+public final class SimpleEntry<K, V> implements Cache.Entry<K, V> {
+    private final K key;
+    private final V value;
+
+    public SimpleEntry(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+        return key;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        if (clazz.isInstance(this)) {
+            return clazz.cast(this);
+        }
+        throw new IllegalArgumentException("Cannot unwrap entry to " + clazz.getName());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SimpleEntry)) {
+            return false;
+        }
+        SimpleEntry<?, ?> that = (SimpleEntry<?, ?>) o;
+        return Objects.equals(key, that.key) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.jcache.tiered;
+
+import com.example.jcache.support.ForwardingCache;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 Two-level cache
+ * A small on-heap L1 in front of a larger L2 JCache cache (a big heap, an off-heap or disk tier,
+ * another provider), so the hottest entries are served without the L2's copying, serialization or
+ * store lookups while the L2 still holds the long tail:
+ * L1 hit → the value, nothing else is touched;
+ * L1 miss → L2 get (or read-through load), and the value is promoted into the L1;
+ * put / remove / replace / invoke → applied to the L2 first, then the key is dropped from the L1,
+ * so the L2 stays the system of record and the next read promotes the new value.
+ * The L1 is split into stripes by key hash. A hit is one ConcurrentHashMap lookup without a lock;
+ * each stripe evicts with CLOCK (an entry read since the hand last passed gets a second chance)
+ * under its own lock, taken only by promotions and invalidations. L1 entries also live at most l1TimeToLive, which
+ * bounds how long the L1 can serve a value the L2 has since expired.
+ * A synchronous listener on the L2 drops keys updated, removed or expired through any other path
+ * (direct L2 writes, the L2's own expiry), and a promotion that raced with a write to the same
+ * stripe is discarded, so the L1 never keeps a value older than the L2's.
+ * <pre>
+ * Cache&lt;String, String&gt; ops = new TwoLevelCache&lt;&gt;(cacheManager.getCache("expensiveOps"),
+ *         1_000, 30, TimeUnit.SECONDS);
+ * </pre>
+ * ⚠️ Values are shared by reference with the L1 even when the L2 stores by value: treat them as read-only.
+ * ⚠️ A get answered by read-through counts as an L2 hit, because the caller got a value.
+ */
+public class TwoLevelCache<K, V> extends ForwardingCache<K, V> {
+    private static final int MIN_STRIPE_ENTRIES = 16;
+
+    private final Stripe<K, V>[] stripes;
+    private final int stripeMask;
+    private final long l1TimeToLiveNanos;
+    private final CacheEntryListenerConfiguration<K, V> invalidatorConfiguration;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param l2           the larger cache, which every write goes to
+     * @param l1MaxEntries entries the L1 holds across all its stripes
+     * @param l1TimeToLive longest an entry stays in the L1 after promotion, 0 for no limit
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TwoLevelCache(Cache<K, V> l2, long l1MaxEntries, long l1TimeToLive, TimeUnit unit) {
+        super(l2);
+        Preconditions.checkArgument(l1MaxEntries > 0, "l1MaxEntries must be positive");
+        Preconditions.checkArgument(l1TimeToLive >= 0, "l1TimeToLive must not be negative");
+        int stripeCount = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2),
+                Math.max(1, Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE, l1MaxEntries / MIN_STRIPE_ENTRIES))));
+        this.stripes = new Stripe[stripeCount];
+        long perStripe = Math.max(1, l1MaxEntries / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(perStripe);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.l1TimeToLiveNanos = l1TimeToLive == 0 ? Long.MAX_VALUE : unit.toNanos(l1TimeToLive);
+
+        Invalidator<K, V> invalidator = new Invalidator<>(this);
+        Factory<Invalidator<K, V>> invalidatorFactory = () -> invalidator;
+        // synchronous, so the L1 copy is gone before a write to the L2 returns
+        this.invalidatorConfiguration = new MutableCacheEntryListenerConfiguration<>(invalidatorFactory, null, false, true);
+        l2.registerCacheEntryListener(invalidatorConfiguration);
+    }
+
+    @Override
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeOf(Preconditions.checkNotNull(key, "key"));
+        V value = stripe.get(key, System.nanoTime());
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        long stamp = stripe.stamp;
+        value = super.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            l2Hits.increment();
+            stripe.promote(key, value, stamp, System.nanoTime() + l1TimeToLiveNanos);
+        }
+        return value;
+    }
+
+    /**
+     * L1 hits locally, the rest with one getAll on the L2.
+     */
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        Map<K, V> values = new HashMap<>();
+        Set<K> remote = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (K key : keys) {
+            V value = stripeOf(Preconditions.checkNotNull(key, "key")).get(key, now);
+            if (value == null) {
+                remote.add(key);
+            } else {
+                values.put(key, value);
+            }
+        }
+        l1Hits.add(values.size());
+        if (remote.isEmpty()) {
+            return values;
+        }
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].stamp;
+        }
+        Map<K, V> loaded = super.getAll(remote);
+        l2Hits.add(loaded.size());
+        misses.add(remote.size() - loaded.size());
+        long expiresAt = System.nanoTime() + l1TimeToLiveNanos;
+        for (Map.Entry<K, V> entry : loaded.entrySet()) {
+            int index = stripeIndex(entry.getKey());
+            stripes[index].promote(entry.getKey(), entry.getValue(), stamps[index], expiresAt);
+        }
+        values.putAll(loaded);
+        return values;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return stripeOf(key).get(key, System.nanoTime()) != null || super.containsKey(key);
+    }
+
+    @Override
+    public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+        super.loadAll(keys, replaceExistingValues, completionListener);
+        if (replaceExistingValues) {
+            for (K key : keys) {
+                invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        super.put(key, value);
+        invalidate(key);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        V previous = super.getAndPut(key, value);
+        invalidate(key);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        super.putAll(map);
+        for (K key : map.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean removed = super.remove(key);
+        invalidate(key);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        boolean removed = super.remove(key, oldValue);
+        invalidate(key);
+        return removed;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        V previous = super.getAndRemove(key);
+        invalidate(key);
+        return previous;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        boolean replaced = super.replace(key, oldValue, newValue);
+        invalidate(key);
+        return replaced;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        boolean replaced = super.replace(key, value);
+        invalidate(key);
+        return replaced;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        V previous = super.getAndReplace(key, value);
+        invalidate(key);
+        return previous;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        super.removeAll(keys);
+        for (K key : keys) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        super.removeAll();
+        clearL1();
+    }
+
+    @Override
+    public void clear() {
+        // clear() fires no events
+        super.clear();
+        clearL1();
+    }
+
+    @Override
+    public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments) throws EntryProcessorException {
+        try {
+            return super.invoke(key, entryProcessor, arguments);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public <T> Map<K, EntryProcessorResult<T>> invokeAll(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor,
+                                                         Object... arguments) {
+        try {
+            return super.invokeAll(keys, entryProcessor, arguments);
+        } finally {
+            for (K key : keys) {
+                invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!isClosed()) {
+            deregisterCacheEntryListener(invalidatorConfiguration);
+        }
+        clearL1();
+        super.close();
+    }
+
+    /**
+     * Gets answered by the L1.
+     */
+    public long getL1HitCount() {
+        return l1Hits.sum();
+    }
+
+    /**
+     * Gets the L1 missed and the L2 answered, including read-through loads.
+     */
+    public long getL2HitCount() {
+        return l2Hits.sum();
+    }
+
+    /**
+     * Gets neither level had a value for.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getL1HitRatio() {
+        long l1 = l1Hits.sum();
+        long total = l1 + l2Hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) l1 / total;
+    }
+
+    /**
+     * L1 copies dropped because of a write or an L2 event.
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Entries currently in the L1.
+     */
+    public int l1Size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            size += stripe.entries.size();
+        }
+        return size;
+    }
+
+    void invalidate(Object key) {
+        if (stripeOf(key).invalidate(key)) {
+            invalidations.increment();
+        }
+    }
+
+    private void clearL1() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private Stripe<K, V> stripeOf(Object key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private int stripeIndex(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /**
+     * One lock's worth of the L1: a ConcurrentHashMap read without locking, and a CLOCK queue
+     * (second chance) for eviction, maintained under the stripe's lock by promotions only.
+     * stamp counts the invalidations, so a promotion can tell whether a write reached this stripe
+     * while the value was read from the L2.
+     */
+    private static final class Stripe<K, V> {
+        private final long maxEntries;
+        private final ConcurrentHashMap<Object, L1Entry<V>> entries = new ConcurrentHashMap<>();
+        private final ArrayDeque<L1Entry<V>> clock = new ArrayDeque<>();
+        private volatile long stamp;
+
+        private Stripe(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        V get(Object key, long now) {
+            L1Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAt >= 0) {
+                entries.remove(key, entry);
+                return null;
+            }
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.value;
+        }
+
+        synchronized void promote(Object key, V value, long stampBefore, long expiresAt) {
+            if (stamp != stampBefore) {
+                return;
+            }
+            L1Entry<V> entry = new L1Entry<>(key, value, expiresAt);
+            if (entries.put(key, entry) == null) {
+                while (entries.size() > maxEntries) {
+                    evictOne();
+                }
+            }
+            clock.addLast(entry);
+            // replaced and invalidated entries stay queued until the hand passes them
+            if (clock.size() > 2 * maxEntries + MIN_STRIPE_ENTRIES) {
+                clock.removeIf(queued -> entries.get(queued.key) != queued);
+            }
+        }
+
+        // the hand gives every referenced entry a second chance and evicts the first one that has none
+        private void evictOne() {
+            L1Entry<V> queued;
+            while ((queued = clock.pollFirst()) != null) {
+                if (entries.get(queued.key) != queued) {
+                    continue;
+                }
+                if (queued.referenced) {
+                    queued.referenced = false;
+                    clock.addLast(queued);
+                } else {
+                    entries.remove(queued.key, queued);
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean invalidate(Object key) {
+            stamp++;
+            return entries.remove(key) != null;
+        }
+
+        synchronized void clear() {
+            stamp++;
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    private static final class L1Entry<V> {
+        private final Object key;
+        private final V value;
+        private final long expiresAt;
+        // set by reads, cleared by the clock hand; a lost update only costs an early eviction
+        private volatile boolean referenced;
+
+        private L1Entry(Object key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Drops the L1 copy of every key the L2 reports as changed or gone.
+     */
+    static class Invalidator<K, V> implements CacheEntryUpdatedListener<K, V>, CacheEntryRemovedListener<K, V>,
+            CacheEntryExpiredListener<K, V> {
+        private final TwoLevelCache<K, V> cache;
+
+        Invalidator(TwoLevelCache<K, V> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.invalidate(event.getKey());
+            }
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.invalidate(event.getKey());
+            }
+        }
+
+        @Override
+        public void onExpired(Iterable<CacheEntryEvent<? extends K, ? extends V>> events) {
+            for (CacheEntryEvent<? extends K, ? extends V> event : events) {
+                cache.invalidate(event.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.jcache.trace;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A trace file read back into memory, oldest record first, one array per column.
+ * Times and durations are in microseconds, times counted from {@link #getStartMillis()}.
+ */
+public final class Trace {
+    private final long startMillis;
+    private final double sampleRate;
+    private final List<String> cacheNames;
+    private final long[] times;
+    private final int[] keyHashes;
+    private final int[] durations;
+    private final short[] cacheIds;
+    private final byte[] ops;
+    private final byte[] flags;
+
+    private Trace(long startMillis, double sampleRate, List<String> cacheNames, int size) {
+        this.startMillis = startMillis;
+        this.sampleRate = sampleRate;
+        this.cacheNames = Collections.unmodifiableList(cacheNames);
+        this.times = new long[size];
+        this.keyHashes = new int[size];
+        this.durations = new int[size];
+        this.cacheIds = new short[size];
+        this.ops = new byte[size];
+        this.flags = new byte[size];
+    }
+
+    /**
+     * Reads a file written by a {@link TraceRecorder} that has been flushed or closed.
+     */
+    public static Trace read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, TraceFormat.HEADER_SIZE);
+            if (header.getInt(TraceFormat.MAGIC_OFFSET) != TraceFormat.MAGIC) {
+                throw new IOException(file + " is not a cache trace");
+            }
+            int version = header.getInt(TraceFormat.VERSION_OFFSET);
+            if (version != TraceFormat.VERSION || header.getInt(TraceFormat.RECORD_SIZE_OFFSET) != TraceFormat.RECORD_SIZE) {
+                throw new IOException("Unsupported trace version " + version + " in " + file);
+            }
+            int capacity = header.getInt(TraceFormat.CAPACITY_OFFSET);
+            long written = header.getLong(TraceFormat.WRITTEN_OFFSET);
+            int nameCount = header.getInt(TraceFormat.NAME_COUNT_OFFSET);
+            List<String> names = new ArrayList<>(nameCount);
+            int at = TraceFormat.NAMES_OFFSET;
+            for (int i = 0; i < nameCount; i++) {
+                byte[] name = new byte[header.getShort(at)];
+                for (int b = 0; b < name.length; b++) {
+                    name[b] = header.get(at + 2 + b);
+                }
+                names.add(new String(name, StandardCharsets.UTF_8));
+                at += 2 + name.length;
+            }
+
+            int size = (int) Math.min(written, capacity);
+            Trace trace = new Trace(header.getLong(TraceFormat.START_OFFSET),
+                    header.getDouble(TraceFormat.SAMPLE_RATE_OFFSET), names, size);
+            ByteBuffer records = readFully(channel, TraceFormat.HEADER_SIZE, size * TraceFormat.RECORD_SIZE);
+            // once the ring has wrapped, the oldest record is the one the next write would overwrite
+            int first = written > capacity ? (int) (written % capacity) : 0;
+            for (int i = 0; i < size; i++) {
+                int record = ((first + i) % size) * TraceFormat.RECORD_SIZE;
+                trace.times[i] = records.getLong(record + TraceFormat.TIME);
+                trace.keyHashes[i] = records.getInt(record + TraceFormat.KEY_HASH);
+                trace.durations[i] = records.getInt(record + TraceFormat.DURATION);
+                trace.cacheIds[i] = records.getShort(record + TraceFormat.CACHE_ID);
+                trace.ops[i] = records.get(record + TraceFormat.OP);
+                trace.flags[i] = records.get(record + TraceFormat.FLAGS);
+            }
+            return trace;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Trace file truncated at " + (position + buffer.position()) + " bytes");
+            }
+        }
+        return buffer;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public List<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    /**
+     * Id of the named cache in {@link #getCacheId(int)}.
+     */
+    public int cacheIdOf(String cacheName) {
+        int id = cacheNames.indexOf(cacheName);
+        Preconditions.checkArgument(id >= 0, "No cache %s in the trace, only %s", cacheName, cacheNames);
+        return id;
+    }
+
+    public long getTimeMicros(int record) {
+        return times[record];
+    }
+
+    public int getKeyHash(int record) {
+        return keyHashes[record];
+    }
+
+    public int getDurationMicros(int record) {
+        return durations[record];
+    }
+
+    public int getCacheId(int record) {
+        return cacheIds[record];
+    }
+
+    public TraceOp getOp(int record) {
+        return TraceOp.of(ops[record]);
+    }
+
+    public boolean isHit(int record) {
+        return (flags[record] & TraceFormat.HIT) != 0;
+    }
+}
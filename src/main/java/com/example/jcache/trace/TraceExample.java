@@ -0,0 +1,96 @@
+package com.example.jcache.trace;
+
+import com.example.jcache.eviction.EvictionPolicy;
+import com.example.jcache.support.ReadThroughLoaderWriter;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.jsr107.Eh107Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.spi.CachingProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Record live traffic, then size the cache offline
+ * A price cache sized by guesswork (heap of 100 entries, one minute to live) serves skewed
+ * traffic over 5,000 products; every twentieth product is slow to load. The traffic is recorded
+ * through a {@link TracingCache}, then {@link TraceSimulator} replays it for other capacities,
+ * time-to-lives and eviction policies without touching the application or the backend again.
+ * The table shows where a bigger heap stops paying off and how much backend time each size saves.
+ */
+public class TraceExample {
+    private static final Logger LOGGER = Logger.getLogger(TraceExample.class.getName());
+    private static final int PRODUCTS = 5_000;
+    private static final int REQUESTS = 40_000;
+
+    public static void main(String[] args) throws Exception {
+        Path file = Files.createTempFile("prices", ".trace");
+        TracingCacheLoader<Integer, String> loader = new TracingCacheLoader<>(new PriceLoader());
+        CacheConfiguration<Integer, String> guessed = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Integer.class, String.class, ResourcePoolsBuilder.heap(100))
+                .withExpiry(Expirations.timeToLiveExpiration(new Duration(1, TimeUnit.MINUTES)))
+                .withLoaderWriter(new ReadThroughLoaderWriter<>(loader))
+                .build();
+
+        try (CachingProvider provider = Caching.getCachingProvider();
+             CacheManager cacheManager = provider.getCacheManager();
+             TraceRecorder recorder = TraceRecorder.open(file, 1_000_000, 1.0)) {
+            Cache<Integer, String> prices = new TracingCache<>(cacheManager.createCache("prices",
+                    Eh107Configuration.fromEhcacheCacheConfiguration(guessed)), recorder);
+            Random random = new Random(42);
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                // roughly Zipfian: product 0 is asked for most, the tail rarely
+                int product = (int) Math.pow(PRODUCTS + 1, random.nextDouble()) - 1;
+                if (i % 50 == 0) {
+                    prices.put(product, "price of " + product + " updated");
+                } else {
+                    prices.get(product);
+                }
+            }
+            LOGGER.log(Level.INFO, "{0} requests in {1} ms, {2} records in {3}", new Object[]{REQUESTS,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), recorder.getRecordedCount(), file});
+        }
+
+        TraceSimulator simulator = new TraceSimulator(Trace.read(file), "prices");
+        LOGGER.log(Level.INFO, "\n{0}", simulator.format(simulator.simulateAll(Arrays.asList(EvictionPolicy.values()),
+                new long[]{100, 250, 500, 1_000, 5_000}, new long[]{0, 1})));
+        Files.delete(file);
+    }
+
+    /**
+     * The backend: 100µs per product, 2ms for every twentieth.
+     */
+    static class PriceLoader implements CacheLoader<Integer, String> {
+        @Override
+        public String load(Integer product) throws CacheLoaderException {
+            LockSupport.parkNanos(product % 20 == 0 ? 2_000_000 : 100_000);
+            return "price of " + product;
+        }
+
+        @Override
+        public Map<Integer, String> loadAll(Iterable<? extends Integer> products) throws CacheLoaderException {
+            Map<Integer, String> loaded = new HashMap<>();
+            for (Integer product : products) {
+                loaded.put(product, load(product));
+            }
+            return loaded;
+        }
+    }
+}
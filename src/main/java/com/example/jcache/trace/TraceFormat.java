@@ -0,0 +1,39 @@
+package com.example.jcache.trace;
+
+/**
+ * Layout of the ring file.
+ * Header (4 KB): magic, version, record size, capacity in records, start time (epoch millis),
+ * sample rate, records written so far, then the cache names (count, then per name a 2-byte length
+ * and its UTF-8 bytes), the index of a name being the cache id used in the records.
+ * Records (20 bytes each, slot = sequence % capacity, so the newest overwrite the oldest):
+ * microseconds since the start (8), key hash (4), duration of a get in microseconds (4),
+ * cache id (2), operation (1), flags (1, bit 0 = hit).
+ */
+final class TraceFormat {
+    static final int MAGIC = 0x4A435452;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4096;
+    static final int RECORD_SIZE = 20;
+    static final int MAX_CACHES = Short.MAX_VALUE;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int RECORD_SIZE_OFFSET = 8;
+    static final int CAPACITY_OFFSET = 12;
+    static final int START_OFFSET = 16;
+    static final int SAMPLE_RATE_OFFSET = 24;
+    static final int WRITTEN_OFFSET = 32;
+    static final int NAME_COUNT_OFFSET = 40;
+    static final int NAMES_OFFSET = 44;
+
+    static final int TIME = 0;
+    static final int KEY_HASH = 8;
+    static final int DURATION = 12;
+    static final int CACHE_ID = 16;
+    static final int OP = 18;
+    static final int FLAGS = 19;
+    static final int HIT = 1;
+
+    private TraceFormat() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.jcache.trace;
+
+/**
+ * Cache operations a {@link TracingCache} records.
+ */
+public enum TraceOp {
+    /**
+     * get / getAll, one record per key, with hit or miss.
+     */
+    GET,
+    /**
+     * put, putAll (per key), putIfAbsent, getAndPut, replace.
+     */
+    PUT,
+    /**
+     * remove, getAndRemove, removeAll(keys) (per key).
+     */
+    REMOVE;
+
+    private static final TraceOp[] VALUES = values();
+
+    static TraceOp of(int code) {
+        return VALUES[code];
+    }
+}
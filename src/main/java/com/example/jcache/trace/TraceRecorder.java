@@ -0,0 +1,171 @@
+package com.example.jcache.trace;
+
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🔹 Access-trace recorder
+ * Writes one fixed-size record per cache access (time, cache, key hash, operation, hit or miss,
+ * duration of a get) into a memory-mapped ring file, for {@link TraceSimulator} to replay offline.
+ * The file has a fixed size: once it is full the newest records overwrite the oldest, so it can stay
+ * on in production and always holds the most recent traffic.
+ * Recording an access is one atomic increment plus a 20-byte write into the mapped file (the OS
+ * writes it back); there is no lock, no allocation and no I/O on the caller's thread.
+ * sampleRate records only that share of the keys, chosen by key hash: every access of a sampled
+ * key is kept, so its reuse pattern is intact, and a cache of capacity C is simulated at C × rate.
+ * Keys are stored as 32-bit hashes, never as values.
+ * ⚠️ Records are written without ordering between threads; a reader of a file still being written
+ * may see a record that is half written. Read the file after {@link #close()} or {@link #flush()}.
+ */
+public class TraceRecorder implements Closeable {
+    private static final int SAMPLE_RANGE = 1 << 24;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final double sampleRate;
+    private final int sampleThreshold;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Integer> cacheIds = new HashMap<>();
+    private int namesEnd = TraceFormat.NAMES_OFFSET;
+    private volatile boolean closed;
+
+    private TraceRecorder(Path file, FileChannel channel, int capacity, double sampleRate) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.sampleRate = sampleRate;
+        this.sampleThreshold = (int) Math.ceil(sampleRate * SAMPLE_RANGE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                TraceFormat.HEADER_SIZE + (long) capacity * TraceFormat.RECORD_SIZE);
+        buffer.putInt(TraceFormat.MAGIC_OFFSET, TraceFormat.MAGIC);
+        buffer.putInt(TraceFormat.VERSION_OFFSET, TraceFormat.VERSION);
+        buffer.putInt(TraceFormat.RECORD_SIZE_OFFSET, TraceFormat.RECORD_SIZE);
+        buffer.putInt(TraceFormat.CAPACITY_OFFSET, capacity);
+        buffer.putLong(TraceFormat.START_OFFSET, System.currentTimeMillis());
+        buffer.putDouble(TraceFormat.SAMPLE_RATE_OFFSET, sampleRate);
+        buffer.putLong(TraceFormat.WRITTEN_OFFSET, 0);
+        buffer.putInt(TraceFormat.NAME_COUNT_OFFSET, 0);
+    }
+
+    /**
+     * Creates (or truncates) the ring file.
+     *
+     * @param capacity   records the file holds before the oldest are overwritten (20 bytes each)
+     * @param sampleRate share of the keys to record, in (0, 1]
+     */
+    public static TraceRecorder open(Path file, int capacity, double sampleRate) throws IOException {
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+        Preconditions.checkArgument(sampleRate > 0 && sampleRate <= 1, "sampleRate must be in (0, 1]");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            return new TraceRecorder(file, channel, capacity, sampleRate);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The id records of this cache carry; the name is written to the header.
+     */
+    synchronized int register(String cacheName) {
+        Integer id = cacheIds.get(cacheName);
+        if (id == null) {
+            byte[] name = cacheName.getBytes(StandardCharsets.UTF_8);
+            Preconditions.checkState(cacheIds.size() < TraceFormat.MAX_CACHES
+                            && namesEnd + 2 + name.length <= TraceFormat.HEADER_SIZE,
+                    "no room for another cache name in the trace header");
+            buffer.putShort(namesEnd, (short) name.length);
+            for (int i = 0; i < name.length; i++) {
+                buffer.put(namesEnd + 2 + i, name[i]);
+            }
+            namesEnd += 2 + name.length;
+            id = cacheIds.size();
+            cacheIds.put(cacheName, id);
+            buffer.putInt(TraceFormat.NAME_COUNT_OFFSET, cacheIds.size());
+        }
+        return id;
+    }
+
+    /**
+     * Spread of key.hashCode(), so the sampled share and the simulated keys do not depend on how
+     * well the key type hashes.
+     */
+    static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    boolean isSampled(int keyHash) {
+        return (keyHash & (SAMPLE_RANGE - 1)) < sampleThreshold;
+    }
+
+    void record(int cacheId, int keyHash, TraceOp op, boolean hit, long nowNanos, long durationNanos) {
+        if (closed) {
+            return;
+        }
+        long slot = sequence.getAndIncrement() % capacity;
+        int at = TraceFormat.HEADER_SIZE + (int) slot * TraceFormat.RECORD_SIZE;
+        buffer.putLong(at + TraceFormat.TIME, (nowNanos - startNanos) / 1_000);
+        buffer.putInt(at + TraceFormat.KEY_HASH, keyHash);
+        buffer.putInt(at + TraceFormat.DURATION, (int) Math.min(Integer.MAX_VALUE, durationNanos / 1_000));
+        buffer.putShort(at + TraceFormat.CACHE_ID, (short) cacheId);
+        buffer.put(at + TraceFormat.OP, (byte) op.ordinal());
+        buffer.put(at + TraceFormat.FLAGS, (byte) (hit ? TraceFormat.HIT : 0));
+    }
+
+    /**
+     * Publishes the record count and forces the mapped file to disk, so the file can be read as it is.
+     */
+    public void flush() {
+        buffer.putLong(TraceFormat.WRITTEN_OFFSET, sequence.get());
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            flush();
+            channel.close();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Records written since the start, including those already overwritten.
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.jcache.trace;
+
+import com.example.jcache.eviction.BoundedCache;
+import com.example.jcache.eviction.EvictionPolicy;
+import com.example.jcache.eviction.Weighers;
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Offline what-if for cache sizing
+ * Replays the recorded accesses of one cache against {@link BoundedCache} for every combination of
+ * eviction policy, capacity (entries) and time-to-live, and reports the hit ratio and the time the
+ * misses would have cost, next to what the live cache actually did:
+ * get → a hit if the key is cached and not expired, else a miss that loads and caches the key;
+ * put → (re)caches the key with a fresh time-to-live (created expiry, like Duration.ONE_MINUTE);
+ * remove → drops the key.
+ * A miss costs what the misses of that key took in the trace on average (all keys' average for
+ * keys that never missed live), so a few slow keys weigh more than many fast ones.
+ * With a sampled trace, capacities are scaled by the sample rate and miss time is scaled back up,
+ * so results read as for the full traffic.
+ * <pre>
+ * java com.example.jcache.trace.TraceSimulator caches.trace weather 100,1000,10000 0,60,600 LRU,W_TINY_LFU
+ * </pre>
+ * ⚠️ The trace starts with the cache warm, the simulation with it empty: the first accesses of
+ * every key are misses that the live cache may have hit. Prefer traces much longer than the warm-up.
+ */
+public class TraceSimulator {
+    private static final Logger LOGGER = Logger.getLogger(TraceSimulator.class.getName());
+
+    private final Trace trace;
+    private final String cacheName;
+    private final int cacheId;
+    private final Map<Integer, Long> missCosts = new HashMap<>();
+    private final long defaultMissCost;
+
+    public TraceSimulator(Trace trace, String cacheName) {
+        this.trace = Preconditions.checkNotNull(trace, "trace");
+        this.cacheName = cacheName;
+        this.cacheId = trace.cacheIdOf(cacheName);
+        Map<Integer, long[]> misses = new HashMap<>();
+        long totalMicros = 0;
+        long totalMisses = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getCacheId(i) == cacheId && trace.getOp(i) == TraceOp.GET && !trace.isHit(i)) {
+                long[] sumAndCount = misses.computeIfAbsent(trace.getKeyHash(i), hash -> new long[2]);
+                sumAndCount[0] += trace.getDurationMicros(i);
+                sumAndCount[1]++;
+                totalMicros += trace.getDurationMicros(i);
+                totalMisses++;
+            }
+        }
+        for (Map.Entry<Integer, long[]> entry : misses.entrySet()) {
+            missCosts.put(entry.getKey(), entry.getValue()[0] / entry.getValue()[1]);
+        }
+        this.defaultMissCost = totalMisses == 0 ? 0 : totalMicros / totalMisses;
+    }
+
+    /**
+     * What the live cache did over the trace.
+     */
+    public Result live() {
+        long gets = 0;
+        long hits = 0;
+        long missMicros = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getCacheId(i) == cacheId && trace.getOp(i) == TraceOp.GET) {
+                gets++;
+                if (trace.isHit(i)) {
+                    hits++;
+                } else {
+                    missMicros += trace.getDurationMicros(i);
+                }
+            }
+        }
+        return new Result(null, 0, 0, gets, hits, scaleUp(missMicros));
+    }
+
+    /**
+     * @param capacity   entries of the full (unsampled) cache
+     * @param ttlSeconds time-to-live from the last put, 0 for eternal
+     */
+    public Result simulate(EvictionPolicy policy, long capacity, long ttlSeconds) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+        Preconditions.checkArgument(ttlSeconds >= 0, "ttlSeconds must not be negative");
+        long sampledCapacity = Math.max(1, Math.round(capacity * trace.getSampleRate()));
+        long ttlMicros = ttlSeconds == 0 ? Long.MAX_VALUE : TimeUnit.SECONDS.toMicros(ttlSeconds);
+        BoundedCache<Integer, Boolean> cache = new BoundedCache<>(sampledCapacity, Weighers.entries(), policy,
+                (int) Math.min(sampledCapacity, Integer.MAX_VALUE));
+        Map<Integer, Long> expireAt = new HashMap<>();
+        long gets = 0;
+        long hits = 0;
+        long missMicros = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (trace.getCacheId(i) != cacheId) {
+                continue;
+            }
+            Integer key = trace.getKeyHash(i);
+            long now = trace.getTimeMicros(i);
+            switch (trace.getOp(i)) {
+                case GET:
+                    gets++;
+                    Long expiry = expireAt.get(key);
+                    if (expiry != null && now >= expiry) {
+                        cache.remove(key);
+                        expireAt.remove(key);
+                    }
+                    if (cache.get(key) != null) {
+                        hits++;
+                    } else {
+                        missMicros += missCosts.getOrDefault(key, defaultMissCost);
+                        put(cache, expireAt, key, now, ttlMicros);
+                    }
+                    break;
+                case PUT:
+                    put(cache, expireAt, key, now, ttlMicros);
+                    break;
+                case REMOVE:
+                    cache.remove(key);
+                    expireAt.remove(key);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + trace.getOp(i));
+            }
+        }
+        return new Result(policy, capacity, ttlSeconds, gets, hits, scaleUp(missMicros));
+    }
+
+    /**
+     * Every combination, policies outermost; the live row comes first.
+     */
+    public List<Result> simulateAll(List<EvictionPolicy> policies, long[] capacities, long[] ttlSeconds) {
+        List<Result> results = new ArrayList<>();
+        results.add(live());
+        for (EvictionPolicy policy : policies) {
+            for (long ttl : ttlSeconds) {
+                for (long capacity : capacities) {
+                    results.add(simulate(policy, capacity, ttl));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The results as a table, one row each.
+     */
+    public String format(List<Result> results) {
+        StringBuilder table = new StringBuilder(String.format("%s: %d records, sample rate %.3f%n",
+                cacheName, trace.size(), trace.getSampleRate()));
+        table.append(String.format("%-12s %10s %8s %10s %10s %12s%n",
+                "policy", "capacity", "ttl(s)", "gets", "hit ratio", "miss time(s)"));
+        for (Result result : results) {
+            table.append(String.format("%-12s %10s %8s %10d %9.1f%% %12.3f%n",
+                    result.isLive() ? "live" : result.policy,
+                    result.isLive() ? "-" : Long.toString(result.capacity),
+                    result.isLive() ? "-" : result.ttlSeconds == 0 ? "eternal" : Long.toString(result.ttlSeconds),
+                    result.gets, result.getHitRatio() * 100, result.missMicros / 1e6));
+        }
+        return table.toString();
+    }
+
+    private static void put(BoundedCache<Integer, Boolean> cache, Map<Integer, Long> expireAt, Integer key,
+                            long now, long ttlMicros) {
+        cache.put(key, Boolean.TRUE);
+        if (ttlMicros != Long.MAX_VALUE) {
+            expireAt.put(key, now + ttlMicros);
+        }
+    }
+
+    private long scaleUp(long sampledMicros) {
+        return Math.round(sampledMicros / trace.getSampleRate());
+    }
+
+    /**
+     * args: trace file, cache name, capacities (comma-separated), ttls in seconds (comma-separated, 0 = eternal),
+     * optionally policies (comma-separated, default all).
+     */
+    public static void main(String[] args) throws IOException {
+        Preconditions.checkArgument(args.length >= 4,
+                "usage: TraceSimulator <trace file> <cache> <capacities> <ttl seconds> [policies]");
+        Trace trace = Trace.read(Paths.get(args[0]));
+        List<EvictionPolicy> policies = new ArrayList<>();
+        if (args.length > 4) {
+            for (String policy : args[4].split(",")) {
+                policies.add(EvictionPolicy.valueOf(policy.trim()));
+            }
+        } else {
+            policies.addAll(Arrays.asList(EvictionPolicy.values()));
+        }
+        TraceSimulator simulator = new TraceSimulator(trace, args[1]);
+        LOGGER.log(Level.INFO, "\n{0}", simulator.format(
+                simulator.simulateAll(policies, parseLongs(args[2]), parseLongs(args[3]))));
+    }
+
+    private static long[] parseLongs(String list) {
+        String[] parts = list.split(",");
+        long[] values = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Long.parseLong(parts[i].trim());
+        }
+        return values;
+    }
+
+    /**
+     * One simulated configuration, or the live cache ({@link #isLive()}).
+     */
+    public static final class Result {
+        private final EvictionPolicy policy;
+        private final long capacity;
+        private final long ttlSeconds;
+        private final long gets;
+        private final long hits;
+        private final long missMicros;
+
+        private Result(EvictionPolicy policy, long capacity, long ttlSeconds, long gets, long hits, long missMicros) {
+            this.policy = policy;
+            this.capacity = capacity;
+            this.ttlSeconds = ttlSeconds;
+            this.gets = gets;
+            this.hits = hits;
+            this.missMicros = missMicros;
+        }
+
+        public boolean isLive() {
+            return policy == null;
+        }
+
+        public EvictionPolicy getPolicy() {
+            return policy;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public long getGetCount() {
+            return gets;
+        }
+
+        public long getHitCount() {
+            return hits;
+        }
+
+        public double getHitRatio() {
+            return gets == 0 ? 0 : (double) hits / gets;
+        }
+
+        /**
+         * Time the misses took (live) or would have taken, scaled to the full traffic.
+         */
+        public long getMissMicros() {
+            return missMicros;
+        }
+    }
+}
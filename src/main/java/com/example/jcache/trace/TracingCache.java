@@ -0,0 +1,169 @@
+package com.example.jcache.trace;
+
+import com.example.jcache.support.ForwardingCache;
+
+import javax.cache.Cache;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🔹 Traced cache
+ * Records every access of a sampled key to a {@link TraceRecorder}: gets with hit or miss and how
+ * long they took (for a miss of a read-through cache that is the load, i.e. the miss cost), puts and
+ * removes without timing. Accesses of keys outside the sample go straight to the cache.
+ * A get of a read-through cache always returns a value; wrap its loader in a {@link TracingCacheLoader}
+ * or every such get is recorded as a hit.
+ * <pre>
+ * TraceRecorder recorder = TraceRecorder.open(Paths.get("caches.trace"), 10_000_000, 0.1);
+ * Cache&lt;String, String&gt; traced = new TracingCache&lt;&gt;(cache, recorder);
+ * </pre>
+ * ⚠️ invoke, invokeAll, loadAll, removeAll() and clear are not recorded.
+ */
+public class TracingCache<K, V> extends ForwardingCache<K, V> {
+    private final TraceRecorder recorder;
+    private final int cacheId;
+
+    public TracingCache(Cache<K, V> delegate, TraceRecorder recorder) {
+        super(delegate);
+        this.recorder = recorder;
+        this.cacheId = recorder.register(delegate.getName());
+    }
+
+    @Override
+    public V get(K key) {
+        int hash = TraceRecorder.hash(key);
+        if (!recorder.isSampled(hash)) {
+            return super.get(key);
+        }
+        TracingCacheLoader.LoadMark mark = TracingCacheLoader.reset(false);
+        long start = System.nanoTime();
+        V value = super.get(key);
+        long end = System.nanoTime();
+        recorder.record(cacheId, hash, TraceOp.GET, value != null && !mark.isLoaded(), end, end - start);
+        return value;
+    }
+
+    @Override
+    public Map<K, V> getAll(Set<? extends K> keys) {
+        TracingCacheLoader.LoadMark mark = TracingCacheLoader.reset(true);
+        long start = System.nanoTime();
+        Map<K, V> values;
+        try {
+            values = super.getAll(keys);
+        } finally {
+            mark.clear();
+        }
+        long end = System.nanoTime();
+        // the time of a bulk get is not split between its keys: the misses share it
+        int misses = 0;
+        for (K key : keys) {
+            if (values.get(key) == null || mark.isLoaded(key)) {
+                misses++;
+            }
+        }
+        long missNanos = misses == 0 ? 0 : (end - start) / misses;
+        for (K key : keys) {
+            int hash = TraceRecorder.hash(key);
+            if (recorder.isSampled(hash)) {
+                boolean hit = values.get(key) != null && !mark.isLoaded(key);
+                recorder.record(cacheId, hash, TraceOp.GET, hit, end, hit ? 0 : missNanos);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        super.put(key, value);
+        write(key, TraceOp.PUT);
+    }
+
+    @Override
+    public V getAndPut(K key, V value) {
+        V previous = super.getAndPut(key, value);
+        write(key, TraceOp.PUT);
+        return previous;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        super.putAll(map);
+        for (K key : map.keySet()) {
+            write(key, TraceOp.PUT);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) {
+        boolean put = super.putIfAbsent(key, value);
+        if (put) {
+            write(key, TraceOp.PUT);
+        }
+        return put;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        boolean replaced = super.replace(key, oldValue, newValue);
+        if (replaced) {
+            write(key, TraceOp.PUT);
+        }
+        return replaced;
+    }
+
+    @Override
+    public boolean replace(K key, V value) {
+        boolean replaced = super.replace(key, value);
+        if (replaced) {
+            write(key, TraceOp.PUT);
+        }
+        return replaced;
+    }
+
+    @Override
+    public V getAndReplace(K key, V value) {
+        V previous = super.getAndReplace(key, value);
+        if (previous != null) {
+            write(key, TraceOp.PUT);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean removed = super.remove(key);
+        write(key, TraceOp.REMOVE);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(K key, V oldValue) {
+        boolean removed = super.remove(key, oldValue);
+        if (removed) {
+            write(key, TraceOp.REMOVE);
+        }
+        return removed;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        V previous = super.getAndRemove(key);
+        write(key, TraceOp.REMOVE);
+        return previous;
+    }
+
+    @Override
+    public void removeAll(Set<? extends K> keys) {
+        super.removeAll(keys);
+        for (K key : keys) {
+            write(key, TraceOp.REMOVE);
+        }
+    }
+
+    private void write(K key, TraceOp op) {
+        int hash = TraceRecorder.hash(key);
+        if (recorder.isSampled(hash)) {
+            recorder.record(cacheId, hash, op, false, System.nanoTime(), 0);
+        }
+    }
+}
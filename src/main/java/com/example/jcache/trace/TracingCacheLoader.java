@@ -0,0 +1,71 @@
+package com.example.jcache.trace;
+
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wrap the loader of a read-through cache in this so {@link TracingCache} can tell a get that
+ * loaded the value (a miss) from a real hit; both return a value to the caller.
+ * Providers call the loader on the thread of the get, which is where the mark is left.
+ */
+public class TracingCacheLoader<K, V> implements CacheLoader<K, V> {
+    private static final ThreadLocal<LoadMark> MARK = ThreadLocal.withInitial(LoadMark::new);
+
+    private final CacheLoader<K, V> delegate;
+
+    public TracingCacheLoader(CacheLoader<K, V> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public V load(K key) throws CacheLoaderException {
+        MARK.get().loaded(key);
+        return delegate.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws CacheLoaderException {
+        LoadMark mark = MARK.get();
+        for (K key : keys) {
+            mark.loaded(key);
+        }
+        return delegate.loadAll(keys);
+    }
+
+    /**
+     * Clears the mark of this thread before a get; with collectKeys the loaded keys are kept too, for a getAll.
+     */
+    static LoadMark reset(boolean collectKeys) {
+        LoadMark mark = MARK.get();
+        mark.loaded = false;
+        mark.keys = collectKeys ? new HashSet<>() : null;
+        return mark;
+    }
+
+    static final class LoadMark {
+        private boolean loaded;
+        private Set<Object> keys;
+
+        private void loaded(Object key) {
+            loaded = true;
+            if (keys != null) {
+                keys.add(key);
+            }
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        boolean isLoaded(Object key) {
+            return keys != null && keys.contains(key);
+        }
+
+        void clear() {
+            keys = null;
+        }
+    }
+}
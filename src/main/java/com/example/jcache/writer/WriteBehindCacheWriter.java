@@ -0,0 +1,324 @@
+package com.example.jcache.writer;
+
+import com.example.jcache.support.SimpleEntry;
+import com.google.common.base.Preconditions;
+
+import javax.cache.Cache;
+import javax.cache.integration.CacheWriter;
+import javax.cache.integration.CacheWriterException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 🔹 Write-behind
+ * Plugged in where a write-through CacheWriter would go (setWriteThrough(true)), but put/remove
+ * only record the mutation and return; a background thread pushes them to the real writer later.
+ * Mutations are coalesced per key, last write wins: ten puts of the same key flush one write, and
+ * a remove after a pending put flushes just the delete (the row may already exist in the store,
+ * so the delete itself is never dropped).
+ * Pending keys are flushed with delegate.writeAll/deleteAll in batches, whenever batchSize keys are
+ * pending or flushInterval has passed, whichever comes first.
+ * Backpressure: once maxPendingKeys distinct keys are waiting, writers of new keys block until a
+ * flush makes room.
+ * Failed batches are retried with a growing delay, up to maxRetries times.
+ * close() (called by Cache.close()) stops accepting writes and drains everything still pending.
+ * ⚠️ Trade-off: the store lags behind the cache, and writes still pending when the JVM dies are lost.
+ */
+public class WriteBehindCacheWriter<K, V> implements CacheWriter<K, V>, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(WriteBehindCacheWriter.class.getName());
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private final CacheWriter<K, V> delegate;
+    private final int maxPendingKeys;
+    private final int batchSize;
+    private final int maxRetries;
+    private final ScheduledExecutorService flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // a PendingWrite without value is a pending delete
+    private final LinkedHashMap<K, PendingWrite<V>> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushedWrites = new LongAdder();
+    private final LongAdder flushedDeletes = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public WriteBehindCacheWriter(CacheWriter<K, V> delegate) {
+        this(delegate, 10_000, 100, 1, TimeUnit.SECONDS, 3);
+    }
+
+    public WriteBehindCacheWriter(CacheWriter<K, V> delegate, int maxPendingKeys, int batchSize,
+                                  long flushInterval, TimeUnit unit, int maxRetries) {
+        Preconditions.checkNotNull(delegate, "delegate writer");
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+        Preconditions.checkArgument(maxPendingKeys >= batchSize, "maxPendingKeys must be at least batchSize");
+        Preconditions.checkArgument(flushInterval > 0, "flushInterval must be positive");
+        Preconditions.checkArgument(maxRetries >= 0, "maxRetries must not be negative");
+        this.delegate = delegate;
+        this.maxPendingKeys = maxPendingKeys;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, unit);
+    }
+
+    @Override
+    public void write(Cache.Entry<? extends K, ? extends V> entry) throws CacheWriterException {
+        enqueue(entry.getKey(), new PendingWrite<V>(entry.getValue()));
+    }
+
+    @Override
+    public void writeAll(Collection<Cache.Entry<? extends K, ? extends V>> entries) throws CacheWriterException {
+        // Per the CacheWriter contract, entries left in the collection are the ones not written
+        Iterator<Cache.Entry<? extends K, ? extends V>> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            write(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void delete(Object key) throws CacheWriterException {
+        enqueue((K) key, new PendingWrite<V>(null));
+    }
+
+    @Override
+    public void deleteAll(Collection<?> keys) throws CacheWriterException {
+        Iterator<?> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            delete(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void enqueue(K key, PendingWrite<V> write) {
+        int size;
+        lock.lock();
+        try {
+            while (!closed && pending.size() >= maxPendingKeys && !pending.containsKey(key)) {
+                requestFlush();
+                notFull.await();
+            }
+            if (closed) {
+                throw new CacheWriterException("Write-behind writer is closed");
+            }
+            // remove first so the key moves to the back of the queue
+            if (pending.remove(key) != null) {
+                coalesced.increment();
+            }
+            pending.put(key, write);
+            size = pending.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheWriterException("Interrupted while waiting for write-behind queue space", e);
+        } finally {
+            lock.unlock();
+        }
+        if (size >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                // Flusher already shut down, close() drains the queue
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        flushQueued.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * Pushes everything pending to the delegate writer, batch by batch.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Map.Entry<K, PendingWrite<V>>> batch;
+            while (!(batch = takeBatch()).isEmpty()) {
+                List<Cache.Entry<? extends K, ? extends V>> writes = new ArrayList<>();
+                List<Object> deletes = new ArrayList<>();
+                for (Map.Entry<K, PendingWrite<V>> entry : batch) {
+                    V value = entry.getValue().value;
+                    if (value == null) {
+                        deletes.add(entry.getKey());
+                    } else {
+                        writes.add(new SimpleEntry<K, V>(entry.getKey(), value));
+                    }
+                }
+                if (!writes.isEmpty()) {
+                    flushedWrites.add(writeWithRetry(writes));
+                }
+                if (!deletes.isEmpty()) {
+                    flushedDeletes.add(deleteWithRetry(deletes));
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<Map.Entry<K, PendingWrite<V>>> takeBatch() {
+        List<Map.Entry<K, PendingWrite<V>>> batch = new ArrayList<>(batchSize);
+        lock.lock();
+        try {
+            Iterator<Map.Entry<K, PendingWrite<V>>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<K, PendingWrite<V>> entry = iterator.next();
+                batch.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                iterator.remove();
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    private int writeWithRetry(List<Cache.Entry<? extends K, ? extends V>> writes) {
+        int total = writes.size();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                delegate.writeAll(writes);
+                return total;
+            } catch (RuntimeException e) {
+                // writeAll leaves the entries it could not write in the collection
+                if (!retry(attempt, writes.size(), e)) {
+                    return total - writes.size();
+                }
+            }
+        }
+    }
+
+    private int deleteWithRetry(List<Object> deletes) {
+        int total = deletes.size();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                delegate.deleteAll(deletes);
+                return total;
+            } catch (RuntimeException e) {
+                if (!retry(attempt, deletes.size(), e)) {
+                    return total - deletes.size();
+                }
+            }
+        }
+    }
+
+    private boolean retry(int attempt, int remaining, RuntimeException e) {
+        if (attempt >= maxRetries) {
+            failed.add(remaining);
+            LOGGER.log(Level.SEVERE, "Giving up on " + remaining + " write-behind mutations after "
+                    + (attempt + 1) + " attempts", e);
+            return false;
+        }
+        LOGGER.log(Level.WARNING, "Write-behind batch failed, retrying {0} mutations", remaining);
+        try {
+            TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MILLIS * (attempt + 1));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * Number of distinct keys waiting to be flushed.
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of mutations that replaced a still-pending mutation of the same key.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getFlushedWriteCount() {
+        return flushedWrites.sum();
+    }
+
+    public long getFlushedDeleteCount() {
+        return flushedDeletes.sum();
+    }
+
+    /**
+     * Number of mutations dropped after exhausting their retries.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        flush();
+        LOGGER.log(Level.INFO, "Write-behind drained: {0} writes, {1} deletes flushed, {2} failed",
+                new Object[]{getFlushedWriteCount(), getFlushedDeleteCount(), getFailedCount()});
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    private static final class PendingWrite<V> {
+        private final V value;
+
+        private PendingWrite(V value) {
+            this.value = value;
+        }
+    }
+}
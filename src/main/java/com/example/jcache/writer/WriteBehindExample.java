@@ -0,0 +1,55 @@
+package com.example.jcache.writer;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The bookCache from CacheWriterExample with BookCacheWriter behind a WriteBehindCacheWriter.
+ * The cache is still configured with setWriteThrough(true), JCache just calls the write-behind
+ * writer, which returns immediately and forwards the coalesced mutations to BookCacheWriter in
+ * batches. Closing the cache drains whatever is still queued.
+ */
+public class WriteBehindExample {
+    private static final Logger LOGGER = Logger.getLogger(WriteBehindExample.class.getName());
+
+    public static void main(String[] args) {
+        WriteBehindCacheWriter<Integer, Book> writer = new WriteBehindCacheWriter<>(
+                new BookCacheWriter(), 1_000, 50, 500, TimeUnit.MILLISECONDS, 3);
+
+        try (CachingProvider provider = Caching.getCachingProvider()) {
+            try (CacheManager cacheManager = provider.getCacheManager()) {
+                MutableConfiguration<Integer, Book> cacheConfiguration = new MutableConfiguration<Integer, Book>()
+                        .setTypes(Integer.class, Book.class)
+                        .setStoreByValue(false)
+                        .setWriteThrough(true)
+                        .setCacheWriterFactory(() -> writer)
+                        .setExpiryPolicyFactory(FactoryBuilder.factoryOf(new CreatedExpiryPolicy(Duration.ONE_MINUTE)));
+
+                try (Cache<Integer, Book> bookCache = cacheManager.createCache("bookCache", cacheConfiguration)) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < 200; i++) {
+                        // every book is written five times, only the last version reaches the writer
+                        int id = i % 40;
+                        bookCache.put(id, new Book(id, "Book " + id + " v" + i / 40, "Author " + id % 5));
+                    }
+                    bookCache.remove(1);
+                    LOGGER.log(Level.INFO, "200 puts returned in {0}ms, {1} keys pending, {2} coalesced",
+                            new Object[]{TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                                    writer.getPendingCount(), writer.getCoalescedCount()});
+                }
+                // Cache.close() closed the writer, which flushed the remaining mutations
+                LOGGER.log(Level.INFO, "Flushed {0} writes and {1} deletes",
+                        new Object[]{writer.getFlushedWriteCount(), writer.getFlushedDeleteCount()});
+            }
+        }
+    }
+}